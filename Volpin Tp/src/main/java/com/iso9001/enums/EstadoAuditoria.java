@@ -0,0 +1,22 @@
+package com.iso9001.enums;
+
+public enum EstadoAuditoria {
+    PROGRAMADA("Programada", "Auditoría planificada a futuro"),
+    EN_CURSO("En Curso", "Auditoría que se realiza hoy"),
+    COMPLETADA("Completada", "Auditoría realizada con conclusión registrada"),
+    VENCIDA("Vencida", "Fecha programada pasada sin completar");
+
+    private final String nombre;
+    private final String descripcion;
+
+    EstadoAuditoria(String nombre, String descripcion) {
+        this.nombre = nombre;
+        this.descripcion = descripcion;
+    }
+
+    public String getNombre() { return nombre; }
+    public String getDescripcion() { return descripcion; }
+
+    @Override
+    public String toString() { return nombre; }
+}
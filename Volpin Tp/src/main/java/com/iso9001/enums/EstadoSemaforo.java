@@ -0,0 +1,32 @@
+package com.iso9001.enums;
+
+public enum EstadoSemaforo {
+    VERDE("Verde", "Dentro del 5% del objetivo", "#27AE60"),
+    AMARILLO("Amarillo", "Dentro del 15% del objetivo", "#F1C40F"),
+    ROJO("Rojo", "Fuera del 15% del objetivo", "#E74C3C");
+
+    private final String nombre;
+    private final String descripcion;
+    private final String color;
+
+    EstadoSemaforo(String nombre, String descripcion, String color) {
+        this.nombre = nombre;
+        this.descripcion = descripcion;
+        this.color = color;
+    }
+
+    public static EstadoSemaforo calcular(double valorActual, double valorObjetivo) {
+        double diferencia = Math.abs(valorActual - valorObjetivo) / valorObjetivo;
+
+        if (diferencia <= 0.05) return VERDE;         // Dentro del 5%
+        else if (diferencia <= 0.15) return AMARILLO; // Dentro del 15%
+        else return ROJO;                             // Fuera del 15%
+    }
+
+    public String getNombre() { return nombre; }
+    public String getDescripcion() { return descripcion; }
+    public String getColor() { return color; }
+
+    @Override
+    public String toString() { return nombre; }
+}
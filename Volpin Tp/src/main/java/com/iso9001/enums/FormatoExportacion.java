@@ -0,0 +1,20 @@
+package com.iso9001.enums;
+
+public enum FormatoExportacion {
+    CSV("CSV", ".csv"),                  // Encabezado y una fila por registro
+    JSON_LINES("JSON Lines", ".jsonl");  // Un objeto JSON por línea
+
+    private final String nombre;
+    private final String extension;
+
+    FormatoExportacion(String nombre, String extension) {
+        this.nombre = nombre;
+        this.extension = extension;
+    }
+
+    public String getNombre() { return nombre; }
+    public String getExtension() { return extension; }
+
+    @Override
+    public String toString() { return nombre; }
+}
@@ -0,0 +1,46 @@
+package com.iso9001.enums;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+public enum Granularidad {
+    DIARIA("Diaria", "Un punto por día"),
+    SEMANAL("Semanal", "Un punto por semana (lunes a domingo)"),
+    MENSUAL("Mensual", "Un punto por mes calendario");
+
+    private final String nombre;
+    private final String descripcion;
+
+    Granularidad(String nombre, String descripcion) {
+        this.nombre = nombre;
+        this.descripcion = descripcion;
+    }
+
+    public LocalDate inicioPeriodo(LocalDate fecha) {
+        switch (this) {
+            case SEMANAL:
+                return fecha.with(DayOfWeek.MONDAY);
+            case MENSUAL:
+                return fecha.withDayOfMonth(1);
+            default:
+                return fecha;
+        }
+    }
+
+    public LocalDate siguientePeriodo(LocalDate inicio) {
+        switch (this) {
+            case SEMANAL:
+                return inicio.plusWeeks(1);
+            case MENSUAL:
+                return inicio.plusMonths(1);
+            default:
+                return inicio.plusDays(1);
+        }
+    }
+
+    public String getNombre() { return nombre; }
+    public String getDescripcion() { return descripcion; }
+
+    @Override
+    public String toString() { return nombre; }
+}
@@ -0,0 +1,22 @@
+package com.iso9001.enums;
+
+public enum TipoAlmacenamiento {
+    CSV("Archivos CSV", null),                                          // Snapshot CSV + bitácora de cambios
+    H2("H2 embebida", "jdbc:h2:./resources/data/iso9001"),              // Base en proceso, sin servidor
+    SQLITE("SQLite embebida", "jdbc:sqlite:resources/data/iso9001.db");
+
+    private final String nombre;
+    private final String urlPorDefecto;
+
+    TipoAlmacenamiento(String nombre, String urlPorDefecto) {
+        this.nombre = nombre;
+        this.urlPorDefecto = urlPorDefecto;
+    }
+
+    public String getNombre() { return nombre; }
+    public String getUrlPorDefecto() { return urlPorDefecto; }
+    public boolean esBaseDatos() { return urlPorDefecto != null; }
+
+    @Override
+    public String toString() { return nombre; }
+}
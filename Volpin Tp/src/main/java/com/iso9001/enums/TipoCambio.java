@@ -0,0 +1,24 @@
+package com.iso9001.enums;
+
+public enum TipoCambio {
+    INDICADOR_MEDIDO("Indicador medido", "Se registraron mediciones de un indicador"),
+    INDICADOR_MODIFICADO("Indicador modificado", "Se agregó, eliminó o cambió el objetivo de un indicador"),
+    ESTADO_NC_CAMBIADO("Estado de NC cambiado", "Una no conformidad cambió de estado o se cerró"),
+    NC_MODIFICADA("NC modificada", "Se registró, modificó o eliminó una no conformidad"),
+    AUDITORIA_COMPLETADA("Auditoría completada", "Se completó una auditoría"),
+    AUDITORIA_MODIFICADA("Auditoría modificada", "Se programó, modificó o eliminó una auditoría");
+
+    private final String nombre;
+    private final String descripcion;
+
+    TipoCambio(String nombre, String descripcion) {
+        this.nombre = nombre;
+        this.descripcion = descripcion;
+    }
+
+    public String getNombre() { return nombre; }
+    public String getDescripcion() { return descripcion; }
+
+    @Override
+    public String toString() { return nombre; }
+}
@@ -1,16 +1,26 @@
 package com.iso9001.gui;
 
+import com.iso9001.enums.TipoCambio;
 import com.iso9001.managers.*;
+import com.iso9001.utils.Configuracion;
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Dashboard Principal del Sistema ISO 9001
  * Versión final con integración completa de ventanas
  */
 public class DashboardPrincipal extends JFrame {
+    // Una ráfaga de cambios (por ejemplo, una importación de mediciones) se muestra en un solo repintado
+    private static final int INTERVALO_REFRESCO_MS = Configuracion.obtenerEntero("ui.dashboard.refresco.ms", 1000);
 
     // Managers del sistema
     private ProcesoManager procesoManager;
@@ -32,29 +42,128 @@ public class DashboardPrincipal extends JFrame {
     private JLabel lblIndicadoresRojo;
     private JLabel lblNCAbiertas;
     private JLabel lblAuditoriasCompletadas;
+    private JLabel lblCumplimiento;
+    private JProgressBar barraCarga;
+    private SwingWorker<SistemaManagers, String> cargaManagers;
 
-    // Constructor
+    // Refresco automático: los managers avisan sus cambios y se repinta lo afectado
+    private final Set<TipoCambio> cambiosPendientes = EnumSet.noneOf(TipoCambio.class);
+    private final BusEventos.Observador observadorCambios = (tipo, entidadId) -> registrarCambio(tipo);
+    private Timer temporizadorRefresco;
+
+    // Secciones del área de alertas; cada una se recalcula solo cuando cambia su módulo
+    private String alertasNoConformidades = "";
+    private String alertasAuditorias = "";
+    private String resumenIndicadores = "";
+
+    // Constructor: carga los datos en segundo plano
     public DashboardPrincipal() {
+        configurarVentana();
+        crearComponentes();
         inicializarManagers();
+    }
+
+    // Constructor con los datos ya cargados (por ejemplo, durante el splash)
+    public DashboardPrincipal(SistemaManagers sistema) {
         configurarVentana();
         crearComponentes();
-        actualizarDashboard();
+        barraCarga.setVisible(false);
+        asignarManagers(sistema);
     }
 
+    // Los managers leen sus archivos al construirse: se crean en segundo plano
+    // y el dashboard se muestra de inmediato con la barra de carga
     private void inicializarManagers() {
-        try {
-            System.out.println("Inicializando managers del sistema...");
+        System.out.println("Inicializando managers del sistema...");
+        cargaManagers = EjecutorTareas.ejecutar(new SwingWorker<SistemaManagers, String>() {
+            @Override
+            protected SistemaManagers doInBackground() {
+                return SistemaManagers.cargar((modulo, completados, total) -> {
+                    publish(modulo + " listo (" + completados + "/" + total + ")");
+                    setProgress(completados * 100 / total);
+                });
+            }
+
+            @Override
+            protected void process(List<String> pasos) {
+                barraCarga.setString(pasos.get(pasos.size() - 1));
+            }
+
+            @Override
+            protected void done() {
+                barraCarga.setVisible(false);
+                if (isCancelled()) return;
+
+                try {
+                    asignarManagers(get());
+                } catch (InterruptedException | ExecutionException e) {
+                    Throwable causa = e.getCause() != null ? e.getCause() : e;
+                    System.err.println("⚠ Error al inicializar managers: " + causa.getMessage());
+                    mostrarAdvertenciaManagers();
+                    actualizarDashboard();
+                }
+            }
+        });
+        cargaManagers.addPropertyChangeListener(evento -> {
+            if ("progress".equals(evento.getPropertyName())) {
+                barraCarga.setValue((Integer) evento.getNewValue());
+            }
+        });
+    }
 
-            // Inicializar managers en el orden correcto
-            this.indicadorManager = new IndicadorManager();
-            this.procesoManager = new ProcesoManager(indicadorManager);
-            this.noConformidadManager = new NoConformidadManager();
-            this.auditoriaManager = new AuditoriaManager();
+    // Se conservan los managers que alcanzaron a crearse
+    private void asignarManagers(SistemaManagers sistema) {
+        this.indicadorManager = sistema.getIndicadorManager();
+        this.procesoManager = sistema.getProcesoManager();
+        this.noConformidadManager = sistema.getNoConformidadManager();
+        this.auditoriaManager = sistema.getAuditoriaManager();
 
+        if (sistema.tieneErrores()) {
+            mostrarAdvertenciaManagers();
+        } else {
             System.out.println("✓ Managers inicializados correctamente");
+        }
+        suscribirCambios();
+        actualizarDashboard();
+    }
+
+    private void suscribirCambios() {
+        if (indicadorManager != null) indicadorManager.getEventos().suscribir(observadorCambios);
+        if (noConformidadManager != null) noConformidadManager.getEventos().suscribir(observadorCambios);
+        if (auditoriaManager != null) auditoriaManager.getEventos().suscribir(observadorCambios);
+    }
+
+    private void desuscribirCambios() {
+        if (indicadorManager != null) indicadorManager.getEventos().desuscribir(observadorCambios);
+        if (noConformidadManager != null) noConformidadManager.getEventos().desuscribir(observadorCambios);
+        if (auditoriaManager != null) auditoriaManager.getEventos().desuscribir(observadorCambios);
+    }
+
+    // Se invoca desde el hilo que modificó el manager, con su cerrojo tomado: solo se anota el cambio
+    private void registrarCambio(TipoCambio tipo) {
+        boolean primero;
+        synchronized (cambiosPendientes) {
+            primero = cambiosPendientes.isEmpty();
+            cambiosPendientes.add(tipo);
+        }
+        // El primer cambio de la ráfaga programa el repintado; los siguientes se suman a él
+        if (primero) {
+            SwingUtilities.invokeLater(() -> temporizadorRefresco.start());
+        }
+    }
+
+    private void aplicarCambiosPendientes() {
+        Set<TipoCambio> cambios;
+        synchronized (cambiosPendientes) {
+            cambios = EnumSet.copyOf(cambiosPendientes);
+            cambiosPendientes.clear();
+        }
+        if (cambios.isEmpty()) return;
+
+        try {
+            actualizarSecciones(cambios);
         } catch (Exception e) {
-            System.err.println("⚠ Error al inicializar managers: " + e.getMessage());
-            mostrarAdvertenciaManagers();
+            System.err.println("Error al refrescar dashboard: " + e.getMessage());
         }
     }
 
@@ -71,12 +180,22 @@ public class DashboardPrincipal extends JFrame {
     private void configurarVentana() {
         setTitle("Sistema de Gestión de Calidad ISO 9001 - Dashboard Principal");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                // Antes de salir: compacta las bitácoras y escribe los snapshots
+                cerrarManagers();
+            }
+        });
         setSize(1200, 800);
         setLocationRelativeTo(null);
         setLayout(new BorderLayout());
 
         // Configurar Look & Feel
         configurarLookAndFeel();
+
+        temporizadorRefresco = new Timer(INTERVALO_REFRESCO_MS, e -> aplicarCambiosPendientes());
+        temporizadorRefresco.setRepeats(false);
     }
 
     private static void configurarLookAndFeel() {
@@ -178,6 +297,9 @@ public class DashboardPrincipal extends JFrame {
             case "auditoriaIcon":
                 lblAuditoriasCompletadas = lblValor;
                 break;
+            case "cumplimientoIcon":
+                lblCumplimiento = lblValor;
+                break;
         }
 
         tarjeta.add(lblTitulo, BorderLayout.NORTH);
@@ -230,6 +352,12 @@ public class DashboardPrincipal extends JFrame {
         panel.add(Box.createHorizontalStrut(20));
         panel.add(btnActualizar);
 
+        barraCarga = new JProgressBar(0, 100);
+        barraCarga.setStringPainted(true);
+        barraCarga.setString("Cargando datos...");
+        barraCarga.setPreferredSize(new Dimension(200, 20));
+        panel.add(barraCarga);
+
         return panel;
     }
 
@@ -260,11 +388,12 @@ public class DashboardPrincipal extends JFrame {
         SwingUtilities.invokeLater(new Runnable() {
             public void run() {
                 try {
-                    // Actualizar estadísticas con datos reales
-                    actualizarEstadisticasReales();
+                    if (procesoManager != null) {
+                        lblTotalProcesos.setText(String.valueOf(procesoManager.getProcesosActivos()));
+                    }
 
-                    // Actualizar alertas
-                    actualizarAlertas();
+                    // Actualizar estadísticas y alertas de todos los módulos
+                    actualizarSecciones(EnumSet.allOf(TipoCambio.class));
 
                     System.out.println("Dashboard actualizado: " + LocalDate.now());
                 } catch (Exception e) {
@@ -275,22 +404,37 @@ public class DashboardPrincipal extends JFrame {
         });
     }
 
-    private void actualizarEstadisticasReales() {
-        try {
-            if (procesoManager != null) {
-                lblTotalProcesos.setText(String.valueOf(procesoManager.getProcesosActivos()));
-            }
+    // Recalcula solo las tarjetas y secciones de alertas de los módulos que cambiaron
+    private void actualizarSecciones(Set<TipoCambio> cambios) {
+        actualizarEstadisticasReales(cambios);
+        actualizarAlertas(cambios);
+    }
 
-            if (indicadorManager != null) {
+    private static boolean cambiaronIndicadores(Set<TipoCambio> cambios) {
+        return cambios.contains(TipoCambio.INDICADOR_MEDIDO) || cambios.contains(TipoCambio.INDICADOR_MODIFICADO);
+    }
+
+    private static boolean cambiaronNoConformidades(Set<TipoCambio> cambios) {
+        return cambios.contains(TipoCambio.ESTADO_NC_CAMBIADO) || cambios.contains(TipoCambio.NC_MODIFICADA);
+    }
+
+    private static boolean cambiaronAuditorias(Set<TipoCambio> cambios) {
+        return cambios.contains(TipoCambio.AUDITORIA_COMPLETADA) || cambios.contains(TipoCambio.AUDITORIA_MODIFICADA);
+    }
+
+    private void actualizarEstadisticasReales(Set<TipoCambio> cambios) {
+        try {
+            if (indicadorManager != null && cambiaronIndicadores(cambios)) {
                 lblIndicadoresVerde.setText(String.valueOf(indicadorManager.getIndicadoresVerde()));
                 lblIndicadoresRojo.setText(String.valueOf(indicadorManager.getIndicadoresRojo()));
+                lblCumplimiento.setText(String.format("%.0f%%", indicadorManager.calcularPorcentajeCumplimientoGeneral()));
             }
 
-            if (noConformidadManager != null) {
+            if (noConformidadManager != null && cambiaronNoConformidades(cambios)) {
                 lblNCAbiertas.setText(String.valueOf(noConformidadManager.getNoConformidadesAbiertas()));
             }
 
-            if (auditoriaManager != null) {
+            if (auditoriaManager != null && cambiaronAuditorias(cambios)) {
                 lblAuditoriasCompletadas.setText(String.valueOf(auditoriaManager.getAuditoriasCompletadas()));
             }
         } catch (Exception e) {
@@ -308,33 +452,30 @@ public class DashboardPrincipal extends JFrame {
         lblAuditoriasCompletadas.setText("2");
     }
 
-    private void actualizarAlertas() {
+    private void actualizarAlertas(Set<TipoCambio> cambios) {
         StringBuilder alertas = new StringBuilder();
         alertas.append("=== ALERTAS DEL SISTEMA ===\n");
         alertas.append("Fecha: ").append(LocalDate.now()).append("\n\n");
 
         try {
             // Alertas reales de los managers
-            if (noConformidadManager != null) {
-                for (String alerta : noConformidadManager.generarAlertas()) {
-                    alertas.append("• ").append(alerta).append("\n");
-                }
+            if (noConformidadManager != null && cambiaronNoConformidades(cambios)) {
+                alertasNoConformidades = listarAlertas(noConformidadManager.generarAlertas());
             }
 
-            if (auditoriaManager != null) {
-                for (String alerta : auditoriaManager.generarAlertas()) {
-                    alertas.append("• ").append(alerta).append("\n");
-                }
+            if (auditoriaManager != null && cambiaronAuditorias(cambios)) {
+                alertasAuditorias = listarAlertas(auditoriaManager.generarAlertas());
             }
 
             // Resumen de indicadores
-            if (indicadorManager != null) {
-                alertas.append("\n📊 RESUMEN DE INDICADORES:\n");
-                alertas.append("• Total indicadores: ").append(indicadorManager.getTotalIndicadores()).append("\n");
-                alertas.append("• Indicadores saludables: ").append(indicadorManager.getIndicadoresVerde()).append("\n");
-                alertas.append("• Indicadores críticos: ").append(indicadorManager.getIndicadoresRojo()).append("\n");
+            if (indicadorManager != null && cambiaronIndicadores(cambios)) {
+                resumenIndicadores = "\n📊 RESUMEN DE INDICADORES:\n" +
+                        "• Total indicadores: " + indicadorManager.getTotalIndicadores() + "\n" +
+                        "• Indicadores saludables: " + indicadorManager.getIndicadoresVerde() + "\n" +
+                        "• Indicadores críticos: " + indicadorManager.getIndicadoresRojo() + "\n";
             }
 
+            alertas.append(alertasNoConformidades).append(alertasAuditorias).append(resumenIndicadores);
         } catch (Exception e) {
             // Alertas de ejemplo en caso de error
             alertas.append("⚠ ALERTAS ACTIVAS:\n\n");
@@ -343,8 +484,20 @@ public class DashboardPrincipal extends JFrame {
             alertas.append("• Auditoría interna programada para la próxima semana\n");
         }
 
-        areaAlertas.setText(alertas.toString());
-        areaAlertas.setCaretPosition(0);
+        // Sin cambios visibles no se repinta ni se mueve el cursor del usuario
+        String texto = alertas.toString();
+        if (!texto.equals(areaAlertas.getText())) {
+            areaAlertas.setText(texto);
+            areaAlertas.setCaretPosition(0);
+        }
+    }
+
+    private static String listarAlertas(List<String> alertas) {
+        StringBuilder texto = new StringBuilder();
+        for (String alerta : alertas) {
+            texto.append("• ").append(alerta).append("\n");
+        }
+        return texto.toString();
     }
 
     // ===============================================================
@@ -426,7 +579,8 @@ public class DashboardPrincipal extends JFrame {
         try {
             if (procesoManager != null && indicadorManager != null && noConformidadManager != null) {
                 if (ventanaReportes == null || !ventanaReportes.isDisplayable()) {
-                    ventanaReportes = new VentanaReportes(procesoManager, indicadorManager, noConformidadManager);
+                    ventanaReportes = new VentanaReportes(procesoManager, indicadorManager, noConformidadManager,
+                            auditoriaManager);
                 }
                 ventanaReportes.setVisible(true);
                 ventanaReportes.toFront();
@@ -441,6 +595,14 @@ public class DashboardPrincipal extends JFrame {
 
     // Método para manejar cuando un manager no está disponible
     private void manejarManagerNoDisponible(String nombreVentana) {
+        if (cargaManagers != null && !cargaManagers.isDone()) {
+            JOptionPane.showMessageDialog(this,
+                    "Los datos del sistema todavía se están cargando.\n" +
+                            "El módulo " + nombreVentana + " estará disponible en unos segundos.",
+                    "Cargando - " + nombreVentana,
+                    JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
         JOptionPane.showMessageDialog(this,
                 "El módulo " + nombreVentana + " no está disponible.\n\n" +
                         "Posibles causas:\n" +
@@ -496,7 +658,19 @@ public class DashboardPrincipal extends JFrame {
         }
     }
 
+    private void cerrarManagers() {
+        temporizadorRefresco.stop();
+        desuscribirCambios();
+        if (procesoManager != null) procesoManager.cerrar();
+        if (indicadorManager != null) indicadorManager.cerrar();
+        if (noConformidadManager != null) noConformidadManager.cerrar();
+        if (auditoriaManager != null) auditoriaManager.cerrar();
+    }
+
     public void dispose() {
+        EjecutorTareas.cancelar(cargaManagers);
+        temporizadorRefresco.stop();
+        desuscribirCambios();
         cerrarTodasLasVentanas();
         super.dispose();
     }
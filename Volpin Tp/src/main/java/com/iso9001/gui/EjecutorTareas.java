@@ -0,0 +1,54 @@
+package com.iso9001.gui;
+
+import javax.swing.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecutor de tareas en segundo plano para las ventanas del Sistema ISO 9001
+ *
+ * Las lecturas de disco, los filtros y la generación de reportes se ejecutan
+ * como SwingWorker en este pool para no bloquear el hilo de eventos (EDT).
+ * Los hilos son daemon, así que no impiden cerrar la aplicación.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+public final class EjecutorTareas {
+    private static final int HILOS = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+    private static final ExecutorService EJECUTOR = Executors.newFixedThreadPool(HILOS, new FabricaHilos());
+
+    private EjecutorTareas() {
+    }
+
+    /**
+     * Ejecuta la tarea en el pool; done() y process() siguen corriendo en el EDT
+     * @param tarea Tarea a ejecutar
+     * @return La misma tarea, para poder cancelarla luego
+     */
+    public static <W extends SwingWorker<?, ?>> W ejecutar(W tarea) {
+        EJECUTOR.execute(tarea);
+        return tarea;
+    }
+
+    /**
+     * Cancela la tarea si sigue en curso. Acepta null.
+     * @return true si la tarea estaba en curso y se canceló
+     */
+    public static boolean cancelar(SwingWorker<?, ?> tarea) {
+        return tarea != null && !tarea.isDone() && tarea.cancel(true);
+    }
+
+    private static class FabricaHilos implements ThreadFactory {
+        private final AtomicInteger contador = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread hilo = new Thread(r, "iso9001-tarea-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        }
+    }
+}
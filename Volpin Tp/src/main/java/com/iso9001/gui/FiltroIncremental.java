@@ -0,0 +1,217 @@
+package com.iso9001.gui;
+
+import com.iso9001.utils.TextoUtils;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.*;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Filtro de búsqueda mientras se escribe para las tablas de entidades
+ *
+ * - Espera una pausa en el tecleo antes de filtrar (debounce).
+ * - Normaliza cada entidad una sola vez y reutiliza esa clave en las
+ *   búsquedas siguientes.
+ * - Si la consulta nueva contiene a la anterior y los demás criterios no
+ *   cambiaron, solo revisa las filas del resultado anterior.
+ * - Una consulta nueva cancela la que esté en curso.
+ * - Con un buscador (el índice de texto del manager), la consulta de texto
+ *   no recorre las entidades: se muestran las que devuelve el índice, en su
+ *   orden de relevancia, y los demás criterios se aplican solo sobre ellas.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+public class FiltroIncremental<T> {
+    private static final int RETARDO_MS = 250;
+
+    private final JTable tabla;
+    private final ModeloTablaEntidades<T> modelo;
+    private final List<Function<T, String>> camposBusqueda;
+    private final Runnable alTerminar;
+    private final Timer temporizador;
+    private Function<String, List<T>> buscador;
+
+    private List<T> datos = List.of();
+    private String[] claves = new String[0];   // Claves normalizadas, se calculan a demanda
+    private TareaCargaTabla<T> tareaActual;
+
+    // Consulta pendiente de aplicar
+    private String texto = "";
+    private Object claveCriterios;
+    private Predicate<T> criterios;
+
+    // Última consulta aplicada y su resultado (null = todas las filas)
+    private String textoAplicado;
+    private Object criteriosAplicados;
+    private int[] resultadoAplicado;
+
+    /**
+     * @param tabla Tabla que muestra el modelo (para el cursor de espera)
+     * @param modelo Modelo a filtrar
+     * @param alTerminar Acción en el EDT tras cada filtrado (puede ser null)
+     * @param camposBusqueda Campos de texto donde busca la consulta
+     */
+    public FiltroIncremental(JTable tabla, ModeloTablaEntidades<T> modelo, Runnable alTerminar,
+                             List<Function<T, String>> camposBusqueda) {
+        this.tabla = tabla;
+        this.modelo = modelo;
+        this.alTerminar = alTerminar;
+        this.camposBusqueda = List.copyOf(camposBusqueda);
+        this.temporizador = new Timer(RETARDO_MS, e -> ejecutar());
+        this.temporizador.setRepeats(false);
+    }
+
+    /**
+     * Resuelve la consulta de texto con un índice en lugar de recorrer los datos
+     * @param buscador Devuelve las entidades que coinciden con la consulta, las
+     *                 más relevantes primero (por ejemplo, manager::buscarTexto)
+     */
+    public void usarBuscador(Function<String, List<T>> buscador) {
+        this.buscador = buscador;
+    }
+
+    /**
+     * Reemplaza los datos y vuelve a aplicar la consulta actual
+     * @param datos Entidades devueltas por el manager; no se modifican
+     */
+    public void cargar(List<T> datos) {
+        this.datos = datos;
+        this.claves = new String[datos.size()];
+        this.resultadoAplicado = null;
+        this.textoAplicado = null;
+        aplicar(texto, claveCriterios, criterios);
+    }
+
+    /**
+     * Programa el filtrado para cuando el usuario deje de escribir
+     * @param texto Texto de búsqueda
+     * @param claveCriterios Valores de los demás criterios (tipo, estado...), comparados con equals
+     * @param criterios Condición adicional a la búsqueda de texto (null = ninguna)
+     */
+    public void programar(String texto, Object claveCriterios, Predicate<T> criterios) {
+        guardarConsulta(texto, claveCriterios, criterios);
+        temporizador.restart();
+    }
+
+    /**
+     * Filtra de inmediato (Enter, combos, botón Filtrar)
+     */
+    public void aplicar(String texto, Object claveCriterios, Predicate<T> criterios) {
+        guardarConsulta(texto, claveCriterios, criterios);
+        temporizador.stop();
+        ejecutar();
+    }
+
+    /**
+     * Detiene el temporizador y la tarea en curso
+     */
+    public void cancelar() {
+        temporizador.stop();
+        EjecutorTareas.cancelar(tareaActual);
+    }
+
+    private void guardarConsulta(String texto, Object claveCriterios, Predicate<T> criterios) {
+        this.texto = TextoUtils.normalizar(texto);
+        this.claveCriterios = claveCriterios;
+        this.criterios = criterios;
+    }
+
+    private void ejecutar() {
+        EjecutorTareas.cancelar(tareaActual);
+
+        String consulta = texto;
+        Object claveConsulta = claveCriterios;
+        Predicate<T> condicion = criterios;
+
+        // El índice ya devuelve solo las coincidencias: queda aplicar los demás criterios
+        if (buscador != null && !consulta.isEmpty()) {
+            List<T> encontradas = buscador.apply(consulta);
+            IntPredicate filtro = condicion == null ? null : posicion -> condicion.test(encontradas.get(posicion));
+            cargarTabla(encontradas, null, filtro, null, claveConsulta);
+            return;
+        }
+
+        // Solo se puede angostar el resultado anterior si la consulta lo contiene
+        int[] candidatos = null;
+        if (textoAplicado != null && Objects.equals(criteriosAplicados, claveConsulta)
+                && consulta.contains(textoAplicado)) {
+            candidatos = resultadoAplicado;
+        }
+
+        List<T> datosConsulta = datos;
+        String[] clavesConsulta = claves;
+        IntPredicate filtro = null;
+        if (!consulta.isEmpty() || condicion != null) {
+            filtro = posicion -> {
+                if (!consulta.isEmpty() && !clave(datosConsulta, clavesConsulta, posicion).contains(consulta)) {
+                    return false;
+                }
+                return condicion == null || condicion.test(datosConsulta.get(posicion));
+            };
+        }
+
+        cargarTabla(datosConsulta, candidatos, filtro, consulta, claveConsulta);
+    }
+
+    // textoAplicado null: el resultado no sirve para angostar la próxima consulta
+    private void cargarTabla(List<T> datosConsulta, int[] candidatos, IntPredicate filtro,
+                             String textoAplicable, Object claveConsulta) {
+        tabla.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        tareaActual = EjecutorTareas.ejecutar(new TareaCargaTabla<>(modelo, datosConsulta, candidatos, filtro,
+                filas -> {
+                    textoAplicado = textoAplicable;
+                    criteriosAplicados = claveConsulta;
+                    resultadoAplicado = filas;
+                    tabla.setCursor(Cursor.getDefaultCursor());
+                    if (alTerminar != null) {
+                        alTerminar.run();
+                    }
+                }));
+    }
+
+    // Dos tareas pueden calcular la misma clave a la vez; el resultado es idéntico
+    private String clave(List<T> datosConsulta, String[] clavesConsulta, int posicion) {
+        String clave = clavesConsulta[posicion];
+        if (clave == null) {
+            T entidad = datosConsulta.get(posicion);
+            String[] campos = new String[camposBusqueda.size()];
+            for (int i = 0; i < campos.length; i++) {
+                campos[i] = camposBusqueda.get(i).apply(entidad);
+            }
+            clave = TextoUtils.claveBusqueda(campos);
+            clavesConsulta[posicion] = clave;
+        }
+        return clave;
+    }
+
+    /**
+     * Escucha cada cambio del texto de un campo
+     * @param campo Campo de búsqueda
+     * @param accion Acción a ejecutar con cada tecla
+     */
+    public static void alEscribir(JTextField campo, Runnable accion) {
+        campo.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                accion.run();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                accion.run();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                accion.run();
+            }
+        });
+    }
+}
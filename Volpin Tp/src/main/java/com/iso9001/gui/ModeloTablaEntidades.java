@@ -0,0 +1,84 @@
+package com.iso9001.gui;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Modelo de tabla de solo lectura respaldado por una lista de entidades
+ *
+ * No copia campos a arreglos de filas: cada celda se calcula al pintarse, así
+ * que solo se formatean las filas visibles. Un filtro se representa como un
+ * arreglo con las posiciones de las entidades que coinciden, y cambiar los
+ * datos o el filtro dispara un único fireTableDataChanged.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+public class ModeloTablaEntidades<T> extends AbstractTableModel {
+    private final String[] columnas;
+    private final ValorCelda<T> valorCelda;
+    private List<T> entidades = new ArrayList<>();
+    private int[] filas;   // Posiciones visibles en entidades; null = todas
+
+    /**
+     * Calcula el valor de una columna para una entidad
+     */
+    @FunctionalInterface
+    public interface ValorCelda<T> {
+        Object valor(T entidad, int columna);
+    }
+
+    /**
+     * @param columnas Nombres de las columnas
+     * @param valorCelda Valor de cada columna para una entidad
+     */
+    public ModeloTablaEntidades(String[] columnas, ValorCelda<T> valorCelda) {
+        this.columnas = columnas;
+        this.valorCelda = valorCelda;
+    }
+
+    /**
+     * Reemplaza los datos mostrados
+     * @param entidades Copia de las entidades (el modelo no la modifica)
+     * @param filas Posiciones de las entidades a mostrar, en orden; null para mostrar todas
+     */
+    public void mostrar(List<T> entidades, int[] filas) {
+        this.entidades = entidades;
+        this.filas = filas;
+        fireTableDataChanged();
+    }
+
+    /**
+     * @param fila Fila de la tabla (en índices del modelo)
+     * @return Entidad mostrada en esa fila
+     */
+    public T getEntidad(int fila) {
+        return entidades.get(filas != null ? filas[fila] : fila);
+    }
+
+    @Override
+    public int getRowCount() {
+        return filas != null ? filas.length : entidades.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnas.length;
+    }
+
+    @Override
+    public String getColumnName(int columna) {
+        return columnas[columna];
+    }
+
+    @Override
+    public Object getValueAt(int fila, int columna) {
+        return valorCelda.valor(getEntidad(fila), columna);
+    }
+
+    @Override
+    public boolean isCellEditable(int fila, int columna) {
+        return false;
+    }
+}
@@ -0,0 +1,87 @@
+package com.iso9001.gui;
+
+import javax.swing.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Filtra entidades para una tabla desde un hilo de fondo
+ *
+ * Recorre la lista fuera del EDT y guarda solo las posiciones de las entidades
+ * que coinciden; al terminar entrega la lista y esas posiciones al modelo, que
+ * se actualiza con un único evento. Puede recorrer solo un subconjunto de
+ * posiciones candidatas (por ejemplo, el resultado de una búsqueda anterior).
+ * Sin filtro no recorre nada. Si la tarea se cancela, el modelo conserva lo
+ * que mostraba.
+ *
+ * La lista recibida debe ser una copia (como las que devuelven los managers):
+ * las altas y bajas se siguen haciendo desde el EDT mientras la tarea corre.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+public class TareaCargaTabla<T> extends SwingWorker<int[], Void> {
+    private final ModeloTablaEntidades<T> modelo;
+    private final List<T> datos;
+    private final int[] candidatos;
+    private final IntPredicate filtro;
+    private final Consumer<int[]> alTerminar;
+
+    /**
+     * @param modelo Modelo de la tabla a llenar
+     * @param datos Copia de las entidades a mostrar
+     * @param candidatos Posiciones a revisar, en orden (null = todas)
+     * @param filtro Condición que debe cumplir la entidad de cada posición (null = todas)
+     * @param alTerminar Recibe en el EDT las posiciones mostradas (null = todas); puede ser null
+     */
+    public TareaCargaTabla(ModeloTablaEntidades<T> modelo, List<T> datos, int[] candidatos,
+                           IntPredicate filtro, Consumer<int[]> alTerminar) {
+        this.modelo = modelo;
+        this.datos = datos;
+        this.candidatos = candidatos;
+        this.filtro = filtro;
+        this.alTerminar = alTerminar;
+    }
+
+    @Override
+    protected int[] doInBackground() {
+        if (filtro == null) return candidatos;
+
+        int total = candidatos != null ? candidatos.length : datos.size();
+        int[] coincidencias = new int[total];
+        int cantidad = 0;
+        for (int i = 0; i < total; i++) {
+            if (isCancelled()) return null;
+
+            int posicion = candidatos != null ? candidatos[i] : i;
+            if (filtro.test(posicion)) {
+                coincidencias[cantidad++] = posicion;
+            }
+            if ((i & 1023) == 0) {
+                setProgress(i * 100 / total);
+            }
+        }
+        setProgress(100);
+        return Arrays.copyOf(coincidencias, cantidad);
+    }
+
+    @Override
+    protected void done() {
+        if (isCancelled()) return;
+
+        int[] filas = null;
+        try {
+            filas = get();
+            modelo.mostrar(datos, filas);
+        } catch (InterruptedException | ExecutionException e) {
+            Throwable causa = e.getCause() != null ? e.getCause() : e;
+            System.err.println("Error al filtrar la tabla: " + causa.getMessage());
+        }
+        if (alTerminar != null) {
+            alTerminar.accept(filas);
+        }
+    }
+}
@@ -1,25 +1,28 @@
 package com.iso9001.gui;
 
+import com.iso9001.enums.EstadoAuditoria;
 import com.iso9001.managers.AuditoriaManager;
 import com.iso9001.models.Auditoria;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableCellRenderer;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Predicate;
 
 public class VentanaAuditorias extends JFrame {
     private final AuditoriaManager auditoriaManager;
 
     private JTable tablaAuditorias;
-    private DefaultTableModel modeloTabla;
+    private ModeloTablaEntidades<Auditoria> modeloTabla;
+    private FiltroIncremental<Auditoria> filtro;
     private JTextField txtBuscar;
     private JComboBox<String> comboTipo;
-    private JComboBox<String> comboEstado;
+    private JComboBox<EstadoAuditoria> comboEstado;
     private JTextArea areaDetalles;
     private JPanel panelEstadisticas;
 
@@ -75,6 +78,7 @@ public class VentanaAuditorias extends JFrame {
         panel.add(new JLabel("Buscar:"));
         txtBuscar = new JTextField(20);
         txtBuscar.addActionListener(e -> filtrarAuditorias());
+        FiltroIncremental.alEscribir(txtBuscar, () -> filtrarAuditorias(true));
         panel.add(txtBuscar);
 
         panel.add(new JLabel("Tipo:"));
@@ -87,11 +91,10 @@ public class VentanaAuditorias extends JFrame {
 
         panel.add(new JLabel("Estado:"));
         comboEstado = new JComboBox<>();
-        comboEstado.addItem("TODOS");
-        comboEstado.addItem("PROGRAMADA");
-        comboEstado.addItem("EN_CURSO");
-        comboEstado.addItem("COMPLETADA");
-        comboEstado.addItem("VENCIDA");
+        comboEstado.addItem(null); // Opción "Todos"
+        for (EstadoAuditoria estado : EstadoAuditoria.values()) {
+            comboEstado.addItem(estado);
+        }
         comboEstado.addActionListener(e -> filtrarAuditorias());
         panel.add(comboEstado);
 
@@ -112,14 +115,12 @@ public class VentanaAuditorias extends JFrame {
 
         // Crear modelo de tabla
         String[] columnas = {"ID", "Título", "Tipo", "Estado", "Fecha Programada", "Auditor Líder", "Calificación"};
-        modeloTabla = new DefaultTableModel(columnas, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        modeloTabla = new ModeloTablaEntidades<>(columnas, this::valorCelda);
 
         tablaAuditorias = new JTable(modeloTabla);
+        filtro = new FiltroIncremental<>(tablaAuditorias, modeloTabla, this::actualizarEstadisticas,
+                List.of(Auditoria::getTitulo, Auditoria::getAuditorLider));
+        filtro.usarBuscador(auditoriaManager::buscarTexto);
         tablaAuditorias.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         tablaAuditorias.addMouseListener(new MouseAdapter() {
             @Override
@@ -236,66 +237,51 @@ public class VentanaAuditorias extends JFrame {
     }
 
     private void cargarDatos() {
-        modeloTabla.setRowCount(0);
-        List<Auditoria> auditorias = auditoriaManager.obtenerTodasAuditorias();
-
-        for (Auditoria auditoria : auditorias) {
-            Object[] fila = {
-                    auditoria.getId(),
-                    auditoria.getTitulo(),
-                    auditoria.getTipo(),
-                    auditoria.getEstadoAuditoria(),
-                    auditoria.getFechaProgramada(),
-                    auditoria.getAuditorLider(),
-                    auditoria.isCompletada() ? String.format("%.1f", auditoria.getCalificacionGeneral()) : "N/A"
-            };
-
-            modeloTabla.addRow(fila);
-        }
-
-        actualizarEstadisticas();
+        filtro.cargar(auditoriaManager.obtenerTodasAuditorias());
     }
 
-    private void filtrarAuditorias() {
-        String busqueda = txtBuscar.getText().trim();
-        String tipoSeleccionado = (String) comboTipo.getSelectedItem();
-        String estadoSeleccionado = (String) comboEstado.getSelectedItem();
-
-        modeloTabla.setRowCount(0);
-        List<Auditoria> auditorias = auditoriaManager.obtenerTodasAuditorias();
-
-        for (Auditoria auditoria : auditorias) {
-            boolean coincide = true;
+    // Las celdas se calculan al pintarse: solo se formatean las filas visibles
+    private Object valorCelda(Auditoria auditoria, int columna) {
+        return switch (columna) {
+            case 0 -> auditoria.getId();
+            case 1 -> auditoria.getTitulo();
+            case 2 -> auditoria.getTipo();
+            case 3 -> auditoria.getEstadoAuditoria();
+            case 4 -> auditoria.getFechaProgramada();
+            case 5 -> auditoria.getAuditorLider();
+            case 6 -> auditoria.isCompletada() ? String.format("%.1f", auditoria.getCalificacionGeneral()) : "N/A";
+            default -> null;
+        };
+    }
 
-            // Filtrar por búsqueda de texto
-            if (!busqueda.isEmpty()) {
-                coincide = auditoria.getTitulo().toLowerCase().contains(busqueda.toLowerCase()) ||
-                        auditoria.getAuditorLider().toLowerCase().contains(busqueda.toLowerCase());
-            }
+    @Override
+    public void dispose() {
+        filtro.cancelar();
+        super.dispose();
+    }
 
-            // Filtrar por tipo
-            if (!"TODOS".equals(tipoSeleccionado)) {
-                coincide = coincide && auditoria.getTipo().equals(tipoSeleccionado);
-            }
+    private void filtrarAuditorias() {
+        filtrarAuditorias(false);
+    }
 
-            // Filtrar por estado
-            if (!"TODOS".equals(estadoSeleccionado)) {
-                coincide = coincide && auditoria.getEstadoAuditoria().equals(estadoSeleccionado);
-            }
+    // Con retardo mientras se escribe; inmediato con Enter, combos y botón Filtrar
+    private void filtrarAuditorias(boolean conRetardo) {
+        String tipoSeleccionado = (String) comboTipo.getSelectedItem();
+        EstadoAuditoria estadoSeleccionado = (EstadoAuditoria) comboEstado.getSelectedItem();
+
+        // Filtrar por tipo y por estado
+        Predicate<Auditoria> criterios = null;
+        boolean todosLosTipos = "TODOS".equals(tipoSeleccionado);
+        if (!todosLosTipos || estadoSeleccionado != null) {
+            criterios = auditoria -> (todosLosTipos || auditoria.getTipo().equals(tipoSeleccionado)) &&
+                    (estadoSeleccionado == null || auditoria.getEstadoAuditoria() == estadoSeleccionado);
+        }
+        List<Object> claveCriterios = Arrays.asList(tipoSeleccionado, estadoSeleccionado);
 
-            if (coincide) {
-                Object[] fila = {
-                        auditoria.getId(),
-                        auditoria.getTitulo(),
-                        auditoria.getTipo(),
-                        auditoria.getEstadoAuditoria(),
-                        auditoria.getFechaProgramada(),
-                        auditoria.getAuditorLider(),
-                        auditoria.isCompletada() ? String.format("%.1f", auditoria.getCalificacionGeneral()) : "N/A"
-                };
-
-                modeloTabla.addRow(fila);
-            }
+        if (conRetardo) {
+            filtro.programar(txtBuscar.getText(), claveCriterios, criterios);
+        } else {
+            filtro.aplicar(txtBuscar.getText(), claveCriterios, criterios);
         }
     }
 
@@ -321,7 +307,7 @@ public class VentanaAuditorias extends JFrame {
             detalles.append("ID: ").append(auditoria.getId()).append("\n");
             detalles.append("Título: ").append(auditoria.getTitulo()).append("\n");
             detalles.append("Tipo: ").append(auditoria.getTipo()).append("\n");
-            detalles.append("Estado: ").append(auditoria.getEstadoAuditoria()).append("\n");
+            detalles.append("Estado: ").append(auditoria.getEstadoAuditoria().name()).append("\n");
             detalles.append("Auditor Líder: ").append(auditoria.getAuditorLider()).append("\n");
 
             if (!auditoria.getAuditores().isEmpty()) {
@@ -358,11 +344,13 @@ public class VentanaAuditorias extends JFrame {
             }
 
             // Hallazgos
-            if (!auditoria.getHallazgos().isEmpty()) {
+            // Una sola lectura: tamaño y elementos salen de la misma versión de la lista
+            List<String> hallazgos = auditoria.getHallazgos();
+            if (!hallazgos.isEmpty()) {
                 detalles.append("\nHALLAZGOS\n");
                 detalles.append("-".repeat(15)).append("\n");
-                for (int i = 0; i < auditoria.getHallazgos().size(); i++) {
-                    detalles.append((i + 1)).append(". ").append(auditoria.getHallazgos().get(i)).append("\n");
+                for (int i = 0; i < hallazgos.size(); i++) {
+                    detalles.append((i + 1)).append(". ").append(hallazgos.get(i)).append("\n");
                 }
             }
 
@@ -576,23 +564,23 @@ public class VentanaAuditorias extends JFrame {
         @Override
         public Component getTableCellRendererComponent(JTable table, Object value,
                                                        boolean isSelected, boolean hasFocus, int row, int column) {
-            String estado = (String) value;
-            setText(estado);
+            EstadoAuditoria estado = (EstadoAuditoria) value;
+            setText(estado.getNombre());
 
             switch (estado) {
-                case "PROGRAMADA":
+                case PROGRAMADA:
                     setBackground(new Color(241, 196, 15));
                     setForeground(Color.BLACK);
                     break;
-                case "EN_CURSO":
+                case EN_CURSO:
                     setBackground(new Color(52, 152, 219));
                     setForeground(Color.WHITE);
                     break;
-                case "COMPLETADA":
+                case COMPLETADA:
                     setBackground(new Color(39, 174, 96));
                     setForeground(Color.WHITE);
                     break;
-                case "VENCIDA":
+                case VENCIDA:
                     setBackground(new Color(231, 76, 60));
                     setForeground(Color.WHITE);
                     break;
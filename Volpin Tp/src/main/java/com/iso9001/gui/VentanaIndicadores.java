@@ -1,26 +1,42 @@
 package com.iso9001.gui;
 
+import com.iso9001.managers.ImportadorMediciones;
 import com.iso9001.managers.IndicadorManager;
 import com.iso9001.models.Indicador;
+import com.iso9001.utils.SerieTemporal;
+import com.iso9001.enums.EstadoSemaforo;
+import com.iso9001.enums.Granularidad;
 import com.iso9001.enums.TipoIndicador;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableCellRenderer;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Predicate;
 
 public class VentanaIndicadores extends JFrame {
+    private static final DateTimeFormatter FORMATO_MES = DateTimeFormatter.ofPattern("yyyy-MM");
+
     private final IndicadorManager indicadorManager;
 
     private JTable tablaIndicadores;
-    private DefaultTableModel modeloTabla;
+    private ModeloTablaEntidades<Indicador> modeloTabla;
     private JTextField txtBuscar;
     private JComboBox<TipoIndicador> comboTipo;
-    private JComboBox<String> comboEstado;
+    private JComboBox<EstadoSemaforo> comboEstado;
     private JTextArea areaDetalles;
     private JPanel panelGraficos;
+    private FiltroIncremental<Indicador> filtro;
+    private JButton btnImportar;
+    private JProgressBar barraImportacion;
+    private SwingWorker<ImportadorMediciones.Resultado, Long> tareaImportacion;
 
     public VentanaIndicadores(IndicadorManager indicadorManager) {
         this.indicadorManager = indicadorManager;
@@ -69,28 +85,28 @@ public class VentanaIndicadores extends JFrame {
 
     // Método público para cargar datos
     public void cargarDatos() {
-        try {
-            modeloTabla.setRowCount(0);
-            List<Indicador> indicadores = indicadorManager.obtenerTodosIndicadores();
-
-            for (Indicador indicador : indicadores) {
-                Object[] fila = {
-                        indicador.getId(),
-                        indicador.getNombre(),
-                        indicador.getTipo().getNombre(),
-                        String.format("%.2f", indicador.getValorActual()),
-                        String.format("%.2f", indicador.getValorObjetivo()),
-                        indicador.getEstadoSemaforo(),
-                        String.format("%.1f%%", indicador.calcularTendencia())
-                };
-
-                modeloTabla.addRow(fila);
-            }
+        filtro.cargar(indicadorManager.obtenerTodosIndicadores());
+    }
 
-            actualizarEstadisticasGenerales();
-        } catch (Exception e) {
-            System.err.println("Error cargando datos de indicadores: " + e.getMessage());
-        }
+    // Las celdas se calculan al pintarse: solo se formatean las filas visibles
+    private Object valorCelda(Indicador indicador, int columna) {
+        return switch (columna) {
+            case 0 -> indicador.getId();
+            case 1 -> indicador.getNombre();
+            case 2 -> indicador.getTipo().getNombre();
+            case 3 -> String.format("%.2f", indicador.getValorActual());
+            case 4 -> String.format("%.2f", indicador.getValorObjetivo());
+            case 5 -> indicador.getEstadoSemaforo();
+            case 6 -> String.format("%.1f%%", indicador.calcularTendencia());
+            default -> null;
+        };
+    }
+
+    @Override
+    public void dispose() {
+        filtro.cancelar();
+        EjecutorTareas.cancelar(tareaImportacion);
+        super.dispose();
     }
 
     private JPanel crearPanelFiltros() {
@@ -100,6 +116,7 @@ public class VentanaIndicadores extends JFrame {
         panel.add(new JLabel("Buscar:"));
         txtBuscar = new JTextField(20);
         txtBuscar.addActionListener(e -> filtrarIndicadores());
+        FiltroIncremental.alEscribir(txtBuscar, () -> filtrarIndicadores(true));
         panel.add(txtBuscar);
 
         panel.add(new JLabel("Tipo:"));
@@ -113,10 +130,10 @@ public class VentanaIndicadores extends JFrame {
 
         panel.add(new JLabel("Estado:"));
         comboEstado = new JComboBox<>();
-        comboEstado.addItem("TODOS");
-        comboEstado.addItem("VERDE");
-        comboEstado.addItem("AMARILLO");
-        comboEstado.addItem("ROJO");
+        comboEstado.addItem(null); // Opción "Todos"
+        for (EstadoSemaforo estado : EstadoSemaforo.values()) {
+            comboEstado.addItem(estado);
+        }
         comboEstado.addActionListener(e -> filtrarIndicadores());
         panel.add(comboEstado);
 
@@ -137,14 +154,11 @@ public class VentanaIndicadores extends JFrame {
 
         // Crear modelo de tabla
         String[] columnas = {"ID", "Nombre", "Tipo", "Actual", "Objetivo", "Estado", "Tendencia"};
-        modeloTabla = new DefaultTableModel(columnas, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        modeloTabla = new ModeloTablaEntidades<>(columnas, this::valorCelda);
 
         tablaIndicadores = new JTable(modeloTabla);
+        filtro = new FiltroIncremental<>(tablaIndicadores, modeloTabla, this::actualizarEstadisticasGenerales,
+                List.of(Indicador::getNombre));
         tablaIndicadores.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         tablaIndicadores.addMouseListener(new MouseAdapter() {
             @Override
@@ -236,6 +250,9 @@ public class VentanaIndicadores extends JFrame {
         JButton btnMedicion = new JButton("Registrar Medición");
         btnMedicion.addActionListener(e -> registrarMedicionIndicador());
 
+        btnImportar = new JButton("Importar Mediciones");
+        btnImportar.addActionListener(e -> importarMediciones());
+
         JButton btnEditar = new JButton("Editar");
         btnEditar.addActionListener(e -> editarIndicadorSeleccionado());
 
@@ -250,9 +267,17 @@ public class VentanaIndicadores extends JFrame {
 
         panel.add(btnNuevo);
         panel.add(btnMedicion);
+        panel.add(btnImportar);
         panel.add(btnEditar);
         panel.add(btnEliminar);
         panel.add(btnReporte);
+
+        barraImportacion = new JProgressBar(0, 100);
+        barraImportacion.setStringPainted(true);
+        barraImportacion.setPreferredSize(new Dimension(200, 20));
+        barraImportacion.setVisible(false);
+        panel.add(barraImportacion);
+
         panel.add(Box.createHorizontalStrut(20));
         panel.add(btnCerrar);
 
@@ -260,44 +285,26 @@ public class VentanaIndicadores extends JFrame {
     }
 
     private void filtrarIndicadores() {
-        String busqueda = txtBuscar.getText().trim();
-        TipoIndicador tipoSeleccionado = (TipoIndicador) comboTipo.getSelectedItem();
-        String estadoSeleccionado = (String) comboEstado.getSelectedItem();
-
-        modeloTabla.setRowCount(0);
-        List<Indicador> indicadores = indicadorManager.obtenerTodosIndicadores();
-
-        for (Indicador indicador : indicadores) {
-            boolean coincide = true;
-
-            // Filtrar por búsqueda de texto
-            if (!busqueda.isEmpty()) {
-                coincide = indicador.getNombre().toLowerCase().contains(busqueda.toLowerCase());
-            }
+        filtrarIndicadores(false);
+    }
 
-            // Filtrar por tipo
-            if (tipoSeleccionado != null) {
-                coincide = coincide && indicador.getTipo() == tipoSeleccionado;
-            }
+    // Con retardo mientras se escribe; inmediato con Enter, combos y botón Filtrar
+    private void filtrarIndicadores(boolean conRetardo) {
+        TipoIndicador tipoSeleccionado = (TipoIndicador) comboTipo.getSelectedItem();
+        EstadoSemaforo estadoSeleccionado = (EstadoSemaforo) comboEstado.getSelectedItem();
 
-            // Filtrar por estado
-            if (!"TODOS".equals(estadoSeleccionado)) {
-                coincide = coincide && indicador.getEstadoSemaforo().equals(estadoSeleccionado);
-            }
+        // Filtrar por tipo y por estado
+        Predicate<Indicador> criterios = null;
+        if (tipoSeleccionado != null || estadoSeleccionado != null) {
+            criterios = indicador -> (tipoSeleccionado == null || indicador.getTipo() == tipoSeleccionado) &&
+                    (estadoSeleccionado == null || indicador.getEstadoSemaforo() == estadoSeleccionado);
+        }
+        List<Object> claveCriterios = Arrays.asList(tipoSeleccionado, estadoSeleccionado);
 
-            if (coincide) {
-                Object[] fila = {
-                        indicador.getId(),
-                        indicador.getNombre(),
-                        indicador.getTipo().getNombre(),
-                        String.format("%.2f", indicador.getValorActual()),
-                        String.format("%.2f", indicador.getValorObjetivo()),
-                        indicador.getEstadoSemaforo(),
-                        String.format("%.1f%%", indicador.calcularTendencia())
-                };
-
-                modeloTabla.addRow(fila);
-            }
+        if (conRetardo) {
+            filtro.programar(txtBuscar.getText(), claveCriterios, criterios);
+        } else {
+            filtro.aplicar(txtBuscar.getText(), claveCriterios, criterios);
         }
     }
 
@@ -331,14 +338,16 @@ public class VentanaIndicadores extends JFrame {
             detalles.append("Actual: ").append(String.format("%.2f", indicador.getValorActual())).append(" ").append(indicador.getUnidadMedida()).append("\n");
             detalles.append("Objetivo: ").append(String.format("%.2f", indicador.getValorObjetivo())).append(" ").append(indicador.getUnidadMedida()).append("\n");
             detalles.append("Anterior: ").append(String.format("%.2f", indicador.getValorAnterior())).append(" ").append(indicador.getUnidadMedida()).append("\n");
-            detalles.append("Estado: ").append(indicador.getEstadoSemaforo()).append("\n");
+            detalles.append("Estado: ").append(indicador.getEstadoSemaforo().name()).append("\n");
             detalles.append("Tendencia: ").append(String.format("%.2f%%", indicador.calcularTendencia())).append("\n\n");
 
             detalles.append("ANÁLISIS\n");
             detalles.append("-".repeat(15)).append("\n");
             detalles.append("Promedio: ").append(String.format("%.2f", indicador.calcularPromedio())).append("\n");
             detalles.append("En objetivo: ").append(indicador.estaDentroObjetivo() ? "Sí" : "No").append("\n");
-            detalles.append("Última medición: ").append(indicador.getFechaUltimaMedicion()).append("\n\n");
+            detalles.append("Última medición: ")
+                    .append(indicador.getFechaUltimaMedicion() != null ? indicador.getFechaUltimaMedicion() : "Sin mediciones")
+                    .append("\n\n");
 
             if (indicador.getDescripcion() != null && !indicador.getDescripcion().isEmpty()) {
                 detalles.append("DESCRIPCIÓN\n");
@@ -354,6 +363,25 @@ public class VentanaIndicadores extends JFrame {
                 for (int i = Math.max(0, historial.size() - 5); i < historial.size(); i++) {
                     detalles.append("• ").append(String.format("%.2f", historial.get(i))).append("\n");
                 }
+                detalles.append("\n");
+            }
+
+            // Evolución de largo plazo desde la serie temporal guardada
+            LocalDate hoy = LocalDate.now();
+            List<SerieTemporal.Punto> evolucion = indicadorManager.obtenerEvolucion(
+                    indicadorId, hoy.minusMonths(11).withDayOfMonth(1), hoy, Granularidad.MENSUAL);
+            if (!evolucion.isEmpty()) {
+                detalles.append("EVOLUCIÓN MENSUAL (12 MESES)\n");
+                detalles.append("-".repeat(28)).append("\n");
+                for (SerieTemporal.Punto punto : evolucion) {
+                    detalles.append(punto.getInicioPeriodo().format(FORMATO_MES))
+                            .append(": ").append(String.format("%.2f", punto.getPromedio()))
+                            .append(" (min ").append(String.format("%.2f", punto.getMinimo()))
+                            .append(", max ").append(String.format("%.2f", punto.getMaximo()))
+                            .append(", n=").append(punto.getCantidad()).append(")\n");
+                }
+                detalles.append("Tendencia anual: ").append(String.format("%.2f%%",
+                        indicadorManager.calcularTendenciaPeriodo(indicadorId, hoy.minusYears(1), hoy))).append("\n");
             }
 
             areaDetalles.setText(detalles.toString());
@@ -428,6 +456,80 @@ public class VentanaIndicadores extends JFrame {
         }
     }
 
+    // Archivos de colectores con miles de lecturas: se importan en segundo plano
+    // y la tabla se recarga al terminar
+    private void importarMediciones() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Importar Mediciones (indicadorId,fecha,valor)");
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        File archivo = fileChooser.getSelectedFile();
+        btnImportar.setEnabled(false);
+        barraImportacion.setValue(0);
+        barraImportacion.setString("Importando...");
+        barraImportacion.setVisible(true);
+
+        tareaImportacion = EjecutorTareas.ejecutar(new SwingWorker<ImportadorMediciones.Resultado, Long>() {
+            @Override
+            protected ImportadorMediciones.Resultado doInBackground() throws IOException {
+                ImportadorMediciones importador = new ImportadorMediciones(indicadorManager);
+                return importador.importar(archivo, (lineas, bytesLeidos, bytesTotales) -> {
+                    publish(lineas);
+                    if (bytesTotales > 0) setProgress((int) Math.min(100, bytesLeidos * 100 / bytesTotales));
+                });
+            }
+
+            @Override
+            protected void process(List<Long> lineas) {
+                barraImportacion.setValue(getProgress());
+                barraImportacion.setString(String.format("%,d líneas", lineas.get(lineas.size() - 1)));
+            }
+
+            @Override
+            protected void done() {
+                btnImportar.setEnabled(true);
+                barraImportacion.setVisible(false);
+                if (isCancelled()) return;
+
+                try {
+                    ImportadorMediciones.Resultado resultado = get();
+                    cargarDatos();
+                    mostrarDetallesIndicador();
+                    mostrarResultadoImportacion(resultado);
+                } catch (InterruptedException | ExecutionException ex) {
+                    Throwable causa = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(VentanaIndicadores.this,
+                            "Error al importar las mediciones: " + causa.getMessage(),
+                            "Error de Importación", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        });
+    }
+
+    private void mostrarResultadoImportacion(ImportadorMediciones.Resultado resultado) {
+        StringBuilder texto = new StringBuilder(resultado.getResumen()).append("\n");
+        if (!resultado.getErrores().isEmpty()) {
+            texto.append("\nLíneas con error");
+            if (resultado.getLineasConError() > resultado.getErrores().size()) {
+                texto.append(" (primeras ").append(resultado.getErrores().size()).append(")");
+            }
+            texto.append(":\n");
+            for (ImportadorMediciones.ErrorLinea error : resultado.getErrores()) {
+                texto.append(error).append("\n");
+            }
+        }
+
+        JTextArea areaResultado = new JTextArea(texto.toString(), 15, 70);
+        areaResultado.setEditable(false);
+        areaResultado.setLineWrap(true);
+        areaResultado.setFont(new Font("Courier New", Font.PLAIN, 12));
+
+        int tipoMensaje = resultado.isCompleto() && resultado.getLineasConError() == 0
+                ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE;
+        JOptionPane.showMessageDialog(this, new JScrollPane(areaResultado),
+                "Importación de Mediciones", tipoMensaje);
+    }
+
     private void editarIndicadorSeleccionado() {
         int filaSeleccionada = tablaIndicadores.getSelectedRow();
         if (filaSeleccionada == -1) {
@@ -500,19 +602,19 @@ public class VentanaIndicadores extends JFrame {
         @Override
         public Component getTableCellRendererComponent(JTable table, Object value,
                                                        boolean isSelected, boolean hasFocus, int row, int column) {
-            String estado = (String) value;
-            setText(estado);
+            EstadoSemaforo estado = (EstadoSemaforo) value;
+            setText(estado.getNombre());
 
             switch (estado) {
-                case "VERDE":
+                case VERDE:
                     setBackground(new Color(39, 174, 96));
                     setForeground(Color.WHITE);
                     break;
-                case "AMARILLO":
+                case AMARILLO:
                     setBackground(new Color(241, 196, 15));
                     setForeground(Color.BLACK);
                     break;
-                case "ROJO":
+                case ROJO:
                     setBackground(new Color(231, 76, 60));
                     setForeground(Color.WHITE);
                     break;
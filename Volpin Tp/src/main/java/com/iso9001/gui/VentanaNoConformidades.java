@@ -7,19 +7,21 @@ import com.iso9001.enums.EstadoNoConformidad;
 import com.iso9001.enums.Prioridad;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableCellRenderer;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Predicate;
 
 public class VentanaNoConformidades extends JFrame {
     private final NoConformidadManager noConformidadManager;
 
     private JTable tablaNoConformidades;
-    private DefaultTableModel modeloTabla;
+    private ModeloTablaEntidades<NoConformidad> modeloTabla;
+    private FiltroIncremental<NoConformidad> filtro;
     private JTextField txtBuscar;
     private JComboBox<EstadoNoConformidad> comboEstado;
     private JComboBox<Prioridad> comboPrioridad;
@@ -78,6 +80,7 @@ public class VentanaNoConformidades extends JFrame {
         panel.add(new JLabel("Buscar:"));
         txtBuscar = new JTextField(20);
         txtBuscar.addActionListener(e -> filtrarNoConformidades());
+        FiltroIncremental.alEscribir(txtBuscar, () -> filtrarNoConformidades(true));
         panel.add(txtBuscar);
 
         panel.add(new JLabel("Estado:"));
@@ -115,14 +118,12 @@ public class VentanaNoConformidades extends JFrame {
 
         // Crear modelo de tabla
         String[] columnas = {"ID", "Título", "Estado", "Prioridad", "Proceso", "Responsable", "Días Restantes"};
-        modeloTabla = new DefaultTableModel(columnas, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        modeloTabla = new ModeloTablaEntidades<>(columnas, this::valorCelda);
 
         tablaNoConformidades = new JTable(modeloTabla);
+        filtro = new FiltroIncremental<>(tablaNoConformidades, modeloTabla, this::actualizarEstadisticas,
+                List.of(NoConformidad::getTitulo, NoConformidad::getDescripcion));
+        filtro.usarBuscador(noConformidadManager::buscarTexto);
         tablaNoConformidades.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         tablaNoConformidades.addMouseListener(new MouseAdapter() {
             @Override
@@ -239,66 +240,50 @@ public class VentanaNoConformidades extends JFrame {
     }
 
     private void cargarDatos() {
-        modeloTabla.setRowCount(0);
-        List<NoConformidad> noConformidades = noConformidadManager.obtenerTodasNoConformidades();
-
-        for (NoConformidad nc : noConformidades) {
-            Object[] fila = {
-                    nc.getId(),
-                    nc.getTitulo(),
-                    nc.getEstado(),
-                    nc.getPrioridad(),
-                    nc.getProcesoAfectado(),
-                    nc.getResponsableDeteccion(),
-                    nc.diasParaVencimiento()
-            };
-
-            modeloTabla.addRow(fila);
-        }
+        filtro.cargar(noConformidadManager.obtenerTodasNoConformidades());
+    }
 
-        actualizarEstadisticas();
+    // Las celdas se calculan al pintarse: solo se formatean las filas visibles
+    private Object valorCelda(NoConformidad nc, int columna) {
+        return switch (columna) {
+            case 0 -> nc.getId();
+            case 1 -> nc.getTitulo();
+            case 2 -> nc.getEstado();
+            case 3 -> nc.getPrioridad();
+            case 4 -> nc.getProcesoAfectado();
+            case 5 -> nc.getResponsableDeteccion();
+            case 6 -> nc.diasParaVencimiento();
+            default -> null;
+        };
+    }
+
+    @Override
+    public void dispose() {
+        filtro.cancelar();
+        super.dispose();
     }
 
     private void filtrarNoConformidades() {
-        String busqueda = txtBuscar.getText().trim();
+        filtrarNoConformidades(false);
+    }
+
+    // Con retardo mientras se escribe; inmediato con Enter, combos y botón Filtrar
+    private void filtrarNoConformidades(boolean conRetardo) {
         EstadoNoConformidad estadoSeleccionado = (EstadoNoConformidad) comboEstado.getSelectedItem();
         Prioridad prioridadSeleccionada = (Prioridad) comboPrioridad.getSelectedItem();
 
-        modeloTabla.setRowCount(0);
-        List<NoConformidad> noConformidades = noConformidadManager.obtenerTodasNoConformidades();
-
-        for (NoConformidad nc : noConformidades) {
-            boolean coincide = true;
-
-            // Filtrar por búsqueda de texto
-            if (!busqueda.isEmpty()) {
-                coincide = nc.getTitulo().toLowerCase().contains(busqueda.toLowerCase()) ||
-                        nc.getDescripcion().toLowerCase().contains(busqueda.toLowerCase());
-            }
-
-            // Filtrar por estado
-            if (estadoSeleccionado != null) {
-                coincide = coincide && nc.getEstado() == estadoSeleccionado;
-            }
-
-            // Filtrar por prioridad
-            if (prioridadSeleccionada != null) {
-                coincide = coincide && nc.getPrioridad() == prioridadSeleccionada;
-            }
+        // Filtrar por estado y por prioridad
+        Predicate<NoConformidad> criterios = null;
+        if (estadoSeleccionado != null || prioridadSeleccionada != null) {
+            criterios = nc -> (estadoSeleccionado == null || nc.getEstado() == estadoSeleccionado) &&
+                    (prioridadSeleccionada == null || nc.getPrioridad() == prioridadSeleccionada);
+        }
+        List<Object> claveCriterios = Arrays.asList(estadoSeleccionado, prioridadSeleccionada);
 
-            if (coincide) {
-                Object[] fila = {
-                        nc.getId(),
-                        nc.getTitulo(),
-                        nc.getEstado(),
-                        nc.getPrioridad(),
-                        nc.getProcesoAfectado(),
-                        nc.getResponsableDeteccion(),
-                        nc.diasParaVencimiento()
-                };
-
-                modeloTabla.addRow(fila);
-            }
+        if (conRetardo) {
+            filtro.programar(txtBuscar.getText(), claveCriterios, criterios);
+        } else {
+            filtro.aplicar(txtBuscar.getText(), claveCriterios, criterios);
         }
     }
 
@@ -6,18 +6,20 @@ import com.iso9001.models.Proceso;
 import com.iso9001.models.Indicador;
 import com.iso9001.enums.TipoProceso;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Predicate;
 
 public class VentanaProcesos extends JFrame {
     private final ProcesoManager procesoManager;
     private final IndicadorManager indicadorManager;
 
     private JTable tablaProcesos;
-    private DefaultTableModel modeloTabla;
+    private ModeloTablaEntidades<Proceso> modeloTabla;
+    private FiltroIncremental<Proceso> filtro;
     private JTextField txtBuscar;
     private JComboBox<TipoProceso> comboTipo;
     private JTextArea areaDetalles;
@@ -66,6 +68,7 @@ public class VentanaProcesos extends JFrame {
         panel.add(new JLabel("Buscar:"));
         txtBuscar = new JTextField(20);
         txtBuscar.addActionListener(_ -> filtrarProcesos());
+        FiltroIncremental.alEscribir(txtBuscar, () -> filtrarProcesos(true));
         panel.add(txtBuscar);
 
         panel.add(new JLabel("Tipo:"));
@@ -94,14 +97,11 @@ public class VentanaProcesos extends JFrame {
 
         // Crear modelo de tabla
         String[] columnas = {"ID", "Nombre", "Tipo", "Responsable", "Activo", "Indicadores"};
-        modeloTabla = new DefaultTableModel(columnas, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        modeloTabla = new ModeloTablaEntidades<>(columnas, this::valorCelda);
 
         tablaProcesos = new JTable(modeloTabla);
+        filtro = new FiltroIncremental<>(tablaProcesos, modeloTabla, null,
+                List.of(Proceso::getNombre, Proceso::getResponsable));
         tablaProcesos.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         tablaProcesos.addMouseListener(new MouseAdapter() {
             @Override
@@ -171,60 +171,47 @@ public class VentanaProcesos extends JFrame {
     }
 
     private void cargarDatos() {
-        modeloTabla.setRowCount(0);
-        List<Proceso> procesos = procesoManager.obtenerTodosProcesos();
-
-        for (Proceso proceso : procesos) {
-            List<Indicador> indicadores = indicadorManager.obtenerIndicadoresPorProceso(proceso.getId());
+        filtro.cargar(procesoManager.obtenerTodosProcesos());
+    }
 
-            Object[] fila = {
-                    proceso.getId(),
-                    proceso.getNombre(),
-                    proceso.getTipo().getNombre(),
-                    proceso.getResponsable(),
-                    proceso.isActivo() ? "Sí" : "No",
-                    indicadores.size()
-            };
+    // Las celdas se calculan al pintarse: solo se formatean las filas visibles
+    private Object valorCelda(Proceso proceso, int columna) {
+        return switch (columna) {
+            case 0 -> proceso.getId();
+            case 1 -> proceso.getNombre();
+            case 2 -> proceso.getTipo().getNombre();
+            case 3 -> proceso.getResponsable();
+            case 4 -> proceso.isActivo() ? "Sí" : "No";
+            case 5 -> indicadorManager.contarIndicadoresPorProceso(proceso.getId());
+            default -> null;
+        };
+    }
 
-            modeloTabla.addRow(fila);
-        }
+    @Override
+    public void dispose() {
+        filtro.cancelar();
+        super.dispose();
     }
 
     private void filtrarProcesos() {
-        String busqueda = txtBuscar.getText().trim();
-        TipoProceso tipoSeleccionado = (TipoProceso) comboTipo.getSelectedItem();
-
-        modeloTabla.setRowCount(0);
-        List<Proceso> procesos = procesoManager.obtenerTodosProcesos();
-
-        for (Proceso proceso : procesos) {
-            boolean coincide = true;
-
-            // Filtrar por búsqueda de texto
-            if (!busqueda.isEmpty()) {
-                coincide = proceso.getNombre().toLowerCase().contains(busqueda.toLowerCase()) ||
-                        proceso.getResponsable().toLowerCase().contains(busqueda.toLowerCase());
-            }
-
-            // Filtrar por tipo
-            if (tipoSeleccionado != null) {
-                coincide = coincide && proceso.getTipo() == tipoSeleccionado;
-            }
+        filtrarProcesos(false);
+    }
 
-            if (coincide) {
-                List<Indicador> indicadores = indicadorManager.obtenerIndicadoresPorProceso(proceso.getId());
+    // Con retardo mientras se escribe; inmediato con Enter, combos y botón Filtrar
+    private void filtrarProcesos(boolean conRetardo) {
+        TipoProceso tipoSeleccionado = (TipoProceso) comboTipo.getSelectedItem();
 
-                Object[] fila = {
-                        proceso.getId(),
-                        proceso.getNombre(),
-                        proceso.getTipo().getNombre(),
-                        proceso.getResponsable(),
-                        proceso.isActivo() ? "Sí" : "No",
-                        indicadores.size()
-                };
+        // Filtrar por tipo
+        Predicate<Proceso> criterios = null;
+        if (tipoSeleccionado != null) {
+            criterios = proceso -> proceso.getTipo() == tipoSeleccionado;
+        }
+        List<Object> claveCriterios = Arrays.asList(tipoSeleccionado);
 
-                modeloTabla.addRow(fila);
-            }
+        if (conRetardo) {
+            filtro.programar(txtBuscar.getText(), claveCriterios, criterios);
+        } else {
+            filtro.aplicar(txtBuscar.getText(), claveCriterios, criterios);
         }
     }
 
@@ -275,7 +262,7 @@ public class VentanaProcesos extends JFrame {
                     detalles.append("• ").append(ind.getNombre()).append("\n");
                     detalles.append("  Valor: ").append(String.format("%.2f", ind.getValorActual()));
                     detalles.append(" / ").append(String.format("%.2f", ind.getValorObjetivo()));
-                    detalles.append(" (").append(ind.getEstadoSemaforo()).append(")\n");
+                    detalles.append(" (").append(ind.getEstadoSemaforo().name()).append(")\n");
                 }
             }
 
@@ -1,33 +1,58 @@
 package com.iso9001.gui;
 
 import com.iso9001.managers.*;
+import com.iso9001.enums.EstadoNoConformidad;
+import com.iso9001.enums.EstadoSemaforo;
+import com.iso9001.enums.FormatoExportacion;
+import com.iso9001.enums.TipoProceso;
 import com.iso9001.models.*;
+import com.iso9001.utils.EstadisticasReporte;
+import com.iso9001.utils.ExportadorDatos;
 import com.iso9001.utils.ReporteGenerator;
+import com.iso9001.utils.TextoUtils;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 public class VentanaReportes extends JFrame {
     private ProcesoManager procesoManager;
     private IndicadorManager indicadorManager;
     private NoConformidadManager noConformidadManager;
+    private AuditoriaManager auditoriaManager;
 
-    private JTextArea areaReporte;
+    private VisorPaginado visorReporte;
     private JComboBox<String> comboTipoReporte;
     private JButton btnGenerar;
     private JButton btnExportar;
-    private String ultimoReporte;
+    private JButton btnCancelar;
+    private JProgressBar barraProgreso;
+    private SwingWorker<long[], Void> tareaReporte;
+
+    // El último reporte vive en un archivo temporal, no en memoria
+    private Path archivoReporte;
+    private long[] paginasReporte;
+
+    private JComboBox<String> comboDatosExportacion;
+    private JComboBox<FormatoExportacion> comboFormato;
+    private JButton btnExportarDatos;
+    private SwingWorker<Void, Void> tareaExportacion;
 
     public VentanaReportes(ProcesoManager procesoManager, IndicadorManager indicadorManager,
-                           NoConformidadManager noConformidadManager) {
+                           NoConformidadManager noConformidadManager, AuditoriaManager auditoriaManager) {
         this.procesoManager = procesoManager;
         this.indicadorManager = indicadorManager;
         this.noConformidadManager = noConformidadManager;
+        this.auditoriaManager = auditoriaManager;
 
         configurarVentana();
         crearComponentes();
@@ -41,9 +66,11 @@ public class VentanaReportes extends JFrame {
     }
 
     private void crearComponentes() {
-        // Panel superior - Controles
-        JPanel panelControles = crearPanelControles();
-        add(panelControles, BorderLayout.NORTH);
+        // Panel superior - Controles de reporte y de exportación de datos
+        JPanel panelSuperior = new JPanel(new BorderLayout());
+        panelSuperior.add(crearPanelControles(), BorderLayout.NORTH);
+        panelSuperior.add(crearPanelExportacionDatos(), BorderLayout.SOUTH);
+        add(panelSuperior, BorderLayout.NORTH);
 
         // Panel central - Área de reporte
         JPanel panelReporte = crearPanelReporte();
@@ -75,6 +102,16 @@ public class VentanaReportes extends JFrame {
         btnGenerar.addActionListener(this::generarReporte);
         panel.add(btnGenerar);
 
+        btnCancelar = new JButton("Cancelar");
+        btnCancelar.setEnabled(false);
+        btnCancelar.addActionListener(e -> cancelarReporte());
+        panel.add(btnCancelar);
+
+        barraProgreso = new JProgressBar();
+        barraProgreso.setIndeterminate(true);
+        barraProgreso.setVisible(false);
+        panel.add(barraProgreso);
+
         JButton btnLimpiar = new JButton("Limpiar");
         btnLimpiar.addActionListener(e -> limpiarReporte());
         panel.add(btnLimpiar);
@@ -82,20 +119,34 @@ public class VentanaReportes extends JFrame {
         return panel;
     }
 
+    private JPanel crearPanelExportacionDatos() {
+        JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        panel.setBorder(BorderFactory.createTitledBorder("Exportación de Datos (CSV / JSON Lines)"));
+
+        panel.add(new JLabel("Datos:"));
+        comboDatosExportacion = new JComboBox<>(new String[]{
+                "Indicadores", "No Conformidades", "Auditorías", "Estado General"});
+        panel.add(comboDatosExportacion);
+
+        panel.add(new JLabel("Formato:"));
+        comboFormato = new JComboBox<>(FormatoExportacion.values());
+        panel.add(comboFormato);
+
+        btnExportarDatos = new JButton("Exportar Datos");
+        btnExportarDatos.addActionListener(this::exportarDatos);
+        panel.add(btnExportarDatos);
+
+        return panel;
+    }
+
     private JPanel crearPanelReporte() {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBorder(BorderFactory.createTitledBorder("Reporte Generado"));
 
-        areaReporte = new JTextArea();
-        areaReporte.setEditable(false);
-        areaReporte.setFont(new Font("Courier New", Font.PLAIN, 11));
-        areaReporte.setText("Seleccione un tipo de reporte y haga clic en 'Generar Reporte'...");
+        visorReporte = new VisorPaginado(new Font("Courier New", Font.PLAIN, 11));
+        visorReporte.mostrarTexto("Seleccione un tipo de reporte y haga clic en 'Generar Reporte'...");
 
-        JScrollPane scrollPane = new JScrollPane(areaReporte);
-        scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
-        scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
-
-        panel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(visorReporte, BorderLayout.CENTER);
 
         return panel;
     }
@@ -121,122 +172,191 @@ public class VentanaReportes extends JFrame {
         return panel;
     }
 
+    // El reporte se escribe en segundo plano a un archivo temporal, sección por
+    // sección; generar otro o cancelar descarta el anterior
     private void generarReporte(ActionEvent e) {
         String tipoReporte = (String) comboTipoReporte.getSelectedItem();
-        StringBuilder reporte = new StringBuilder();
 
-        try {
-            switch (tipoReporte) {
-                case "Estado General del Sistema":
-                    reporte.append(generarReporteEstadoGeneral());
-                    break;
+        EjecutorTareas.cancelar(tareaReporte);
+        descartarArchivoReporte();
+        btnGenerar.setEnabled(false);
+        btnCancelar.setEnabled(true);
+        barraProgreso.setVisible(true);
+        visorReporte.mostrarTexto("Generando " + tipoReporte + "...");
+
+        tareaReporte = EjecutorTareas.ejecutar(new SwingWorker<long[], Void>() {
+            private Path archivo;
+
+            @Override
+            protected long[] doInBackground() throws IOException {
+                archivo = Files.createTempFile("reporte_iso9001_", ".txt");
+                archivo.toFile().deleteOnExit();
+                boolean completo = false;
+                try {
+                    ReporteGenerator.escribirEnArchivo(archivo, destino -> construirReporte(tipoReporte, destino));
+                    long[] paginas = VisorPaginado.indexarPaginas(archivo);
+                    completo = true;
+                    return paginas;
+                } finally {
+                    if (!completo) {
+                        Files.deleteIfExists(archivo);
+                    }
+                }
+            }
 
-                case "Reporte de Procesos":
-                    reporte.append(generarReporteProcesos());
-                    break;
+            @Override
+            protected void done() {
+                btnGenerar.setEnabled(true);
+                btnCancelar.setEnabled(false);
+                actualizarBarraProgreso();
+                if (isCancelled()) {
+                    borrarArchivo(archivo);
+                    return;
+                }
 
-                case "Reporte de Indicadores":
-                    reporte.append(generarReporteIndicadores());
-                    break;
+                try {
+                    paginasReporte = get();
+                    archivoReporte = archivo;
+                    visorReporte.mostrar(archivoReporte, paginasReporte);
+                    btnExportar.setEnabled(true);
+                } catch (InterruptedException | ExecutionException ex) {
+                    Throwable causa = ex.getCause() != null ? ex.getCause() : ex;
+                    visorReporte.mostrarTexto("");
+                    JOptionPane.showMessageDialog(VentanaReportes.this,
+                            "Error al generar el reporte: " + causa.getMessage(),
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        });
+    }
 
-                case "Reporte de No Conformidades":
-                    reporte.append(generarReporteNoConformidades());
-                    break;
+    private void cancelarReporte() {
+        if (EjecutorTareas.cancelar(tareaReporte)) {
+            btnGenerar.setEnabled(true);
+            btnCancelar.setEnabled(false);
+            actualizarBarraProgreso();
+            visorReporte.mostrarTexto("Generación de reporte cancelada.");
+        }
+    }
 
-                case "Reporte de Preparación para Auditoría":
-                    reporte.append(generarReporteAuditoria());
-                    break;
+    private void descartarArchivoReporte() {
+        borrarArchivo(archivoReporte);
+        archivoReporte = null;
+        paginasReporte = null;
+        btnExportar.setEnabled(false);
+    }
 
-                case "Análisis de Cumplimiento ISO 9001":
-                    reporte.append(generarAnalisisCumplimiento());
-                    break;
+    // Si la tarea cancelada todavía lo tiene abierto, lo borra ella misma al terminar
+    private static void borrarArchivo(Path archivo) {
+        if (archivo == null) return;
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            System.err.println("No se pudo borrar el reporte temporal: " + e.getMessage());
+        }
+    }
 
-                case "Dashboard Ejecutivo":
-                    reporte.append(generarDashboardEjecutivo());
-                    break;
+    private void construirReporte(String tipoReporte, Writer destino) throws IOException {
+        switch (tipoReporte) {
+            case "Estado General del Sistema":
+                escribirReporteEstadoGeneral(destino);
+                break;
 
-                default:
-                    reporte.append("Tipo de reporte no reconocido.");
-            }
+            case "Reporte de Procesos":
+                escribirReporteProcesos(destino);
+                break;
+
+            case "Reporte de Indicadores":
+                escribirReporteIndicadores(destino);
+                break;
+
+            case "Reporte de No Conformidades":
+                escribirReporteNoConformidades(destino);
+                break;
 
-            ultimoReporte = reporte.toString();
-            areaReporte.setText(ultimoReporte);
-            areaReporte.setCaretPosition(0);
-            btnExportar.setEnabled(true);
+            case "Reporte de Preparación para Auditoría":
+                escribirReporteAuditoria(destino);
+                break;
 
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this,
-                    "Error al generar el reporte: " + ex.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
+            case "Análisis de Cumplimiento ISO 9001":
+                escribirAnalisisCumplimiento(destino);
+                break;
+
+            case "Dashboard Ejecutivo":
+                escribirDashboardEjecutivo(destino);
+                break;
+
+            default:
+                destino.write("Tipo de reporte no reconocido.");
         }
     }
 
-    private String generarReporteEstadoGeneral() {
+    private void escribirReporteEstadoGeneral(Writer destino) throws IOException {
         List<Proceso> procesos = procesoManager.obtenerTodosProcesos();
         List<Indicador> indicadores = indicadorManager.obtenerTodosIndicadores();
         List<NoConformidad> noConformidades = noConformidadManager.obtenerTodasNoConformidades();
 
-        return ReporteGenerator.generarReporteEstadoGeneral(procesos, indicadores, noConformidades);
+        ReporteGenerator.escribirReporteEstadoGeneral(procesos, indicadores, noConformidades, destino);
     }
 
-    private String generarReporteProcesos() {
-        StringBuilder reporte = new StringBuilder();
+    private void escribirReporteProcesos(Writer reporte) throws IOException {
+        EstadisticasReporte estadisticas = EstadisticasReporte.calcular(
+                procesoManager.obtenerTodosProcesos(), List.of(), List.of());
 
         reporte.append("REPORTE DETALLADO DE PROCESOS\n");
         reporte.append("=".repeat(50)).append("\n");
-        reporte.append("Fecha: ").append(LocalDate.now()).append("\n\n");
+        reporte.append("Fecha: ").append(String.valueOf(LocalDate.now())).append("\n\n");
 
         // Estadísticas generales
         reporte.append("RESUMEN EJECUTIVO\n");
         reporte.append("-".repeat(25)).append("\n");
-        reporte.append("Total de procesos: ").append(procesoManager.getTotalProcesos()).append("\n");
-        reporte.append("Procesos activos: ").append(procesoManager.getProcesosActivos()).append("\n");
-        reporte.append("Eficiencia promedio: ").append(String.format("%.1f%%", procesoManager.calcularEficienciaPromedio())).append("\n\n");
+        reporte.append("Total de procesos: ").append(String.valueOf(estadisticas.getTotalProcesos())).append("\n");
+        reporte.append("Procesos activos: ").append(String.valueOf(estadisticas.getProcesosActivos())).append("\n");
+        reporte.append("Eficiencia promedio: ").append(String.format("%.1f%%", estadisticas.getEficienciaPromedio())).append("\n\n");
 
         // Procesos por tipo
         reporte.append("DISTRIBUCIÓN POR TIPO\n");
         reporte.append("-".repeat(25)).append("\n");
-        procesoManager.obtenerEstadisticasPorTipo().forEach((tipo, cantidad) ->
-                reporte.append(tipo.getNombre()).append(": ").append(cantidad).append(" procesos\n")
-        );
+        for (Map.Entry<TipoProceso, Long> entrada : estadisticas.getProcesosActivosPorTipo().entrySet()) {
+            reporte.append(entrada.getKey().getNombre()).append(": ").append(String.valueOf(entrada.getValue())).append(" procesos\n");
+        }
 
         // Procesos con indicadores críticos
         List<Proceso> procesosConProblemas = procesoManager.obtenerProcesosConIndicadoresCriticos();
         if (!procesosConProblemas.isEmpty()) {
             reporte.append("\nPROCESOS CON INDICADORES CRÍTICOS\n");
             reporte.append("-".repeat(35)).append("\n");
-            procesosConProblemas.forEach(p ->
-                    reporte.append("• ").append(p.getNombre()).append(" (").append(p.getResponsable()).append(")\n")
-            );
+            for (Proceso p : procesosConProblemas) {
+                reporte.append("• ").append(p.getNombre()).append(" (").append(p.getResponsable()).append(")\n");
+            }
         }
-
-        return reporte.toString();
     }
 
-    private String generarReporteIndicadores() {
+    private void escribirReporteIndicadores(Writer destino) throws IOException {
         List<Indicador> indicadores = indicadorManager.obtenerTodosIndicadores();
-        return ReporteGenerator.generarReporteIndicadores(indicadores);
+        ReporteGenerator.escribirReporteIndicadores(indicadores, destino);
     }
 
-    private String generarReporteNoConformidades() {
+    private void escribirReporteNoConformidades(Writer destino) throws IOException {
         List<NoConformidad> noConformidades = noConformidadManager.obtenerTodasNoConformidades();
-        return ReporteGenerator.generarReporteNoConformidades(noConformidades);
+        ReporteGenerator.escribirReporteNoConformidades(noConformidades, destino);
     }
 
-    private String generarReporteAuditoria() {
+    private void escribirReporteAuditoria(Writer destino) throws IOException {
         List<Proceso> procesos = procesoManager.obtenerTodosProcesos();
         List<Indicador> indicadores = indicadorManager.obtenerTodosIndicadores();
         List<NoConformidad> noConformidades = noConformidadManager.obtenerTodasNoConformidades();
 
-        return ReporteGenerator.generarReporteAuditoria(procesos, indicadores, noConformidades);
+        ReporteGenerator.escribirReporteAuditoria(procesos, indicadores, noConformidades, destino);
     }
 
-    private String generarAnalisisCumplimiento() {
-        StringBuilder reporte = new StringBuilder();
+    private void escribirAnalisisCumplimiento(Writer reporte) throws IOException {
+        double cumplimiento = EstadisticasReporte.calcular(
+                List.of(), indicadorManager.obtenerTodosIndicadores(), List.of()).getPorcentajeCumplimiento();
 
         reporte.append("ANÁLISIS DE CUMPLIMIENTO ISO 9001:2015\n");
         reporte.append("=".repeat(45)).append("\n");
-        reporte.append("Fecha: ").append(LocalDate.now()).append("\n\n");
+        reporte.append("Fecha: ").append(String.valueOf(LocalDate.now())).append("\n\n");
 
         // Evaluación por requisitos
         reporte.append("EVALUACIÓN POR REQUISITOS ISO 9001\n");
@@ -244,31 +364,31 @@ public class VentanaReportes extends JFrame {
 
         // 4. Contexto de la organización
         reporte.append("4. Contexto de la organización: ");
-        reporte.append(evaluarRequisito("contexto")).append("\n");
+        reporte.append(evaluarRequisito("contexto", cumplimiento)).append("\n");
 
         // 5. Liderazgo
         reporte.append("5. Liderazgo: ");
-        reporte.append(evaluarRequisito("liderazgo")).append("\n");
+        reporte.append(evaluarRequisito("liderazgo", cumplimiento)).append("\n");
 
         // 6. Planificación
         reporte.append("6. Planificación: ");
-        reporte.append(evaluarRequisito("planificacion")).append("\n");
+        reporte.append(evaluarRequisito("planificacion", cumplimiento)).append("\n");
 
         // 7. Apoyo
         reporte.append("7. Apoyo: ");
-        reporte.append(evaluarRequisito("apoyo")).append("\n");
+        reporte.append(evaluarRequisito("apoyo", cumplimiento)).append("\n");
 
         // 8. Operación
         reporte.append("8. Operación: ");
-        reporte.append(evaluarRequisito("operacion")).append("\n");
+        reporte.append(evaluarRequisito("operacion", cumplimiento)).append("\n");
 
         // 9. Evaluación del desempeño
         reporte.append("9. Evaluación del desempeño: ");
-        reporte.append(evaluarRequisito("evaluacion")).append("\n");
+        reporte.append(evaluarRequisito("evaluacion", cumplimiento)).append("\n");
 
         // 10. Mejora
         reporte.append("10. Mejora: ");
-        reporte.append(evaluarRequisito("mejora")).append("\n\n");
+        reporte.append(evaluarRequisito("mejora", cumplimiento)).append("\n\n");
 
         // Recomendaciones
         reporte.append("RECOMENDACIONES\n");
@@ -277,64 +397,156 @@ public class VentanaReportes extends JFrame {
         reporte.append("• Realizar auditorías internas periódicas\n");
         reporte.append("• Implementar mejora continua\n");
         reporte.append("• Capacitar personal en ISO 9001\n");
-
-        return reporte.toString();
     }
 
-    private String evaluarRequisito(String requisito) {
+    private String evaluarRequisito(String requisito, double cumplimiento) {
         // Evaluación simplificada basada en el estado del sistema
-        double cumplimiento = indicadorManager.calcularPorcentajeCumplimientoGeneral();
-
         if (cumplimiento >= 90) return "CONFORME ✓";
         else if (cumplimiento >= 75) return "PARCIALMENTE CONFORME ⚠";
         else return "NO CONFORME ✗";
     }
 
-    private String generarDashboardEjecutivo() {
-        StringBuilder reporte = new StringBuilder();
+    private void escribirDashboardEjecutivo(Writer reporte) throws IOException {
+        // Una sola pasada sobre los datos de los tres managers
+        EstadisticasReporte estadisticas = EstadisticasReporte.calcular(procesoManager.obtenerTodosProcesos(),
+                indicadorManager.obtenerTodosIndicadores(),
+                noConformidadManager.obtenerTodasNoConformidades());
 
         reporte.append("DASHBOARD EJECUTIVO - SISTEMA DE CALIDAD\n");
         reporte.append("=".repeat(50)).append("\n");
-        reporte.append("Fecha: ").append(LocalDate.now()).append("\n\n");
+        reporte.append("Fecha: ").append(String.valueOf(LocalDate.now())).append("\n\n");
 
         // KPIs principales
         reporte.append("INDICADORES CLAVE DE RENDIMIENTO (KPIs)\n");
         reporte.append("-".repeat(40)).append("\n");
-        reporte.append("Procesos Activos: ").append(procesoManager.getProcesosActivos()).append("\n");
-        reporte.append("Cumplimiento de Indicadores: ").append(String.format("%.1f%%", indicadorManager.calcularPorcentajeCumplimientoGeneral())).append("\n");
-        reporte.append("No Conformidades Abiertas: ").append(noConformidadManager.getNoConformidadesAbiertas()).append("\n");
-        reporte.append("No Conformidades Vencidas: ").append(noConformidadManager.getNoConformidadesVencidas()).append("\n\n");
+        reporte.append("Procesos Activos: ").append(String.valueOf(estadisticas.getProcesosActivos())).append("\n");
+        reporte.append("Cumplimiento de Indicadores: ").append(String.format("%.1f%%", estadisticas.getPorcentajeCumplimiento())).append("\n");
+        reporte.append("No Conformidades Abiertas: ").append(String.valueOf(estadisticas.getNoConformidadesPorEstado(EstadoNoConformidad.ABIERTA))).append("\n");
+        reporte.append("No Conformidades Vencidas: ").append(String.valueOf(estadisticas.getNoConformidadesVencidas().size())).append("\n\n");
 
         // Semáforo de estado
         reporte.append("SEMÁFORO DE ESTADO\n");
         reporte.append("-".repeat(20)).append("\n");
-        reporte.append("Indicadores Verde: ").append(indicadorManager.getIndicadoresVerde()).append("\n");
-        reporte.append("Indicadores Amarillo: ").append(indicadorManager.getIndicadoresAmarillo()).append("\n");
-        reporte.append("Indicadores Rojo: ").append(indicadorManager.getIndicadoresRojo()).append("\n\n");
+        reporte.append("Indicadores Verde: ").append(String.valueOf(estadisticas.getIndicadoresPorColor(EstadoSemaforo.VERDE))).append("\n");
+        reporte.append("Indicadores Amarillo: ").append(String.valueOf(estadisticas.getIndicadoresPorColor(EstadoSemaforo.AMARILLO))).append("\n");
+        reporte.append("Indicadores Rojo: ").append(String.valueOf(estadisticas.getIndicadoresPorColor(EstadoSemaforo.ROJO))).append("\n\n");
 
         // Tendencias
         reporte.append("TENDENCIAS\n");
         reporte.append("-".repeat(12)).append("\n");
-        List<Indicador> mejoresTendencias = indicadorManager.obtenerIndicadoresConMejorTendencia();
+        List<Indicador> mejoresTendencias = estadisticas.getMejoresTendencias();
         if (!mejoresTendencias.isEmpty()) {
             reporte.append("Indicadores con mejor tendencia:\n");
-            mejoresTendencias.forEach(ind ->
-                    reporte.append("• ").append(ind.getNombre())
-                            .append(" (+").append(String.format("%.1f%%", ind.calcularTendencia())).append(")\n")
-            );
+            for (Indicador ind : mejoresTendencias) {
+                reporte.append("• ").append(ind.getNombre())
+                        .append(" (+").append(String.format("%.1f%%", ind.calcularTendencia())).append(")\n");
+            }
+        }
+    }
+
+    // Escribe los registros directo al archivo elegido, de a una fila por vez
+    private void exportarDatos(ActionEvent e) {
+        String datos = (String) comboDatosExportacion.getSelectedItem();
+        FormatoExportacion formato = (FormatoExportacion) comboFormato.getSelectedItem();
+
+        if (datos.equals("Auditorías") && auditoriaManager == null) {
+            JOptionPane.showMessageDialog(this, "El módulo de auditorías no está disponible",
+                    "Advertencia", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setDialogTitle("Exportar Datos");
+        String nombre = TextoUtils.normalizar(datos).replace(' ', '_');
+        fileChooser.setSelectedFile(new java.io.File(nombre + "_" + LocalDate.now() + formato.getExtension()));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        Path archivoDestino = fileChooser.getSelectedFile().toPath();
+        btnExportarDatos.setEnabled(false);
+        barraProgreso.setVisible(true);
+
+        tareaExportacion = EjecutorTareas.ejecutar(new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws IOException {
+                try {
+                    ReporteGenerator.escribirEnArchivo(archivoDestino, destino -> escribirDatos(datos, formato, destino));
+                } catch (IOException | RuntimeException ex) {
+                    Files.deleteIfExists(archivoDestino);   // No dejar un archivo a medias
+                    throw ex;
+                }
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                btnExportarDatos.setEnabled(true);
+                actualizarBarraProgreso();
+                if (isCancelled()) return;
+
+                try {
+                    get();
+                    JOptionPane.showMessageDialog(VentanaReportes.this,
+                            "Datos exportados exitosamente a:\n" + archivoDestino.toAbsolutePath(),
+                            "Exportación Exitosa", JOptionPane.INFORMATION_MESSAGE);
+                } catch (InterruptedException | ExecutionException ex) {
+                    Throwable causa = ex.getCause() != null ? ex.getCause() : ex;
+                    JOptionPane.showMessageDialog(VentanaReportes.this,
+                            "Error al exportar los datos: " + causa.getMessage(),
+                            "Error de Exportación", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        });
+    }
+
+    // La barra se comparte entre la generación de reportes y la exportación
+    private void actualizarBarraProgreso() {
+        boolean enCurso = (tareaReporte != null && !tareaReporte.isDone())
+                || (tareaExportacion != null && !tareaExportacion.isDone());
+        barraProgreso.setVisible(enCurso);
+    }
+
+    private void escribirDatos(String datos, FormatoExportacion formato, Writer destino) throws IOException {
+        switch (datos) {
+            case "Indicadores":
+                ExportadorDatos.exportarIndicadores(indicadorManager.obtenerTodosIndicadores(), formato, destino);
+                break;
+
+            case "No Conformidades":
+                ExportadorDatos.exportarNoConformidades(noConformidadManager.obtenerTodasNoConformidades(),
+                        formato, destino);
+                break;
+
+            case "Auditorías":
+                ExportadorDatos.exportarAuditorias(auditoriaManager.obtenerTodasAuditorias(), formato, destino);
+                break;
+
+            case "Estado General":
+                EstadisticasReporte estadisticas = EstadisticasReporte.calcular(procesoManager.obtenerTodosProcesos(),
+                        indicadorManager.obtenerTodosIndicadores(),
+                        noConformidadManager.obtenerTodasNoConformidades());
+                ExportadorDatos.exportarEstadoGeneral(estadisticas, formato, destino);
+                break;
+
+            default:
+                throw new IllegalArgumentException("Datos no reconocidos: " + datos);
         }
+    }
 
-        return reporte.toString();
+    @Override
+    public void dispose() {
+        EjecutorTareas.cancelar(tareaReporte);
+        EjecutorTareas.cancelar(tareaExportacion);
+        descartarArchivoReporte();
+        super.dispose();
     }
 
     private void limpiarReporte() {
-        areaReporte.setText("Seleccione un tipo de reporte y haga clic en 'Generar Reporte'...");
-        ultimoReporte = null;
-        btnExportar.setEnabled(false);
+        descartarArchivoReporte();
+        visorReporte.mostrarTexto("Seleccione un tipo de reporte y haga clic en 'Generar Reporte'...");
     }
 
     private void exportarReporte(ActionEvent e) {
-        if (ultimoReporte == null || ultimoReporte.trim().isEmpty()) {
+        if (archivoReporte == null) {
             JOptionPane.showMessageDialog(this, "No hay reporte para exportar",
                     "Advertencia", JOptionPane.WARNING_MESSAGE);
             return;
@@ -350,9 +562,8 @@ public class VentanaReportes extends JFrame {
             try {
                 java.io.File archivoDestino = fileChooser.getSelectedFile();
 
-                try (FileWriter writer = new FileWriter(archivoDestino)) {
-                    writer.write(ultimoReporte);
-                }
+                // Copia el archivo ya escrito, sin volver a cargarlo en memoria
+                Files.copy(archivoReporte, archivoDestino.toPath(), StandardCopyOption.REPLACE_EXISTING);
 
                 JOptionPane.showMessageDialog(this,
                         "Reporte exportado exitosamente a:\n" + archivoDestino.getAbsolutePath(),
@@ -369,7 +580,7 @@ public class VentanaReportes extends JFrame {
     }
 
     private void mostrarVistaPrevia(ActionEvent e) {
-        if (ultimoReporte == null || ultimoReporte.trim().isEmpty()) {
+        if (archivoReporte == null) {
             JOptionPane.showMessageDialog(this, "No hay reporte para mostrar",
                     "Advertencia", JOptionPane.WARNING_MESSAGE);
             return;
@@ -379,14 +590,12 @@ public class VentanaReportes extends JFrame {
         dialogoVista.setSize(700, 800);
         dialogoVista.setLocationRelativeTo(this);
 
-        JTextArea areaVista = new JTextArea(ultimoReporte);
-        areaVista.setEditable(false);
-        areaVista.setFont(new Font("Courier New", Font.PLAIN, 10));
-        areaVista.setBackground(Color.WHITE);
-        areaVista.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
-
-        JScrollPane scrollVista = new JScrollPane(areaVista);
-        dialogoVista.add(scrollVista, BorderLayout.CENTER);
+        // La vista previa pagina desde el mismo archivo temporal
+        VisorPaginado visorVista = new VisorPaginado(new Font("Courier New", Font.PLAIN, 10));
+        visorVista.setFondoTexto(Color.WHITE);
+        visorVista.setBordeTexto(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+        visorVista.mostrar(archivoReporte, paginasReporte);
+        dialogoVista.add(visorVista, BorderLayout.CENTER);
 
         JPanel panelBotones = new JPanel(new FlowLayout());
         JButton btnCerrarVista = new JButton("Cerrar Vista");
@@ -0,0 +1,181 @@
+package com.iso9001.gui;
+
+import javax.swing.*;
+import javax.swing.border.Border;
+import java.awt.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Visor de texto que muestra un archivo de a una página por vez
+ *
+ * Nunca tiene el archivo completo en memoria: un índice guarda la posición
+ * en bytes donde empieza cada página, y al cambiar de página solo se lee ese
+ * tramo del archivo. El índice se arma con indexarPaginas, pensado para
+ * llamarse desde un hilo de fondo justo después de escribir el archivo.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+public class VisorPaginado extends JPanel {
+    public static final int LINEAS_POR_PAGINA = 500;
+
+    private final JTextArea areaTexto;
+    private final JButton btnAnterior;
+    private final JButton btnSiguiente;
+    private final JLabel etiquetaPagina;
+
+    private Path archivo;
+    private long[] inicios;   // Inicio de cada página; el último elemento es el tamaño del archivo
+    private int paginaActual;
+
+    public VisorPaginado(Font fuente) {
+        super(new BorderLayout());
+
+        areaTexto = new JTextArea();
+        areaTexto.setEditable(false);
+        areaTexto.setFont(fuente);
+
+        JScrollPane scrollPane = new JScrollPane(areaTexto);
+        scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
+        scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
+        add(scrollPane, BorderLayout.CENTER);
+
+        btnAnterior = new JButton("◀ Anterior");
+        btnAnterior.addActionListener(e -> irAPagina(paginaActual - 1));
+        btnSiguiente = new JButton("Siguiente ▶");
+        btnSiguiente.addActionListener(e -> irAPagina(paginaActual + 1));
+        etiquetaPagina = new JLabel();
+
+        JPanel panelPaginas = new JPanel(new FlowLayout());
+        panelPaginas.add(btnAnterior);
+        panelPaginas.add(etiquetaPagina);
+        panelPaginas.add(btnSiguiente);
+        add(panelPaginas, BorderLayout.SOUTH);
+
+        mostrarTexto("");
+    }
+
+    /**
+     * Recorre el archivo una vez y anota dónde empieza cada página. Busca el
+     * byte '\n', que en UTF-8 nunca forma parte de otro carácter.
+     * @param archivo Archivo de texto en UTF-8
+     * @return Posiciones de inicio de cada página más el tamaño del archivo
+     */
+    public static long[] indexarPaginas(Path archivo) throws IOException {
+        long[] inicios = new long[16];
+        int paginas = 1;   // La primera página empieza en 0
+        int lineas = 0;
+        long posicion = 0;
+
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            while (canal.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    posicion++;
+                    if (buffer.get() == '\n' && ++lineas == LINEAS_POR_PAGINA) {
+                        lineas = 0;
+                        if (paginas == inicios.length) {
+                            inicios = Arrays.copyOf(inicios, paginas * 2);
+                        }
+                        inicios[paginas++] = posicion;
+                    }
+                }
+                buffer.clear();
+            }
+        }
+
+        // Si el archivo termina justo al cierre de una página, esa última queda vacía
+        if (paginas > 1 && inicios[paginas - 1] == posicion) {
+            paginas--;
+        }
+        inicios = Arrays.copyOf(inicios, paginas + 1);
+        inicios[paginas] = posicion;
+        return inicios;
+    }
+
+    /**
+     * Muestra la primera página de un archivo ya indexado
+     * @param archivo Archivo de texto en UTF-8
+     * @param inicios Índice devuelto por indexarPaginas para ese archivo
+     */
+    public void mostrar(Path archivo, long[] inicios) {
+        this.archivo = archivo;
+        this.inicios = inicios;
+        irAPagina(0);
+    }
+
+    /**
+     * Reemplaza el contenido por un mensaje y deja de mostrar el archivo
+     */
+    public void mostrarTexto(String texto) {
+        archivo = null;
+        inicios = null;
+        areaTexto.setText(texto);
+        areaTexto.setCaretPosition(0);
+        actualizarControles();
+    }
+
+    private void irAPagina(int pagina) {
+        if (archivo == null || pagina < 0 || pagina >= getTotalPaginas()) return;
+
+        try {
+            areaTexto.setText(leerTramo(archivo, inicios[pagina], inicios[pagina + 1]));
+            areaTexto.setCaretPosition(0);
+            paginaActual = pagina;
+        } catch (IOException e) {
+            System.err.println("Error al leer la página " + (pagina + 1) + ": " + e.getMessage());
+            areaTexto.setText("No se pudo leer el reporte: " + e.getMessage());
+        }
+        actualizarControles();
+    }
+
+    private static String leerTramo(Path archivo, long desde, long hasta) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (hasta - desde));
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            canal.position(desde);
+            while (buffer.hasRemaining() && canal.read(buffer) != -1) {
+                // Lee hasta completar el tramo
+            }
+        }
+        buffer.flip();
+        return StandardCharsets.UTF_8.decode(buffer).toString();
+    }
+
+    private void actualizarControles() {
+        int total = getTotalPaginas();
+        boolean variasPaginas = total > 1;
+        btnAnterior.setVisible(variasPaginas);
+        btnSiguiente.setVisible(variasPaginas);
+        etiquetaPagina.setVisible(variasPaginas);
+        if (variasPaginas) {
+            btnAnterior.setEnabled(paginaActual > 0);
+            btnSiguiente.setEnabled(paginaActual < total - 1);
+            etiquetaPagina.setText("Página " + (paginaActual + 1) + " de " + total);
+        }
+    }
+
+    public int getTotalPaginas() {
+        return inicios != null ? inicios.length - 1 : 0;
+    }
+
+    /**
+     * Cambia el color de fondo del área de texto
+     */
+    public void setFondoTexto(Color fondo) {
+        areaTexto.setBackground(fondo);
+    }
+
+    /**
+     * Cambia el borde del área de texto
+     */
+    public void setBordeTexto(Border borde) {
+        areaTexto.setBorder(borde);
+    }
+}
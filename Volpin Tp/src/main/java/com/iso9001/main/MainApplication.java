@@ -1,6 +1,9 @@
 package com.iso9001.main;
 
 import com.iso9001.gui.DashboardPrincipal;
+import com.iso9001.enums.TipoAlmacenamiento;
+import com.iso9001.managers.SistemaManagers;
+import com.iso9001.utils.Configuracion;
 
 import javax.swing.*;
 import java.awt.*;
@@ -22,22 +25,36 @@ import java.io.IOException;
  */
 public class MainApplication {
 
+    // Componentes del splash que se actualizan durante la carga
+    private static JLabel lblCarga;
+    private static JProgressBar barraProgreso;
+
     public static void main(String[] args) {
+        long inicioArranque = System.nanoTime();
+
         // Configurar Look & Feel del sistema
         configurarLookAndFeel();
 
         // Mostrar splash screen
-        mostrarSplashScreen();
+        JFrame splash = mostrarSplashScreen();
 
         // Inicializar base de datos
         inicializarSistema();
 
+        // Cargar los datos en paralelo; la barra del splash avanza con cada módulo
+        SistemaManagers sistema = SistemaManagers.cargar(MainApplication::actualizarSplash);
+
         // Lanzar aplicación principal
         SwingUtilities.invokeLater(() -> {
             try {
-                DashboardPrincipal dashboard = new DashboardPrincipal();
+                splash.dispose();
+                DashboardPrincipal dashboard = new DashboardPrincipal(sistema);
                 dashboard.setVisible(true);
 
+                long milisegundosArranque = (System.nanoTime() - inicioArranque) / 1_000_000;
+                System.out.println("✓ Tiempo de arranque: " + milisegundosArranque + " ms (carga de datos: "
+                        + sistema.getMilisegundosCarga() + " ms)");
+
                 // Mensaje de bienvenida
                 mostrarMensajeBienvenida(dashboard);
 
@@ -70,9 +87,10 @@ public class MainApplication {
     }
 
     /**
-     * Muestra una pantalla de carga inicial
+     * Muestra una pantalla de carga inicial; se cierra cuando los datos están listos
+     * @return La ventana del splash
      */
-    private static void mostrarSplashScreen() {
+    private static JFrame mostrarSplashScreen() {
         JFrame splash = new JFrame();
         splash.setUndecorated(true);
         splash.setSize(500, 300);
@@ -94,14 +112,13 @@ public class MainApplication {
         subtitulo.setForeground(new Color(236, 240, 241));
 
         // Información de carga
-        JLabel lblCarga = new JLabel("Inicializando sistema...", SwingConstants.CENTER);
+        lblCarga = new JLabel("Inicializando sistema...", SwingConstants.CENTER);
         lblCarga.setFont(new Font("Arial", Font.PLAIN, 12));
         lblCarga.setForeground(new Color(189, 195, 199));
         lblCarga.setBorder(BorderFactory.createEmptyBorder(30, 20, 50, 20));
 
         // Barra de progreso
-        JProgressBar barraProgreso = new JProgressBar();
-        barraProgreso.setIndeterminate(true);
+        barraProgreso = new JProgressBar(0, SistemaManagers.TOTAL_MODULOS);
         barraProgreso.setStringPainted(true);
         barraProgreso.setString("Cargando componentes...");
         barraProgreso.setBorder(BorderFactory.createEmptyBorder(0, 50, 30, 50));
@@ -125,15 +142,18 @@ public class MainApplication {
 
         splash.add(panelPrincipal);
         splash.setVisible(true);
+        return splash;
+    }
 
-        // Simular tiempo de carga
-        try {
-            Thread.sleep(2000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-
-        splash.dispose();
+    /**
+     * Refleja en el splash el avance real de la carga; se llama desde los hilos de carga
+     */
+    private static void actualizarSplash(String modulo, int completados, int total) {
+        SwingUtilities.invokeLater(() -> {
+            lblCarga.setText("Módulo " + modulo + " cargado");
+            barraProgreso.setValue(completados);
+            barraProgreso.setString(completados + " de " + total + " módulos");
+        });
     }
 
     /**
@@ -170,12 +190,12 @@ public class MainApplication {
             System.out.println("Iniciando aplicación...");
             System.out.println(repetirCaracter());
 
-            // Paso 1: Inicializar base de datos MySQL (si está disponible)
-            try {
-                // Comentado hasta que MySQLDatabaseHelper esté implementado
-                System.out.println("⚠ MySQL: Configuración pendiente");
-            } catch (Exception mysqlError) {
-                System.out.println("⚠ MySQL no disponible, usando datos temporales");
+            // Paso 1: Informar el almacenamiento elegido en configuracion.properties (db.tipo)
+            TipoAlmacenamiento almacenamiento = Configuracion.getTipoAlmacenamiento();
+            if (almacenamiento.esBaseDatos()) {
+                System.out.println("✓ Almacenamiento: " + almacenamiento.getNombre() + " (" + Configuracion.getUrlBaseDatos() + ")");
+            } else {
+                System.out.println("✓ Almacenamiento: " + almacenamiento.getNombre());
             }
 
             // Paso 2: Inicializar DatabaseHelper (datos temporales/archivos)
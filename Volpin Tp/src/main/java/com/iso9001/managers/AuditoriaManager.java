@@ -1,123 +1,173 @@
 package com.iso9001.managers;
 
+import com.iso9001.enums.EstadoAuditoria;
+import com.iso9001.enums.TipoCambio;
 import com.iso9001.models.Auditoria;
 import com.iso9001.models.Empleado;
+import com.iso9001.repositorios.Repositorio;
+import com.iso9001.repositorios.Repositorios;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
 public class AuditoriaManager {
-    private List<Auditoria> auditorias;
+    private Map<String, Auditoria> auditorias;
     private List<Empleado> auditoresDisponibles;
+    private final IndiceTexto<Auditoria> indiceTexto;
+    private final int campoTitulo;
+    private final int campoHallazgos;
+    private final Repositorio<Auditoria> repositorio;
+    private final CerrojoManager cerrojo = new CerrojoManager();
+    private final BusEventos eventos = new BusEventos();
+    // Lista completa publicada para leer sin copiar
+    private final VistaPublicada<Auditoria> vistaTodas;
 
     public AuditoriaManager() {
-        this.auditorias = new ArrayList<>();
+        this.auditorias = new LinkedHashMap<>();
+        this.vistaTodas = new VistaPublicada<>(cerrojo, auditorias.values());
         this.auditoresDisponibles = new ArrayList<>();
+        this.indiceTexto = new IndiceTexto<>(Auditoria::getId);
+        this.campoTitulo = indiceTexto.campo(Auditoria::getTitulo, 3);
+        this.campoHallazgos = indiceTexto.campoMultiple(Auditoria::getHallazgos, 2);
+        indiceTexto.campo(Auditoria::getAuditorLider, 2);
+        indiceTexto.campo(Auditoria::getConclusion, 1);
+        indiceTexto.campo(Auditoria::getAlcance, 1);
+        indiceTexto.campo(Auditoria::getObjetivos, 1);
+        indiceTexto.campo(Auditoria::getObservaciones, 1);
         inicializarAuditoresDisponibles();
-        crearAuditoriasEjemplo();
+        this.repositorio = Repositorios.auditorias(() -> new ArrayList<>(auditorias.values()));
+        cargarAuditorias();
     }
 
     // Operaciones CRUD para Auditorías
     public void agregarAuditoria(Auditoria auditoria) {
-        if (auditoria != null && !existeAuditoria(auditoria.getId())) {
-            auditorias.add(auditoria);
-            System.out.println("Auditoría agregada: " + auditoria.getTitulo());
-        } else {
-            System.err.println("Error: Auditoría nula o ID ya existe");
-        }
+        cerrojo.escribir(() -> {
+            if (auditoria != null && !existeAuditoria(auditoria.getId())) {
+                indexar(auditoria);
+                guardarCambios(auditoria);
+                eventos.publicar(TipoCambio.AUDITORIA_MODIFICADA, auditoria.getId());
+                System.out.println("Auditoría agregada: " + auditoria.getTitulo());
+            } else {
+                System.err.println("Error: Auditoría nula o ID ya existe");
+            }
+        });
     }
 
     public Auditoria obtenerAuditoria(String id) {
-        return auditorias.stream()
-                .filter(a -> a.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        return cerrojo.leer(() -> auditorias.get(id));
     }
 
+    /**
+     * @return Vista de solo lectura de todas las auditorías, sin copiar: se reutiliza
+     *         entre llamadas hasta que se agrega, reemplaza o elimina alguna
+     */
     public List<Auditoria> obtenerTodasAuditorias() {
-        return new ArrayList<>(auditorias);
+        return vistaTodas.obtener();
     }
 
     public void actualizarAuditoria(Auditoria auditoria) {
         if (auditoria != null) {
-            for (int i = 0; i < auditorias.size(); i++) {
-                if (auditorias.get(i).getId().equals(auditoria.getId())) {
-                    auditorias.set(i, auditoria);
+            cerrojo.escribir(() -> {
+                if (auditorias.containsKey(auditoria.getId())) {
+                    indexar(auditoria);
+                    guardarCambios(auditoria);
+                    // Cubre también asignarAuditor y registrarNoConformidad, que pasan por aquí
+                    eventos.publicar(TipoCambio.AUDITORIA_MODIFICADA, auditoria.getId());
                     System.out.println("Auditoría actualizada: " + auditoria.getTitulo());
                     return;
                 }
-            }
-            System.err.println("Auditoría no encontrada para actualizar");
+                System.err.println("Auditoría no encontrada para actualizar");
+            });
         }
     }
 
     public boolean eliminarAuditoria(String id) {
-        boolean eliminada = auditorias.removeIf(a -> a.getId().equals(id));
-        if (eliminada) {
-            System.out.println("Auditoría eliminada: " + id);
-        }
-        return eliminada;
+        return cerrojo.escribirYObtener(() -> {
+            boolean eliminada = auditorias.remove(id) != null;
+            if (eliminada) {
+                vistaTodas.invalidar();
+                indiceTexto.eliminar(id);
+                repositorio.eliminar(id);
+                eventos.publicar(TipoCambio.AUDITORIA_MODIFICADA, id);
+                System.out.println("Auditoría eliminada: " + id);
+            }
+            return eliminada;
+        });
     }
 
     // Búsquedas y filtros
     public List<Auditoria> buscarPorTitulo(String titulo) {
-        return auditorias.stream()
-                .filter(a -> a.getTitulo().toLowerCase().contains(titulo.toLowerCase()))
-                .collect(Collectors.toList());
+        return cerrojo.leer(() -> indiceTexto.buscar(titulo, campoTitulo));
+    }
+
+    /**
+     * Busca palabras (o comienzos de palabra) en título, hallazgos, auditor líder,
+     * conclusión, alcance, objetivos y observaciones, sin distinguir acentos
+     * @return Auditorías que contienen todas las palabras, las más relevantes primero
+     */
+    public List<Auditoria> buscarTexto(String consulta) {
+        return cerrojo.leer(() -> indiceTexto.buscar(consulta));
+    }
+
+    public List<Auditoria> buscarEnHallazgos(String consulta) {
+        return cerrojo.leer(() -> indiceTexto.buscar(consulta, campoHallazgos));
     }
 
     public List<Auditoria> obtenerPorTipo(String tipo) {
-        return auditorias.stream()
+        return cerrojo.leer(() -> auditorias.values().stream()
                 .filter(a -> a.getTipo().equals(tipo))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     public List<Auditoria> obtenerPorAuditor(String auditor) {
-        return auditorias.stream()
+        return cerrojo.leer(() -> auditorias.values().stream()
                 .filter(a -> a.getAuditorLider().equals(auditor) || a.getAuditores().contains(auditor))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
-    public List<Auditoria> obtenerPorEstado(String estado) {
-        return auditorias.stream()
-                .filter(a -> a.getEstadoAuditoria().equals(estado))
-                .collect(Collectors.toList());
+    public List<Auditoria> obtenerPorEstado(EstadoAuditoria estado) {
+        return cerrojo.leer(() -> auditorias.values().stream()
+                .filter(a -> a.getEstadoAuditoria() == estado)
+                .collect(Collectors.toList()));
     }
 
     public List<Auditoria> obtenerPorFecha(LocalDate fechaInicio, LocalDate fechaFin) {
-        return auditorias.stream()
+        return cerrojo.leer(() -> auditorias.values().stream()
                 .filter(a -> !a.getFechaProgramada().isBefore(fechaInicio) &&
                         !a.getFechaProgramada().isAfter(fechaFin))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     // Planificación y programación
     public void programarAuditoria(String titulo, String tipo, LocalDate fecha, String auditorLider) {
-        String id = "AUD" + String.format("%03d", auditorias.size() + 1);
-        Auditoria auditoria = new Auditoria(id, titulo, tipo, fecha, auditorLider);
-        agregarAuditoria(auditoria);
+        cerrojo.escribir(() -> {
+            String id = "AUD" + String.format("%03d", auditorias.size() + 1);
+            Auditoria auditoria = new Auditoria(id, titulo, tipo, fecha, auditorLider);
+            agregarAuditoria(auditoria);
+        });
     }
 
     public List<Auditoria> obtenerAuditoriasProgramadas() {
-        return auditorias.stream()
-                .filter(a -> "PROGRAMADA".equals(a.getEstadoAuditoria()))
+        return cerrojo.leer(() -> auditorias.values().stream()
+                .filter(a -> a.getEstadoAuditoria() == EstadoAuditoria.PROGRAMADA)
                 .sorted(Comparator.comparing(Auditoria::getFechaProgramada))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     public List<Auditoria> obtenerAuditoriasVencidas() {
-        return auditorias.stream()
+        return cerrojo.leer(() -> auditorias.values().stream()
                 .filter(Auditoria::estaVencida)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     public List<Auditoria> obtenerAuditoriasPorVencer(int diasAnticipacion) {
         LocalDate fechaLimite = LocalDate.now().plusDays(diasAnticipacion);
-        return auditorias.stream()
+        return cerrojo.leer(() -> auditorias.values().stream()
                 .filter(a -> !a.isCompletada() &&
                         !a.getFechaProgramada().isAfter(fechaLimite) &&
                         !a.getFechaProgramada().isBefore(LocalDate.now()))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     // Gestión de auditores
@@ -128,86 +178,106 @@ public class AuditoriaManager {
     }
 
     public void asignarAuditor(String auditoriaId, String auditor) {
-        Auditoria auditoria = obtenerAuditoria(auditoriaId);
-        if (auditoria != null) {
-            auditoria.agregarAuditor(auditor);
-            actualizarAuditoria(auditoria);
-            System.out.println("Auditor asignado: " + auditor + " a auditoría " + auditoriaId);
-        }
+        cerrojo.escribir(() -> {
+            Auditoria auditoria = obtenerAuditoria(auditoriaId);
+            if (auditoria != null) {
+                auditoria.agregarAuditor(auditor);
+                actualizarAuditoria(auditoria);
+                System.out.println("Auditor asignado: " + auditor + " a auditoría " + auditoriaId);
+            }
+        });
     }
 
     public boolean auditorDisponible(String auditor, LocalDate fecha) {
-        return auditorias.stream()
+        return cerrojo.leer(() -> auditorias.values().stream()
                 .noneMatch(a -> (a.getAuditorLider().equals(auditor) || a.getAuditores().contains(auditor)) &&
                         a.getFechaProgramada().equals(fecha) &&
-                        !a.isCompletada());
+                        !a.isCompletada()));
     }
 
     // Ejecución de auditorías
     public void iniciarAuditoria(String auditoriaId) {
         Auditoria auditoria = obtenerAuditoria(auditoriaId);
-        if (auditoria != null && "PROGRAMADA".equals(auditoria.getEstadoAuditoria())) {
+        if (auditoria != null && auditoria.getEstadoAuditoria() == EstadoAuditoria.PROGRAMADA) {
             // Cambiar estado a EN_CURSO (esto se hace automáticamente por la fecha)
             System.out.println("Auditoría iniciada: " + auditoria.getTitulo());
         }
     }
 
     public void agregarHallazgo(String auditoriaId, String hallazgo) {
-        Auditoria auditoria = obtenerAuditoria(auditoriaId);
-        if (auditoria != null) {
-            auditoria.agregarHallazgo(hallazgo);
-            actualizarAuditoria(auditoria);
-            System.out.println("Hallazgo agregado a auditoría " + auditoriaId);
-        }
+        cerrojo.escribir(() -> {
+            Auditoria auditoria = obtenerAuditoria(auditoriaId);
+            if (auditoria != null) {
+                auditoria.agregarHallazgo(hallazgo);
+                // Solo se indexa el hallazgo nuevo, no el historial completo de la auditoría
+                indiceTexto.agregarTexto(auditoria, campoHallazgos, hallazgo);
+                guardarCambios(auditoria);
+                System.out.println("Hallazgo agregado a auditoría " + auditoriaId);
+            }
+        });
     }
 
     public void registrarNoConformidad(String auditoriaId, String noConformidadId) {
-        Auditoria auditoria = obtenerAuditoria(auditoriaId);
-        if (auditoria != null) {
-            auditoria.agregarNoConformidad(noConformidadId);
-            actualizarAuditoria(auditoria);
-            System.out.println("No conformidad registrada en auditoría " + auditoriaId);
-        }
+        cerrojo.escribir(() -> {
+            Auditoria auditoria = obtenerAuditoria(auditoriaId);
+            if (auditoria != null) {
+                auditoria.agregarNoConformidad(noConformidadId);
+                actualizarAuditoria(auditoria);
+                System.out.println("No conformidad registrada en auditoría " + auditoriaId);
+            }
+        });
     }
 
     public void completarAuditoria(String auditoriaId, String conclusion, double calificacion) {
-        Auditoria auditoria = obtenerAuditoria(auditoriaId);
-        if (auditoria != null) {
-            auditoria.completarAuditoria(LocalDate.now(), conclusion, calificacion);
-            actualizarAuditoria(auditoria);
-            System.out.println("Auditoría completada: " + auditoria.getTitulo());
-        }
+        cerrojo.escribir(() -> {
+            Auditoria auditoria = obtenerAuditoria(auditoriaId);
+            if (auditoria != null) {
+                auditoria.completarAuditoria(LocalDate.now(), conclusion, calificacion);
+                actualizarAuditoria(auditoria);
+                eventos.publicar(TipoCambio.AUDITORIA_COMPLETADA, auditoriaId);
+                System.out.println("Auditoría completada: " + auditoria.getTitulo());
+            }
+        });
     }
 
     // Análisis y métricas
-    public Map<String, Long> obtenerEstadisticasPorEstado() {
-        Map<String, Long> estadisticas = new HashMap<>();
-        estadisticas.put("PROGRAMADA", auditorias.stream().filter(a -> "PROGRAMADA".equals(a.getEstadoAuditoria())).count());
-        estadisticas.put("EN_CURSO", auditorias.stream().filter(a -> "EN_CURSO".equals(a.getEstadoAuditoria())).count());
-        estadisticas.put("COMPLETADA", auditorias.stream().filter(a -> "COMPLETADA".equals(a.getEstadoAuditoria())).count());
-        estadisticas.put("VENCIDA", auditorias.stream().filter(a -> "VENCIDA".equals(a.getEstadoAuditoria())).count());
-        return estadisticas;
+    public Map<EstadoAuditoria, Long> obtenerEstadisticasPorEstado() {
+        // El estado depende de la fecha actual, así que se calcula en una sola pasada
+        return cerrojo.leer(() -> {
+            Map<EstadoAuditoria, Long> estadisticas = new EnumMap<>(EstadoAuditoria.class);
+            for (EstadoAuditoria estado : EstadoAuditoria.values()) {
+                estadisticas.put(estado, 0L);
+            }
+            for (Auditoria auditoria : auditorias.values()) {
+                estadisticas.merge(auditoria.getEstadoAuditoria(), 1L, Long::sum);
+            }
+            return estadisticas;
+        });
     }
 
     public Map<String, Long> obtenerEstadisticasPorTipo() {
-        return auditorias.stream()
-                .collect(Collectors.groupingBy(Auditoria::getTipo, Collectors.counting()));
+        return cerrojo.leer(() -> auditorias.values().stream()
+                .collect(Collectors.groupingBy(Auditoria::getTipo, Collectors.counting())));
     }
 
     public double calcularCalificacionPromedio() {
-        return auditorias.stream()
+        return cerrojo.leer(() -> auditorias.values().stream()
                 .filter(Auditoria::isCompletada)
                 .mapToDouble(Auditoria::getCalificacionGeneral)
                 .average()
-                .orElse(0.0);
+                .orElse(0.0));
     }
 
     public Map<String, Integer> obtenerEstadisticasHallazgos() {
+        return cerrojo.leer(this::calcularEstadisticasHallazgos);
+    }
+
+    private Map<String, Integer> calcularEstadisticasHallazgos() {
         Map<String, Integer> estadisticas = new HashMap<>();
-        estadisticas.put("totalHallazgos", auditorias.stream().mapToInt(Auditoria::cantidadHallazgos).sum());
-        estadisticas.put("totalNoConformidades", auditorias.stream().mapToInt(Auditoria::cantidadNoConformidades).sum());
+        estadisticas.put("totalHallazgos", auditorias.values().stream().mapToInt(Auditoria::cantidadHallazgos).sum());
+        estadisticas.put("totalNoConformidades", auditorias.values().stream().mapToInt(Auditoria::cantidadNoConformidades).sum());
         estadisticas.put("promedioHallazgosPorAuditoria",
-                (int) auditorias.stream().filter(Auditoria::isCompletada)
+                (int) auditorias.values().stream().filter(Auditoria::isCompletada)
                         .mapToInt(Auditoria::cantidadHallazgos)
                         .average().orElse(0.0));
         return estadisticas;
@@ -215,6 +285,11 @@ public class AuditoriaManager {
 
     // Alertas y notificaciones
     public List<String> generarAlertas() {
+        // Las tres alertas se calculan sobre el mismo estado
+        return cerrojo.leer(this::armarAlertas);
+    }
+
+    private List<String> armarAlertas() {
         List<String> alertas = new ArrayList<>();
 
         // Auditorías vencidas
@@ -230,8 +305,8 @@ public class AuditoriaManager {
         }
 
         // Auditorías sin auditores asignados
-        long sinAuditores = auditorias.stream()
-                .filter(a -> "PROGRAMADA".equals(a.getEstadoAuditoria()) && a.getAuditores().isEmpty())
+        long sinAuditores = auditorias.values().stream()
+                .filter(a -> a.getEstadoAuditoria() == EstadoAuditoria.PROGRAMADA && a.getAuditores().isEmpty())
                 .count();
         if (sinAuditores > 0) {
             alertas.add("ATENCIÓN: " + sinAuditores + " auditorías sin auditores asignados");
@@ -242,6 +317,11 @@ public class AuditoriaManager {
 
     // Planificación automática
     public List<LocalDate> sugerirFechasAuditoria(String auditor, int proximosMeses) {
+        // Se revisan todas las fechas contra la misma agenda
+        return cerrojo.leer(() -> buscarFechasDisponibles(auditor, proximosMeses));
+    }
+
+    private List<LocalDate> buscarFechasDisponibles(String auditor, int proximosMeses) {
         List<LocalDate> fechasDisponibles = new ArrayList<>();
         LocalDate fechaInicio = LocalDate.now().plusDays(7); // Empezar en una semana
         LocalDate fechaFin = fechaInicio.plusMonths(proximosMeses);
@@ -260,7 +340,7 @@ public class AuditoriaManager {
 
     // Validaciones
     public boolean existeAuditoria(String id) {
-        return auditorias.stream().anyMatch(a -> a.getId().equals(id));
+        return cerrojo.leer(() -> auditorias.containsKey(id));
     }
 
     public boolean validarAuditoria(Auditoria auditoria) {
@@ -275,16 +355,21 @@ public class AuditoriaManager {
 
     // Reportes
     public String generarReporteAuditorias() {
+        // Todas las cifras del reporte salen del mismo estado
+        return cerrojo.leer(this::armarReporteAuditorias);
+    }
+
+    private String armarReporteAuditorias() {
         StringBuilder reporte = new StringBuilder();
         reporte.append("REPORTE DE AUDITORÍAS\n");
         reporte.append("=".repeat(30)).append("\n");
         reporte.append("Total auditorías: ").append(auditorias.size()).append("\n");
         reporte.append("Calificación promedio: ").append(String.format("%.1f", calcularCalificacionPromedio())).append("\n\n");
 
-        Map<String, Long> estadisticas = obtenerEstadisticasPorEstado();
+        Map<EstadoAuditoria, Long> estadisticas = obtenerEstadisticasPorEstado();
         reporte.append("Por estado:\n");
-        for (Map.Entry<String, Long> entry : estadisticas.entrySet()) {
-            reporte.append("- ").append(entry.getKey()).append(": ").append(entry.getValue()).append("\n");
+        for (Map.Entry<EstadoAuditoria, Long> entry : estadisticas.entrySet()) {
+            reporte.append("- ").append(entry.getKey().name()).append(": ").append(entry.getValue()).append("\n");
         }
 
         Map<String, Integer> hallazgos = obtenerEstadisticasHallazgos();
@@ -297,6 +382,10 @@ public class AuditoriaManager {
     }
 
     public String generarPlanAuditorias(int proximosMeses) {
+        return cerrojo.leer(() -> armarPlanAuditorias(proximosMeses));
+    }
+
+    private String armarPlanAuditorias(int proximosMeses) {
         StringBuilder plan = new StringBuilder();
         plan.append("PLAN DE AUDITORÍAS - PRÓXIMOS ").append(proximosMeses).append(" MESES\n");
         plan.append("=".repeat(50)).append("\n");
@@ -312,7 +401,7 @@ public class AuditoriaManager {
                     .append(auditoria.getTitulo()).append(" (")
                     .append(auditoria.getTipo()).append(")\n");
             plan.append("  Auditor: ").append(auditoria.getAuditorLider()).append("\n");
-            plan.append("  Estado: ").append(auditoria.getEstadoAuditoria()).append("\n\n");
+            plan.append("  Estado: ").append(auditoria.getEstadoAuditoria().name()).append("\n\n");
         }
 
         return plan.toString();
@@ -336,48 +425,55 @@ public class AuditoriaManager {
         auditoresDisponibles.get(2).agregarCertificacionISO("ISO 9001");
     }
 
-    private void crearAuditoriasEjemplo() {
-        // Auditoría completada
-        Auditoria aud1 = new Auditoria("AUD001", "Auditoría Interna Q1 2024", "Interna",
-                LocalDate.now().minusMonths(2), "Carlos Mendoza");
-        aud1.agregarAuditor("Ana López");
-        aud1.agregarProcesoAuditado("P001");
-        aud1.agregarProcesoAuditado("P002");
-        aud1.agregarHallazgo("Documentación actualizada correctamente");
-        aud1.agregarHallazgo("Procesos bien definidos");
-        aud1.completarAuditoria(LocalDate.now().minusMonths(2).plusDays(1),
-                "Sistema de calidad funcionando correctamente", 8.5);
-        agregarAuditoria(aud1);
-
-        // Auditoría programada
-        Auditoria aud2 = new Auditoria("AUD002", "Auditoría Externa ISO 9001", "Externa",
-                LocalDate.now().plusDays(15), "Auditor Externo");
-        aud2.agregarAuditor("Carlos Mendoza");
-        aud2.agregarAuditor("Ana López");
-        aud2.setAlcance("Todos los procesos de la organización");
-        aud2.setObjetivos("Verificar cumplimiento de requisitos ISO 9001:2015");
-        agregarAuditoria(aud2);
-
-        // Auditoría de seguimiento
-        Auditoria aud3 = new Auditoria("AUD003", "Seguimiento Acciones Correctivas", "Interna",
-                LocalDate.now().plusDays(30), "Roberto Silva");
-        aud3.agregarProcesoAuditado("P004");
-        aud3.setAlcance("Proceso de producción");
-        aud3.setObjetivos("Verificar implementación de acciones correctivas");
-        agregarAuditoria(aud3);
+    // Métodos de persistencia
+    private void cargarAuditorias() {
+        auditorias.clear();
+        vistaTodas.invalidar();
+        repositorio.cargar(this::indexar);
+        System.out.println("Auditorías cargadas: " + auditorias.size());
+    }
+
+    private void indexar(Auditoria auditoria) {
+        vistaTodas.reemplazado(auditorias.put(auditoria.getId(), auditoria), auditoria);
+        indiceTexto.actualizar(auditoria);
+    }
+
+    // Un registro en la bitácora; el CSV completo solo se reescribe al compactar
+    private void guardarCambios(Auditoria auditoria) {
+        repositorio.guardar(auditoria);
+    }
+
+    /**
+     * Cierra el almacenamiento dejando los cambios compactados; se invoca al salir
+     */
+    public void cerrar() {
+        cerrojo.escribir(() -> {
+            try {
+                repositorio.close();
+            } catch (IOException e) {
+                System.err.println("Error al cerrar auditorías: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * @return Avisos de auditorías completadas para el dashboard
+     */
+    public BusEventos getEventos() {
+        return eventos;
     }
 
     // Getters para estadísticas
     public int getTotalAuditorias() {
-        return auditorias.size();
+        return cerrojo.leer(auditorias::size);
     }
 
     public int getAuditoriasCompletadas() {
-        return (int) auditorias.stream().filter(Auditoria::isCompletada).count();
+        return cerrojo.leer(() -> (int) auditorias.values().stream().filter(Auditoria::isCompletada).count());
     }
 
     public int getAuditoriasProgramadas() {
-        return obtenerPorEstado("PROGRAMADA").size();
+        return obtenerPorEstado(EstadoAuditoria.PROGRAMADA).size();
     }
 
     public int getAuditoriasVencidas() {
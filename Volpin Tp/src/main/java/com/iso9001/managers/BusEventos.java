@@ -0,0 +1,50 @@
+package com.iso9001.managers;
+
+import com.iso9001.enums.TipoCambio;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Avisos de cambio de un manager para quien muestra sus datos (el dashboard)
+ *
+ * El manager publica cada cambio relevante con su tipo y el id de la entidad.
+ * Los observadores se ejecutan en el hilo que hizo el cambio y todavía con el
+ * cerrojo de escritura del manager tomado: deben limitarse a anotar el cambio
+ * (por ejemplo, programar un repintado) y consultar al manager después, desde
+ * otro hilo. Un observador que falla se registra y no afecta al resto.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+public class BusEventos {
+    // Se suscribe y desuscribe muy de vez en cuando; se publica en cada cambio
+    private final List<Observador> observadores = new CopyOnWriteArrayList<>();
+
+    /**
+     * Recibe los cambios publicados por un manager
+     */
+    @FunctionalInterface
+    public interface Observador {
+        void cambioRegistrado(TipoCambio tipo, String entidadId);
+    }
+
+    public void suscribir(Observador observador) {
+        if (observador != null) {
+            observadores.add(observador);
+        }
+    }
+
+    public void desuscribir(Observador observador) {
+        observadores.remove(observador);
+    }
+
+    void publicar(TipoCambio tipo, String entidadId) {
+        for (Observador observador : observadores) {
+            try {
+                observador.cambioRegistrado(tipo, entidadId);
+            } catch (RuntimeException e) {
+                System.err.println("Error al notificar " + tipo.getNombre() + " (" + entidadId + "): " + e.getMessage());
+            }
+        }
+    }
+}
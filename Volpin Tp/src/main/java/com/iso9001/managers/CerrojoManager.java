@@ -0,0 +1,61 @@
+package com.iso9001.managers;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Control de concurrencia de un manager: el dashboard, las ventanas y las
+ * tareas de fondo comparten la misma instancia.
+ *
+ * Las consultas toman el cerrojo de lectura y no se bloquean entre sí; las
+ * modificaciones toman el de escritura, de a una por vez y sin lectores en
+ * curso, así una consulta nunca ve el mapa y los índices a medio actualizar.
+ * Cada manager tiene su propio cerrojo, de modo que escribir no conformidades
+ * no frena a quien lee indicadores.
+ *
+ * Es reentrante: una modificación puede llamar a otras modificaciones y a
+ * consultas del mismo manager. Lo inverso no: una consulta no puede llamar a
+ * una modificación, porque el cerrojo de lectura no se convierte en uno de
+ * escritura y el hilo quedaría esperándose a sí mismo.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+class CerrojoManager {
+    private final ReentrantReadWriteLock cerrojo = new ReentrantReadWriteLock();
+
+    /**
+     * Ejecuta una consulta con el cerrojo de lectura
+     * @return Resultado de la consulta; debe ser una copia si es una colección
+     */
+    <R> R leer(Supplier<R> consulta) {
+        return ejecutar(cerrojo.readLock(), consulta);
+    }
+
+    /**
+     * Ejecuta una modificación con el cerrojo de escritura
+     */
+    void escribir(Runnable modificacion) {
+        ejecutar(cerrojo.writeLock(), () -> {
+            modificacion.run();
+            return null;
+        });
+    }
+
+    /**
+     * Ejecuta una modificación con el cerrojo de escritura y devuelve su resultado
+     */
+    <R> R escribirYObtener(Supplier<R> modificacion) {
+        return ejecutar(cerrojo.writeLock(), modificacion);
+    }
+
+    private static <R> R ejecutar(Lock lock, Supplier<R> operacion) {
+        lock.lock();
+        try {
+            return operacion.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package com.iso9001.managers;
+
+import com.iso9001.models.Medicion;
+import com.iso9001.utils.DateUtils;
+import com.iso9001.utils.LectorCSV;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Importación de mediciones desde archivos CSV de colectores de datos
+ *
+ * Formato esperado, con una línea de encabezado:
+ *   indicadorId,fecha,valor
+ *   I004,2024-03-01,412.5
+ * La fecha puede venir en ISO (yyyy-MM-dd) o en formato corto (dd/MM/yyyy).
+ *
+ * El archivo se procesa en streaming con cuatro etapas, cada una en su hilo:
+ * lectura, interpretación (fecha y valor), validación (indicador existente,
+ * valor finito, fecha no futura) y aplicación en lotes sobre el
+ * IndicadorManager. Las etapas se pasan bloques de líneas por colas acotadas,
+ * así que la memoria usada no depende del tamaño del archivo: si la aplicación
+ * se atrasa, la lectura espera.
+ *
+ * Las líneas pueden venir en cualquier orden (archivos mezclados o cargas de
+ * períodos anteriores). Al terminar, el valor vigente de cada indicador es su
+ * medición más reciente entre las que ya tenía y las del archivo: un
+ * indicador sin mediciones toma la más reciente del archivo, aunque sea una
+ * exportación histórica, y uno ya medido no retrocede a una fecha anterior.
+ * Todas las mediciones válidas quedan en la serie del indicador.
+ *
+ * Una línea con error no detiene la importación; se informa con su número de
+ * línea en el resultado. Al cancelar, los lotes ya aplicados quedan registrados.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+public class ImportadorMediciones {
+    private static final int LINEAS_POR_BLOQUE = 1000;
+    private static final int BLOQUES_EN_COLA = 16;
+    // Mediciones por llamada a registrarMediciones: cada lote toma el cerrojo de escritura una vez
+    private static final int MEDICIONES_POR_LOTE = 5000;
+    public static final int MAX_ERRORES_DETALLE = 1000;
+    private static final long ESPERA_APLICACION_MS = 100;
+
+    // Marca de fin de archivo que recorre todas las colas
+    private static final List<Linea> FIN = Collections.emptyList();
+
+    private final IndicadorManager indicadorManager;
+    private final List<Thread> etapas = new ArrayList<>();
+    // La aplicación escribe las series por FileChannel, que se cierra si el hilo
+    // se interrumpe a mitad de una escritura: esa etapa nunca se interrumpe
+    private final List<Thread> interrumpibles = new ArrayList<>();
+    private volatile boolean cancelado;
+    private volatile String falla;
+
+    // Estado de la importación en curso; cada campo lo escribe una sola etapa
+    private volatile long bytesLeidos;
+    private long lineasLeidas;
+    private long lineasProcesadas;
+    private long medicionesEnviadas;
+    private long medicionesAplicadas;
+    private long lineasConError;
+    private final List<ErrorLinea> errores = new ArrayList<>();
+
+    /**
+     * Recibe el avance de la importación desde el hilo de aplicación.
+     * Desde una ventana, reenviarlo al EDT (por ejemplo con SwingWorker.setProgress).
+     */
+    public interface Progreso {
+        void actualizar(long lineasProcesadas, long bytesLeidos, long bytesTotales);
+    }
+
+    public ImportadorMediciones(IndicadorManager indicadorManager) {
+        this.indicadorManager = indicadorManager;
+    }
+
+    /**
+     * Importa el archivo completo y espera a que terminen todas las etapas.
+     * Cada instancia importa un solo archivo.
+     * @param archivo Archivo CSV con encabezado
+     * @param progreso Receptor del avance (puede ser null)
+     * @return Resumen de la importación
+     * @throws IOException si el archivo no puede abrirse
+     */
+    public Resultado importar(File archivo, Progreso progreso) throws IOException {
+        long inicio = System.nanoTime();
+        long bytesTotales = archivo.length();
+        FileInputStream entrada = new FileInputStream(archivo);
+        FileChannel canal = entrada.getChannel();
+        LectorCSV lector = new LectorCSV(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+
+        BlockingQueue<List<Linea>> leidas = new ArrayBlockingQueue<>(BLOQUES_EN_COLA);
+        BlockingQueue<List<Linea>> interpretadas = new ArrayBlockingQueue<>(BLOQUES_EN_COLA);
+        BlockingQueue<List<Linea>> validadas = new ArrayBlockingQueue<>(BLOQUES_EN_COLA);
+
+        try {
+            synchronized (etapas) {
+                if (!cancelado) {
+                    iniciarEtapa("lectura", true, () -> leer(lector, canal, leidas));
+                    iniciarEtapa("interpretacion", true,
+                            () -> transformar(leidas, interpretadas, ImportadorMediciones::interpretar));
+                    iniciarEtapa("validacion", true, () -> transformar(interpretadas, validadas, crearValidador()));
+                    iniciarEtapa("aplicacion", false, () -> aplicar(validadas, progreso, bytesTotales));
+                }
+            }
+            esperarEtapas();
+        } finally {
+            lector.close();
+        }
+
+        long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+        Resultado resultado = new Resultado(archivo.getName(), lineasLeidas, medicionesAplicadas,
+                medicionesEnviadas - medicionesAplicadas, lineasConError, errores, milisegundos,
+                cancelado, falla);
+        System.out.println("Importación de mediciones: " + resultado.getResumen());
+        return resultado;
+    }
+
+    /**
+     * Detiene la importación en curso. Puede llamarse desde cualquier hilo.
+     */
+    public void cancelar() {
+        cancelado = true;
+        interrumpirEtapas();
+    }
+
+    // Etapas del pipeline
+
+    private void leer(LectorCSV lector, FileChannel canal, BlockingQueue<List<Linea>> salida)
+            throws IOException, InterruptedException {
+        lector.saltarEncabezado();
+        List<Linea> bloque = new ArrayList<>(LINEAS_POR_BLOQUE);
+        while (lector.hasNext()) {
+            LectorCSV.Registro registro = lector.next();
+            // El registro se reutiliza: se copian los campos antes de avanzar
+            Linea linea = new Linea(registro.getNumeroLinea());
+            if (registro.cantidadCampos() < 3) {
+                linea.error = "se esperaban 3 campos (indicadorId,fecha,valor) y hay "
+                        + registro.cantidadCampos();
+            } else {
+                linea.indicadorId = registro.campo(0);
+                linea.fecha = registro.campo(1);
+                linea.valor = registro.campo(2);
+            }
+            bloque.add(linea);
+            lineasLeidas++;
+
+            if (bloque.size() == LINEAS_POR_BLOQUE) {
+                bytesLeidos = canal.position();
+                salida.put(bloque);
+                bloque = new ArrayList<>(LINEAS_POR_BLOQUE);
+            }
+        }
+        bytesLeidos = canal.position();
+        if (!bloque.isEmpty()) salida.put(bloque);
+        salida.put(FIN);
+    }
+
+    private static void transformar(BlockingQueue<List<Linea>> entrada, BlockingQueue<List<Linea>> salida,
+                                    Consumer<Linea> etapa) throws InterruptedException {
+        while (true) {
+            List<Linea> bloque = entrada.take();
+            for (Linea linea : bloque) {
+                if (linea.error == null) etapa.accept(linea);
+            }
+            salida.put(bloque);
+            if (bloque == FIN) return;
+        }
+    }
+
+    private static void interpretar(Linea linea) {
+        LocalDate fecha = parsearFecha(linea.fecha);
+        if (fecha == null) {
+            linea.error = "fecha inválida '" + linea.fecha + "'";
+            return;
+        }
+        double valor;
+        try {
+            valor = Double.parseDouble(linea.valor);
+        } catch (NumberFormatException e) {
+            linea.error = "valor no numérico '" + linea.valor + "'";
+            return;
+        }
+        linea.medicion = new Medicion(linea.indicadorId, fecha, valor);
+    }
+
+    private Consumer<Linea> crearValidador() {
+        LocalDate hoy = LocalDate.now();
+        // Un archivo trae pocos indicadores distintos: se consulta al manager una vez por cada uno
+        Map<String, Boolean> existentes = new HashMap<>();
+        return linea -> {
+            Medicion medicion = linea.medicion;
+            if (medicion.getIndicadorId().isEmpty()) {
+                linea.error = "indicador vacío";
+            } else if (!existentes.computeIfAbsent(medicion.getIndicadorId(), indicadorManager::existeIndicador)) {
+                linea.error = "indicador inexistente '" + medicion.getIndicadorId() + "'";
+            } else if (!Double.isFinite(medicion.getValor())) {
+                linea.error = "valor fuera de rango '" + linea.valor + "'";
+            } else if (medicion.getFecha().isAfter(hoy)) {
+                linea.error = "fecha futura " + DateUtils.formatearFechaCorta(medicion.getFecha());
+            }
+        };
+    }
+
+    private void aplicar(BlockingQueue<List<Linea>> entrada, Progreso progreso, long bytesTotales)
+            throws InterruptedException {
+        List<Medicion> lote = new ArrayList<>(MEDICIONES_POR_LOTE);
+        while (true) {
+            // Sin interrupciones: se consulta la cola con espera para notar la cancelación
+            List<Linea> bloque = entrada.poll(ESPERA_APLICACION_MS, TimeUnit.MILLISECONDS);
+            if (bloque == null) {
+                if (cancelado || falla != null) return;
+                continue;
+            }
+            if (bloque == FIN) break;
+
+            for (Linea linea : bloque) {
+                if (linea.error != null) {
+                    registrarError(linea);
+                } else {
+                    lote.add(linea.medicion);
+                    if (lote.size() == MEDICIONES_POR_LOTE) {
+                        aplicarLote(lote);
+                        lote = new ArrayList<>(MEDICIONES_POR_LOTE);
+                    }
+                }
+            }
+            lineasProcesadas += bloque.size();
+            if (progreso != null) progreso.actualizar(lineasProcesadas, bytesLeidos, bytesTotales);
+        }
+        aplicarLote(lote);
+        if (progreso != null) progreso.actualizar(lineasProcesadas, bytesTotales, bytesTotales);
+    }
+
+    private void aplicarLote(List<Medicion> lote) {
+        if (lote.isEmpty() || cancelado) return;
+        medicionesEnviadas += lote.size();
+        medicionesAplicadas += indicadorManager.registrarMediciones(lote);
+    }
+
+    private void registrarError(Linea linea) {
+        lineasConError++;
+        if (errores.size() < MAX_ERRORES_DETALLE) {
+            errores.add(new ErrorLinea(linea.numero, linea.error));
+        }
+    }
+
+    // Coordinación de hilos
+
+    @FunctionalInterface
+    private interface Etapa {
+        void ejecutar() throws Exception;
+    }
+
+    private void iniciarEtapa(String nombre, boolean interrumpible, Etapa etapa) {
+        Thread hilo = new Thread(() -> {
+            try {
+                etapa.ejecutar();
+            } catch (InterruptedException e) {
+                // Cancelación o falla de otra etapa: se termina sin más
+            } catch (Exception e) {
+                // Al cancelar, el canal del archivo se cierra si la lectura estaba en curso
+                if (cancelado) return;
+                falla = "Error en la etapa de " + nombre + ": " + e.getMessage();
+                System.err.println(falla);
+                interrumpirEtapas();
+            }
+        }, "iso9001-importacion-" + nombre);
+        hilo.setDaemon(true);
+        etapas.add(hilo);
+        if (interrumpible) interrumpibles.add(hilo);
+        hilo.start();
+    }
+
+    private void interrumpirEtapas() {
+        // Una etapa detenida deja a las demás bloqueadas en su cola: se liberan interrumpiéndolas
+        synchronized (etapas) {
+            for (Thread hilo : interrumpibles) {
+                hilo.interrupt();
+            }
+        }
+    }
+
+    private void esperarEtapas() {
+        boolean interrumpido = false;
+        for (Thread hilo : etapas) {
+            while (hilo.isAlive()) {
+                try {
+                    hilo.join();
+                } catch (InterruptedException e) {
+                    // Quien espera fue cancelado (por ejemplo un SwingWorker): se detienen las etapas
+                    interrumpido = true;
+                    cancelar();
+                }
+            }
+        }
+        if (interrumpido) Thread.currentThread().interrupt();
+    }
+
+    private static LocalDate parsearFecha(String texto) {
+        if (texto == null || texto.isEmpty()) return null;
+        try {
+            return texto.indexOf('/') >= 0 ? DateUtils.parsearFechaCorta(texto) : DateUtils.parsearFechaISO(texto);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // Línea del archivo en tránsito por las etapas; la completa cada etapa en orden
+    private static class Linea {
+        final long numero;
+        String indicadorId;
+        String fecha;
+        String valor;
+        Medicion medicion;
+        String error;
+
+        Linea(long numero) {
+            this.numero = numero;
+        }
+    }
+
+    /**
+     * Línea descartada por la importación
+     */
+    public static class ErrorLinea {
+        private final long numeroLinea;
+        private final String mensaje;
+
+        ErrorLinea(long numeroLinea, String mensaje) {
+            this.numeroLinea = numeroLinea;
+            this.mensaje = mensaje;
+        }
+
+        public long getNumeroLinea() { return numeroLinea; }
+
+        public String getMensaje() { return mensaje; }
+
+        @Override
+        public String toString() {
+            return "Línea " + numeroLinea + ": " + mensaje;
+        }
+    }
+
+    /**
+     * Resumen de una importación: totales, errores por línea y rendimiento
+     */
+    public static class Resultado {
+        private final String archivo;
+        private final long lineasLeidas;
+        private final long medicionesAplicadas;
+        private final long medicionesDescartadas;
+        private final long lineasConError;
+        private final List<ErrorLinea> errores;
+        private final long milisegundos;
+        private final boolean cancelado;
+        private final String falla;
+
+        Resultado(String archivo, long lineasLeidas, long medicionesAplicadas, long medicionesDescartadas,
+                  long lineasConError, List<ErrorLinea> errores, long milisegundos,
+                  boolean cancelado, String falla) {
+            this.archivo = archivo;
+            this.lineasLeidas = lineasLeidas;
+            this.medicionesAplicadas = medicionesAplicadas;
+            this.medicionesDescartadas = medicionesDescartadas;
+            this.lineasConError = lineasConError;
+            this.errores = Collections.unmodifiableList(new ArrayList<>(errores));
+            this.milisegundos = milisegundos;
+            this.cancelado = cancelado;
+            this.falla = falla;
+        }
+
+        public String getArchivo() { return archivo; }
+
+        public long getLineasLeidas() { return lineasLeidas; }
+
+        public long getMedicionesAplicadas() { return medicionesAplicadas; }
+
+        /**
+         * @return Mediciones válidas que el manager no aplicó (indicador eliminado durante la importación)
+         */
+        public long getMedicionesDescartadas() { return medicionesDescartadas; }
+
+        public long getLineasConError() { return lineasConError; }
+
+        /**
+         * @return Detalle de las primeras {@value #MAX_ERRORES_DETALLE} líneas con error
+         */
+        public List<ErrorLinea> getErrores() { return errores; }
+
+        public long getMilisegundos() { return milisegundos; }
+
+        public double getLineasPorSegundo() {
+            return milisegundos == 0 ? lineasLeidas * 1000.0 : lineasLeidas * 1000.0 / milisegundos;
+        }
+
+        public boolean isCancelado() { return cancelado; }
+
+        /**
+         * @return Motivo por el que se interrumpió la importación, o null si terminó normalmente
+         */
+        public String getFalla() { return falla; }
+
+        public boolean isCompleto() { return !cancelado && falla == null; }
+
+        public String getResumen() {
+            StringBuilder resumen = new StringBuilder();
+            resumen.append(String.format("%s: %,d líneas leídas, %,d mediciones aplicadas, %,d líneas con error",
+                    archivo, lineasLeidas, medicionesAplicadas, lineasConError));
+            if (medicionesDescartadas > 0) {
+                resumen.append(String.format(", %,d descartadas", medicionesDescartadas));
+            }
+            resumen.append(String.format(" en %.1f s (%,.0f líneas/s)", milisegundos / 1000.0, getLineasPorSegundo()));
+            if (cancelado) resumen.append(" - cancelada");
+            if (falla != null) resumen.append(" - ").append(falla);
+            return resumen.toString();
+        }
+
+        @Override
+        public String toString() {
+            return getResumen();
+        }
+    }
+}
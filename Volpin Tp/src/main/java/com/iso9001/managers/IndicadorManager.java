@@ -1,169 +1,332 @@
 package com.iso9001.managers;
 
 import com.iso9001.models.Indicador;
+import com.iso9001.models.Medicion;
+import com.iso9001.enums.EstadoSemaforo;
+import com.iso9001.enums.Granularidad;
+import com.iso9001.enums.TipoCambio;
 import com.iso9001.enums.TipoIndicador;
+import com.iso9001.utils.AlmacenSeries;
+import com.iso9001.repositorios.Repositorio;
+import com.iso9001.repositorios.Repositorios;
 import com.iso9001.utils.DatabaseHelper;
+import com.iso9001.utils.SerieTemporal;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
 public class IndicadorManager {
-    private List<Indicador> indicadores;
+    private Map<String, Indicador> indicadores;
+    private final IndiceSecundario<String, Indicador> indicePorProceso;
+    private final IndiceSecundario<TipoIndicador, Indicador> indicePorTipo;
+    // Contadores del semáforo: se recalcula solo el indicador que cambió
+    private final IndiceSecundario<EstadoSemaforo, Indicador> indicePorEstado;
+    private final Repositorio<Indicador> repositorio;
+    // Las series tienen su propia sincronización y no necesitan el cerrojo
+    private final AlmacenSeries series;
+    private final CerrojoManager cerrojo = new CerrojoManager();
+    private final BusEventos eventos = new BusEventos();
+    // Lista completa publicada para leer sin copiar
+    private final VistaPublicada<Indicador> vistaTodos;
 
     public IndicadorManager() {
-        this.indicadores = new ArrayList<>();
+        this.indicadores = new LinkedHashMap<>();
+        this.vistaTodos = new VistaPublicada<>(cerrojo, indicadores.values());
+        this.indicePorProceso = IndiceSecundario.porClave(Indicador::getProcesoId, Indicador::getId);
+        this.indicePorTipo = IndiceSecundario.porEnum(TipoIndicador.class, Indicador::getTipo, Indicador::getId);
+        this.indicePorEstado = IndiceSecundario.porEnum(EstadoSemaforo.class, Indicador::getEstadoSemaforo, Indicador::getId);
+        this.series = DatabaseHelper.abrirAlmacenSeries();
+        this.repositorio = Repositorios.indicadores(() -> new ArrayList<>(indicadores.values()));
         cargarIndicadores();
     }
 
     // Operaciones CRUD
     public void agregarIndicador(Indicador indicador) {
-        if (indicador != null && !existeIndicador(indicador.getId())) {
-            indicadores.add(indicador);
-            guardarCambios();
-            System.out.println("Indicador agregado: " + indicador.getNombre());
-        } else {
-            System.err.println("Error: Indicador nulo o ID ya existe");
-        }
+        cerrojo.escribir(() -> {
+            if (indicador != null && !existeIndicador(indicador.getId())) {
+                indexar(indicador);
+                guardarCambios(indicador);
+                eventos.publicar(TipoCambio.INDICADOR_MODIFICADO, indicador.getId());
+                System.out.println("Indicador agregado: " + indicador.getNombre());
+            } else {
+                System.err.println("Error: Indicador nulo o ID ya existe");
+            }
+        });
     }
 
     public Indicador obtenerIndicador(String id) {
-        return indicadores.stream()
-                .filter(i -> i.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        return cerrojo.leer(() -> indicadores.get(id));
     }
 
+    /**
+     * @return Vista de solo lectura de todos los indicadores, sin copiar: se reutiliza
+     *         entre llamadas hasta que se agrega, reemplaza o elimina alguno
+     */
     public List<Indicador> obtenerTodosIndicadores() {
-        return new ArrayList<>(indicadores);
+        return vistaTodos.obtener();
     }
 
     public void actualizarIndicador(Indicador indicador) {
         if (indicador != null) {
-            for (int i = 0; i < indicadores.size(); i++) {
-                if (indicadores.get(i).getId().equals(indicador.getId())) {
-                    indicadores.set(i, indicador);
-                    guardarCambios();
+            cerrojo.escribir(() -> {
+                if (indicadores.containsKey(indicador.getId())) {
+                    indexar(indicador);
+                    guardarCambios(indicador);
                     System.out.println("Indicador actualizado: " + indicador.getNombre());
                     return;
                 }
-            }
-            System.err.println("Indicador no encontrado para actualizar");
+                System.err.println("Indicador no encontrado para actualizar");
+            });
         }
     }
 
     public void eliminarIndicador(String id) {
-        boolean eliminado = indicadores.removeIf(i -> i.getId().equals(id));
-        if (eliminado) {
-            guardarCambios();
-            System.out.println("Indicador eliminado: " + id);
-        }
+        cerrojo.escribir(() -> {
+            boolean eliminado = desindexar(id);
+            if (eliminado) {
+                repositorio.eliminar(id);
+                series.eliminar(id);
+                eventos.publicar(TipoCambio.INDICADOR_MODIFICADO, id);
+                System.out.println("Indicador eliminado: " + id);
+            }
+        });
     }
 
     // Búsquedas y filtros
     public List<Indicador> buscarPorNombre(String nombre) {
-        return indicadores.stream()
+        return cerrojo.leer(() -> indicadores.values().stream()
                 .filter(i -> i.getNombre().toLowerCase().contains(nombre.toLowerCase()))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     public List<Indicador> obtenerPorTipo(TipoIndicador tipo) {
-        return indicadores.stream()
-                .filter(i -> i.getTipo() == tipo)
-                .collect(Collectors.toList());
+        return cerrojo.leer(() -> indicePorTipo.obtener(tipo));
     }
 
     public List<Indicador> obtenerIndicadoresPorProceso(String procesoId) {
-        return indicadores.stream()
-                .filter(i -> i.getProcesoId().equals(procesoId))
-                .collect(Collectors.toList());
+        return cerrojo.leer(() -> indicePorProceso.obtener(procesoId));
+    }
+
+    public int contarIndicadoresPorProceso(String procesoId) {
+        return cerrojo.leer(() -> indicePorProceso.contar(procesoId));
+    }
+
+    public List<Indicador> obtenerIndicadoresPorEstado(EstadoSemaforo estado) {
+        return cerrojo.leer(() -> indicePorEstado.obtener(estado));
     }
 
-    public List<Indicador> obtenerIndicadoresPorEstado(String estado) {
-        return indicadores.stream()
-                .filter(i -> estado.equals(i.getEstadoSemaforo()))
-                .collect(Collectors.toList());
+    /**
+     * @return Ids distintos de los procesos con algún indicador en el estado dado;
+     *         cuesta en proporción a los indicadores en ese estado
+     */
+    public Set<String> obtenerProcesosConIndicadoresEnEstado(EstadoSemaforo estado) {
+        return cerrojo.leer(() -> {
+            Set<String> procesoIds = new LinkedHashSet<>();
+            indicePorEstado.recorrer(estado, indicador -> {
+                if (indicador.getProcesoId() != null) {
+                    procesoIds.add(indicador.getProcesoId());
+                }
+            });
+            return procesoIds;
+        });
     }
 
     // Análisis y métricas
-    public Map<String, Long> obtenerEstadisticasPorEstado() {
-        Map<String, Long> estadisticas = new HashMap<>();
-        estadisticas.put("VERDE", indicadores.stream().filter(i -> "VERDE".equals(i.getEstadoSemaforo())).count());
-        estadisticas.put("AMARILLO", indicadores.stream().filter(i -> "AMARILLO".equals(i.getEstadoSemaforo())).count());
-        estadisticas.put("ROJO", indicadores.stream().filter(i -> "ROJO".equals(i.getEstadoSemaforo())).count());
-        return estadisticas;
+    public Map<EstadoSemaforo, Long> obtenerEstadisticasPorEstado() {
+        return cerrojo.leer(() -> {
+            Map<EstadoSemaforo, Long> estadisticas = new EnumMap<>(EstadoSemaforo.class);
+            for (EstadoSemaforo estado : EstadoSemaforo.values()) {
+                estadisticas.put(estado, (long) indicePorEstado.contar(estado));
+            }
+            return estadisticas;
+        });
     }
 
     public Map<TipoIndicador, Long> obtenerEstadisticasPorTipo() {
-        return indicadores.stream()
-                .collect(Collectors.groupingBy(Indicador::getTipo, Collectors.counting()));
+        return cerrojo.leer(() -> {
+            Map<TipoIndicador, Long> estadisticas = new EnumMap<>(TipoIndicador.class);
+            for (TipoIndicador tipo : indicePorTipo.claves()) {
+                estadisticas.put(tipo, (long) indicePorTipo.contar(tipo));
+            }
+            return estadisticas;
+        });
     }
 
     public double calcularPorcentajeCumplimientoGeneral() {
-        if (indicadores.isEmpty()) return 0.0;
+        return cerrojo.leer(() -> {
+            if (indicadores.isEmpty()) return 0.0;
 
-        long indicadoresEnObjetivo = indicadores.stream()
-                .filter(Indicador::estaDentroObjetivo)
-                .count();
+            long indicadoresEnObjetivo = indicadores.values().stream()
+                    .filter(Indicador::estaDentroObjetivo)
+                    .count();
 
-        return (indicadoresEnObjetivo * 100.0) / indicadores.size();
+            return (indicadoresEnObjetivo * 100.0) / indicadores.size();
+        });
     }
 
     public List<Indicador> obtenerIndicadoresCriticos() {
-        return indicadores.stream()
-                .filter(i -> "ROJO".equals(i.getEstadoSemaforo()))
+        return cerrojo.leer(() -> indicePorEstado.obtener(EstadoSemaforo.ROJO).stream()
                 .sorted((i1, i2) -> Double.compare(
                         Math.abs(i2.getValorActual() - i2.getValorObjetivo()) / i2.getValorObjetivo(),
                         Math.abs(i1.getValorActual() - i1.getValorObjetivo()) / i1.getValorObjetivo()
                 ))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     public List<Indicador> obtenerIndicadoresConMejorTendencia() {
-        return indicadores.stream()
+        return cerrojo.leer(() -> indicadores.values().stream()
                 .filter(i -> i.calcularTendencia() > 0)
                 .sorted((i1, i2) -> Double.compare(i2.calcularTendencia(), i1.calcularTendencia()))
                 .limit(5)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     // Operaciones de medición
     public void registrarMedicion(String indicadorId, double valor) {
-        Indicador indicador = obtenerIndicador(indicadorId);
-        if (indicador != null) {
-            indicador.registrarMedicion(valor);
-            actualizarIndicador(indicador);
-            System.out.println("Medición registrada para: " + indicador.getNombre());
-        } else {
-            System.err.println("Indicador no encontrado: " + indicadorId);
+        cerrojo.escribir(() -> {
+            Indicador indicador = indicadores.get(indicadorId);
+            if (indicador != null) {
+                LocalDate hoy = LocalDate.now();
+                boolean vigente = indicador.registrarMedicion(valor, hoy);
+                series.agregar(indicadorId, hoy, valor);
+                if (!vigente) {
+                    // La última medición tiene fecha futura: la de hoy se intercala en el historial
+                    series.cargarHistorial(indicadorId, indicador.getHistorial());
+                }
+                actualizarIndicador(indicador);
+                eventos.publicar(TipoCambio.INDICADOR_MEDIDO, indicadorId);
+                System.out.println("Medición registrada para: " + indicador.getNombre());
+            } else {
+                System.err.println("Indicador no encontrado: " + indicadorId);
+            }
+        });
+    }
+
+    /**
+     * Registra un lote de mediciones (colectores de datos, importaciones) en una
+     * sola pasada: cada indicador recibe sus mediciones en orden de fecha, su
+     * serie se escribe de una vez, su semáforo se recalcula una vez y todos los
+     * indicadores afectados se guardan con una única escritura agrupada.
+     * Las mediciones anteriores a la última de un indicador (cargas atrasadas)
+     * solo se agregan a su serie: el valor vigente sigue siendo el más reciente.
+     * @param mediciones Mediciones en cualquier orden, de uno o varios indicadores
+     * @return Cantidad de mediciones aplicadas; se descartan las de indicadores
+     *         inexistentes y las que no tienen fecha
+     */
+    public int registrarMediciones(List<Medicion> mediciones) {
+        // El agrupado no toca el estado del manager, así que se arma antes de tomar el cerrojo
+        Map<String, List<Medicion>> porIndicador = new LinkedHashMap<>();
+        int sinFecha = 0;
+        for (Medicion medicion : mediciones) {
+            if (medicion.getFecha() == null) {
+                sinFecha++;
+                continue;
+            }
+            porIndicador.computeIfAbsent(medicion.getIndicadorId(), id -> new ArrayList<>()).add(medicion);
+        }
+        for (List<Medicion> lote : porIndicador.values()) {
+            lote.sort(Comparator.comparing(Medicion::getFecha));
+        }
+        int descartadas = sinFecha;
+
+        return cerrojo.escribirYObtener(() -> {
+            List<Indicador> afectados = new ArrayList<>(porIndicador.size());
+            int aplicadas = 0;
+            int sinIndicador = 0;
+            for (Map.Entry<String, List<Medicion>> grupo : porIndicador.entrySet()) {
+                Indicador indicador = indicadores.get(grupo.getKey());
+                List<Medicion> lote = grupo.getValue();
+                if (indicador == null) {
+                    sinIndicador += lote.size();
+                    continue;
+                }
+                boolean atrasadas = indicador.registrarMediciones(lote);
+                agregarASerie(indicador.getId(), lote);
+                if (atrasadas) {
+                    // El historial en memoria solo avanza: se rearma desde la serie, ya ordenada por fecha
+                    series.cargarHistorial(indicador.getId(), indicador.getHistorial());
+                }
+                indexar(indicador);
+                afectados.add(indicador);
+                aplicadas += lote.size();
+            }
+            repositorio.guardarTodos(afectados);
+            for (Indicador indicador : afectados) {
+                eventos.publicar(TipoCambio.INDICADOR_MEDIDO, indicador.getId());
+            }
+
+            System.out.println("Mediciones registradas: " + aplicadas + " en " + afectados.size() + " indicadores");
+            if (descartadas + sinIndicador > 0) {
+                System.err.println("Mediciones descartadas: " + (descartadas + sinIndicador)
+                        + " (" + sinIndicador + " de indicadores inexistentes)");
+            }
+            return aplicadas;
+        });
+    }
+
+    private void agregarASerie(String indicadorId, List<Medicion> lote) {
+        int[] dias = new int[lote.size()];
+        double[] valores = new double[lote.size()];
+        for (int i = 0; i < lote.size(); i++) {
+            dias[i] = (int) lote.get(i).getFecha().toEpochDay();
+            valores[i] = lote.get(i).getValor();
         }
+        series.agregarTodas(indicadorId, dias, valores, lote.size());
     }
 
     public void actualizarObjetivo(String indicadorId, double nuevoObjetivo) {
-        Indicador indicador = obtenerIndicador(indicadorId);
-        if (indicador != null) {
-            indicador.setValorObjetivo(nuevoObjetivo);
-            actualizarIndicador(indicador);
-            System.out.println("Objetivo actualizado para: " + indicador.getNombre());
-        }
+        cerrojo.escribir(() -> {
+            Indicador indicador = indicadores.get(indicadorId);
+            if (indicador != null) {
+                indicador.setValorObjetivo(nuevoObjetivo);
+                actualizarIndicador(indicador);
+                // El objetivo cambia el semáforo y el cumplimiento aunque no haya mediciones nuevas
+                eventos.publicar(TipoCambio.INDICADOR_MODIFICADO, indicadorId);
+                System.out.println("Objetivo actualizado para: " + indicador.getNombre());
+            }
+        });
+    }
+
+    // Historial de largo plazo
+    public List<SerieTemporal.Punto> obtenerEvolucion(String indicadorId, LocalDate desde, LocalDate hasta,
+                                                      Granularidad granularidad) {
+        return series.resumir(indicadorId, desde, hasta, granularidad);
+    }
+
+    /**
+     * Tendencia porcentual entre el primer y el último mes con mediciones del período
+     */
+    public double calcularTendenciaPeriodo(String indicadorId, LocalDate desde, LocalDate hasta) {
+        List<SerieTemporal.Punto> puntos = series.resumir(indicadorId, desde, hasta, Granularidad.MENSUAL);
+        if (puntos.size() < 2) return 0.0;
+
+        double valorInicial = puntos.get(0).getPromedio();
+        double valorFinal = puntos.get(puntos.size() - 1).getPromedio();
+
+        if (valorInicial == 0) return 0.0;
+        return ((valorFinal - valorInicial) / valorInicial) * 100;
     }
 
     // Alertas y notificaciones
     public List<Indicador> obtenerIndicadoresConAlertas() {
-        return indicadores.stream()
-                .filter(i -> !"VERDE".equals(i.getEstadoSemaforo()))
-                .collect(Collectors.toList());
+        return cerrojo.leer(() -> {
+            List<Indicador> conAlertas = indicePorEstado.obtener(EstadoSemaforo.AMARILLO);
+            conAlertas.addAll(indicePorEstado.obtener(EstadoSemaforo.ROJO));
+            return conAlertas;
+        });
     }
 
     public List<Indicador> obtenerIndicadoresSinMedicionReciente(int diasLimite) {
         LocalDate fechaLimite = LocalDate.now().minusDays(diasLimite);
-        return indicadores.stream()
-                .filter(i -> i.getFechaUltimaMedicion().isBefore(fechaLimite))
-                .collect(Collectors.toList());
+        return cerrojo.leer(() -> indicadores.values().stream()
+                .filter(i -> i.getFechaUltimaMedicion() == null || i.getFechaUltimaMedicion().isBefore(fechaLimite))
+                .collect(Collectors.toList()));
     }
 
     // Validaciones
     public boolean existeIndicador(String id) {
-        return indicadores.stream().anyMatch(i -> i.getId().equals(id));
+        return cerrojo.leer(() -> indicadores.containsKey(id));
     }
 
     public boolean validarIndicador(Indicador indicador) {
@@ -177,17 +340,22 @@ public class IndicadorManager {
 
     // Reportes
     public String generarReporteIndicadores() {
+        // Todas las cifras del reporte salen del mismo estado
+        return cerrojo.leer(this::armarReporteIndicadores);
+    }
+
+    private String armarReporteIndicadores() {
         StringBuilder reporte = new StringBuilder();
         reporte.append("REPORTE DE INDICADORES\n");
         reporte.append("=".repeat(30)).append("\n");
         reporte.append("Total indicadores: ").append(indicadores.size()).append("\n");
         reporte.append("Cumplimiento general: ").append(String.format("%.1f%%", calcularPorcentajeCumplimientoGeneral())).append("\n\n");
 
-        Map<String, Long> estadisticas = obtenerEstadisticasPorEstado();
+        Map<EstadoSemaforo, Long> estadisticas = obtenerEstadisticasPorEstado();
         reporte.append("Por estado:\n");
-        reporte.append("- Verde: ").append(estadisticas.get("VERDE")).append("\n");
-        reporte.append("- Amarillo: ").append(estadisticas.get("AMARILLO")).append("\n");
-        reporte.append("- Rojo: ").append(estadisticas.get("ROJO")).append("\n\n");
+        reporte.append("- Verde: ").append(estadisticas.get(EstadoSemaforo.VERDE)).append("\n");
+        reporte.append("- Amarillo: ").append(estadisticas.get(EstadoSemaforo.AMARILLO)).append("\n");
+        reporte.append("- Rojo: ").append(estadisticas.get(EstadoSemaforo.ROJO)).append("\n\n");
 
         List<Indicador> criticos = obtenerIndicadoresCriticos();
         if (!criticos.isEmpty()) {
@@ -205,28 +373,73 @@ public class IndicadorManager {
 
     // Métodos de persistencia
     private void cargarIndicadores() {
-        this.indicadores = DatabaseHelper.cargarIndicadores();
+        indicadores.clear();
+        vistaTodos.invalidar();
+        repositorio.cargar(indicador -> {
+            // El historial en memoria se reconstruye desde la serie guardada
+            series.cargarHistorial(indicador.getId(), indicador.getHistorial());
+            indexar(indicador);
+        });
         System.out.println("Indicadores cargados: " + indicadores.size());
     }
 
-    private void guardarCambios() {
-        DatabaseHelper.guardarIndicadores(indicadores);
+    // Mantiene el mapa por id y los índices secundarios en sincronía
+    private void indexar(Indicador indicador) {
+        vistaTodos.reemplazado(indicadores.put(indicador.getId(), indicador), indicador);
+        indicePorProceso.actualizar(indicador);
+        indicePorTipo.actualizar(indicador);
+        indicePorEstado.actualizar(indicador);
+    }
+
+    private boolean desindexar(String id) {
+        if (indicadores.remove(id) == null) return false;
+        vistaTodos.invalidar();
+        indicePorProceso.eliminar(id);
+        indicePorTipo.eliminar(id);
+        indicePorEstado.eliminar(id);
+        return true;
+    }
+
+    private void guardarCambios(Indicador indicador) {
+        repositorio.guardar(indicador);
+    }
+
+    /**
+     * Cierra el almacenamiento dejando los cambios compactados; se invoca al salir
+     */
+    public void cerrar() {
+        // Con el cerrojo de escritura la compactación no se cruza con una modificación en curso
+        cerrojo.escribir(() -> {
+            try {
+                repositorio.close();
+            } catch (IOException e) {
+                System.err.println("Error al cerrar indicadores: " + e.getMessage());
+            }
+            series.close();
+        });
+    }
+
+    /**
+     * @return Avisos de mediciones registradas para el dashboard
+     */
+    public BusEventos getEventos() {
+        return eventos;
     }
 
     // Getters para estadísticas
     public int getTotalIndicadores() {
-        return indicadores.size();
+        return cerrojo.leer(indicadores::size);
     }
 
     public int getIndicadoresVerde() {
-        return (int) indicadores.stream().filter(i -> "VERDE".equals(i.getEstadoSemaforo())).count();
+        return cerrojo.leer(() -> indicePorEstado.contar(EstadoSemaforo.VERDE));
     }
 
     public int getIndicadoresAmarillo() {
-        return (int) indicadores.stream().filter(i -> "AMARILLO".equals(i.getEstadoSemaforo())).count();
+        return cerrojo.leer(() -> indicePorEstado.contar(EstadoSemaforo.AMARILLO));
     }
 
     public int getIndicadoresRojo() {
-        return (int) indicadores.stream().filter(i -> "ROJO".equals(i.getEstadoSemaforo())).count();
+        return cerrojo.leer(() -> indicePorEstado.contar(EstadoSemaforo.ROJO));
     }
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+package com.iso9001.managers;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Índice secundario mantenido por los managers: agrupa las entidades por una
+ * clave (tipo, estado, proceso, responsable...) para que las consultas por esa
+ * clave cuesten en proporción al resultado y no al total de entidades.
+ *
+ * Recuerda la clave con la que se indexó cada id, así que al actualizar una
+ * entidad cuya clave cambió la reubica sin recorrer los demás grupos. Las
+ * entidades con clave nula no se indexan.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+class IndiceSecundario<K, T> {
+    private final Function<T, K> extractorClave;
+    private final Function<T, String> extractorId;
+    private final Map<K, Map<String, T>> grupos;
+    private final Map<String, K> clavePorId = new HashMap<>();
+
+    private IndiceSecundario(Map<K, Map<String, T>> grupos, Function<T, K> extractorClave,
+                             Function<T, String> extractorId) {
+        this.grupos = grupos;
+        this.extractorClave = extractorClave;
+        this.extractorId = extractorId;
+    }
+
+    /**
+     * Índice respaldado por EnumMap, para claves enumeradas
+     */
+    static <K extends Enum<K>, T> IndiceSecundario<K, T> porEnum(Class<K> tipoClave, Function<T, K> extractorClave,
+                                                                  Function<T, String> extractorId) {
+        return new IndiceSecundario<>(new EnumMap<>(tipoClave), extractorClave, extractorId);
+    }
+
+    /**
+     * Índice respaldado por HashMap, para claves foráneas o de texto
+     */
+    static <K, T> IndiceSecundario<K, T> porClave(Function<T, K> extractorClave, Function<T, String> extractorId) {
+        return new IndiceSecundario<>(new HashMap<>(), extractorClave, extractorId);
+    }
+
+    /**
+     * Agrega la entidad o la reubica si su clave cambió desde la última vez
+     * @param entidad Entidad con su estado actual
+     */
+    void actualizar(T entidad) {
+        String id = extractorId.apply(entidad);
+        K claveNueva = extractorClave.apply(entidad);
+        K claveAnterior = clavePorId.get(id);
+
+        if (claveAnterior != null && !claveAnterior.equals(claveNueva)) {
+            quitarDeGrupo(claveAnterior, id);
+        }
+
+        if (claveNueva == null) {
+            clavePorId.remove(id);
+            return;
+        }
+
+        grupos.computeIfAbsent(claveNueva, k -> new LinkedHashMap<>()).put(id, entidad);
+        clavePorId.put(id, claveNueva);
+    }
+
+    /**
+     * Quita la entidad del índice
+     * @param id Identificador de la entidad
+     */
+    void eliminar(String id) {
+        K clave = clavePorId.remove(id);
+        if (clave != null) {
+            quitarDeGrupo(clave, id);
+        }
+    }
+
+    private void quitarDeGrupo(K clave, String id) {
+        Map<String, T> grupo = grupos.get(clave);
+        if (grupo != null) {
+            grupo.remove(id);
+            if (grupo.isEmpty()) {
+                grupos.remove(clave);
+            }
+        }
+    }
+
+    /**
+     * @return Entidades con la clave indicada, en orden de inserción
+     */
+    List<T> obtener(K clave) {
+        Map<String, T> grupo = clave != null ? grupos.get(clave) : null;
+        return grupo != null ? new ArrayList<>(grupo.values()) : new ArrayList<>();
+    }
+
+    /**
+     * Recorre las entidades con la clave indicada sin copiar el grupo
+     */
+    void recorrer(K clave, Consumer<T> consumidor) {
+        Map<String, T> grupo = clave != null ? grupos.get(clave) : null;
+        if (grupo != null) {
+            grupo.values().forEach(consumidor);
+        }
+    }
+
+    int contar(K clave) {
+        Map<String, T> grupo = clave != null ? grupos.get(clave) : null;
+        return grupo != null ? grupo.size() : 0;
+    }
+
+    /**
+     * @return Claves distintas presentes en el índice
+     */
+    Set<K> claves() {
+        return Collections.unmodifiableSet(grupos.keySet());
+    }
+
+    void limpiar() {
+        grupos.clear();
+        clavePorId.clear();
+    }
+}
@@ -0,0 +1,212 @@
+package com.iso9001.managers;
+
+import com.iso9001.utils.TextoUtils;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Índice invertido de texto mantenido por los managers: para cada palabra
+ * (normalizada, sin acentos) guarda las entidades donde aparece, así una
+ * búsqueda cuesta en proporción a las coincidencias y no al volumen de texto.
+ *
+ * Cada campo indexado tiene un peso; el puntaje de una entidad suma el peso
+ * de cada aparición de la palabra. El puntaje se guarda por campo, así una
+ * búsqueda limitada a un campo ordena solo por lo encontrado en él. Las palabras se guardan ordenadas, de modo
+ * que cada término de la consulta también encuentra las palabras que empiezan
+ * con él ("audit" encuentra "auditoria" y "auditor"). Con varios términos solo
+ * se devuelven las entidades que los contienen a todos.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+class IndiceTexto<T> {
+    static final int TODOS_LOS_CAMPOS = -1;
+
+    private final Function<T, String> extractorId;
+    private final List<Campo<T>> campos = new ArrayList<>();
+    private final NavigableMap<String, Map<String, Aparicion>> apariciones = new TreeMap<>();
+    private final Map<String, Set<String>> palabrasPorId = new HashMap<>();
+    private final Map<String, T> entidades = new HashMap<>();
+
+    private static class Campo<T> {
+        final Function<T, ? extends Collection<String>> textos;
+        final int peso;
+
+        Campo(Function<T, ? extends Collection<String>> textos, int peso) {
+            this.textos = textos;
+            this.peso = peso;
+        }
+    }
+
+    // Aparición de una palabra en una entidad
+    private static class Aparicion {
+        final int[] puntajePorCampo;
+        int puntaje;  // Suma de todos los campos
+        int campos;   // Máscara de bits de los campos donde aparece
+
+        Aparicion(int cantidadCampos) {
+            this.puntajePorCampo = new int[cantidadCampos];
+        }
+
+        int puntaje(int mascara) {
+            if (mascara == TODOS_LOS_CAMPOS) return puntaje;
+            int total = 0;
+            for (int i = 0; i < puntajePorCampo.length; i++) {
+                if ((mascara & (1 << i)) != 0) {
+                    total += puntajePorCampo[i];
+                }
+            }
+            return total;
+        }
+    }
+
+    IndiceTexto(Function<T, String> extractorId) {
+        this.extractorId = extractorId;
+    }
+
+    /**
+     * Agrega un campo de texto al índice
+     * @param texto Texto del campo (puede ser null)
+     * @param peso Peso de cada aparición en el puntaje
+     * @return Número de campo, para buscar solo en él
+     */
+    int campo(Function<T, String> texto, int peso) {
+        return campoMultiple(entidad -> Collections.singletonList(texto.apply(entidad)), peso);
+    }
+
+    /**
+     * Agrega un campo formado por varios textos (por ejemplo, los hallazgos)
+     */
+    int campoMultiple(Function<T, ? extends Collection<String>> textos, int peso) {
+        if (campos.size() == Integer.SIZE) {
+            throw new IllegalStateException("El índice admite hasta " + Integer.SIZE + " campos");
+        }
+        campos.add(new Campo<>(textos, peso));
+        return campos.size() - 1;
+    }
+
+    /**
+     * Indexa la entidad completa, reemplazando lo indexado antes para su id
+     */
+    void actualizar(T entidad) {
+        String id = extractorId.apply(entidad);
+        eliminar(id);
+        entidades.put(id, entidad);
+        for (int i = 0; i < campos.size(); i++) {
+            Collection<String> textos = campos.get(i).textos.apply(entidad);
+            if (textos == null) continue;
+            for (String texto : textos) {
+                indexarTexto(id, i, texto);
+            }
+        }
+    }
+
+    /**
+     * Indexa solo un texto nuevo de la entidad, sin volver a procesar el resto
+     * @param entidad Entidad ya indexada (si no lo está, se indexa completa)
+     * @param campo Campo al que pertenece el texto
+     * @param texto Texto agregado
+     */
+    void agregarTexto(T entidad, int campo, String texto) {
+        String id = extractorId.apply(entidad);
+        if (!entidades.containsKey(id)) {
+            actualizar(entidad);
+            return;
+        }
+        indexarTexto(id, campo, texto);
+    }
+
+    void eliminar(String id) {
+        entidades.remove(id);
+        Set<String> palabras = palabrasPorId.remove(id);
+        if (palabras == null) return;
+
+        for (String palabra : palabras) {
+            Map<String, Aparicion> porId = apariciones.get(palabra);
+            if (porId != null) {
+                porId.remove(id);
+                if (porId.isEmpty()) {
+                    apariciones.remove(palabra);
+                }
+            }
+        }
+    }
+
+    private void indexarTexto(String id, int campo, String texto) {
+        int peso = campos.get(campo).peso;
+        for (String palabra : TextoUtils.tokenizar(texto)) {
+            Aparicion aparicion = apariciones.computeIfAbsent(palabra, p -> new HashMap<>())
+                    .computeIfAbsent(id, i -> new Aparicion(campos.size()));
+            aparicion.puntajePorCampo[campo] += peso;
+            aparicion.puntaje += peso;
+            aparicion.campos |= 1 << campo;
+            palabrasPorId.computeIfAbsent(id, i -> new HashSet<>()).add(palabra);
+        }
+    }
+
+    /**
+     * Busca en todos los campos
+     * @return Entidades ordenadas de mayor a menor puntaje
+     */
+    List<T> buscar(String consulta) {
+        return buscar(consulta, TODOS_LOS_CAMPOS);
+    }
+
+    /**
+     * @param consulta Una o más palabras (o comienzos de palabra)
+     * @param campo Campo donde buscar, o TODOS_LOS_CAMPOS
+     * @return Entidades que contienen todos los términos, de mayor a menor puntaje
+     */
+    List<T> buscar(String consulta, int campo) {
+        List<String> terminos = TextoUtils.tokenizarConsulta(consulta);
+        if (terminos.isEmpty()) return new ArrayList<>();
+        int mascara = campo == TODOS_LOS_CAMPOS ? TODOS_LOS_CAMPOS : 1 << campo;
+
+        Map<String, Integer> puntajes = null;
+        for (String termino : new LinkedHashSet<>(terminos)) {
+            Map<String, Integer> delTermino = puntuarTermino(termino, mascara);
+            if (puntajes == null) {
+                puntajes = delTermino;
+            } else {
+                puntajes.keySet().retainAll(delTermino.keySet());
+                puntajes.replaceAll((id, puntaje) -> puntaje + delTermino.get(id));
+            }
+            if (puntajes.isEmpty()) break;
+        }
+
+        List<Map.Entry<String, Integer>> ordenados = new ArrayList<>(puntajes.entrySet());
+        ordenados.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        List<T> resultado = new ArrayList<>(ordenados.size());
+        for (Map.Entry<String, Integer> entrada : ordenados) {
+            resultado.add(entidades.get(entrada.getKey()));
+        }
+        return resultado;
+    }
+
+    // Suma las apariciones, dentro de los campos de la máscara, de las palabras que
+    // empiezan con el término; la palabra exacta vale el doble que una que solo
+    // comparte el comienzo
+    private Map<String, Integer> puntuarTermino(String termino, int mascara) {
+        Map<String, Integer> puntajes = new HashMap<>();
+        SortedMap<String, Map<String, Aparicion>> conPrefijo =
+                apariciones.subMap(termino, termino + Character.MAX_VALUE);
+        for (Map.Entry<String, Map<String, Aparicion>> palabra : conPrefijo.entrySet()) {
+            int factor = palabra.getKey().equals(termino) ? 2 : 1;
+            for (Map.Entry<String, Aparicion> aparicion : palabra.getValue().entrySet()) {
+                if ((aparicion.getValue().campos & mascara) != 0) {
+                    puntajes.merge(aparicion.getKey(), aparicion.getValue().puntaje(mascara) * factor, Integer::sum);
+                }
+            }
+        }
+        return puntajes;
+    }
+
+    void limpiar() {
+        apariciones.clear();
+        palabrasPorId.clear();
+        entidades.clear();
+    }
+}
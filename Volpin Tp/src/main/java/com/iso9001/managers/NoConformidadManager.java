@@ -4,220 +4,311 @@ import com.iso9001.models.NoConformidad;
 import com.iso9001.models.AccionCorrectiva;
 import com.iso9001.enums.EstadoNoConformidad;
 import com.iso9001.enums.Prioridad;
-import com.iso9001.utils.DatabaseHelper;
+import com.iso9001.enums.TipoCambio;
+import com.iso9001.repositorios.Repositorio;
+import com.iso9001.repositorios.Repositorios;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
 public class NoConformidadManager {
-    private List<NoConformidad> noConformidades;
-    private List<AccionCorrectiva> accionesCorrectivas;
+    private Map<String, NoConformidad> noConformidades;
+    private final Map<String, AccionCorrectiva> accionesCorrectivas;
+    private final IndiceSecundario<String, AccionCorrectiva> indiceAccionesPorNoConformidad;
+    private final IndiceSecundario<EstadoNoConformidad, NoConformidad> indicePorEstado;
+    private final IndiceSecundario<Prioridad, NoConformidad> indicePorPrioridad;
+    private final IndiceSecundario<String, NoConformidad> indicePorProceso;
+    private final IndiceSecundario<String, NoConformidad> indicePorResponsableDeteccion;
+    private final IndiceSecundario<String, NoConformidad> indicePorResponsableCorreccion;
+    private final IndiceTexto<NoConformidad> indiceTexto;
+    private final int campoTitulo;
+    private final Repositorio<NoConformidad> repositorio;
+    private final Repositorio<AccionCorrectiva> repositorioAcciones;
+    private final CerrojoManager cerrojo = new CerrojoManager();
+    private final BusEventos eventos = new BusEventos();
+    // Lista completa publicada para leer sin copiar
+    private final VistaPublicada<NoConformidad> vistaTodas;
 
     public NoConformidadManager() {
-        this.noConformidades = new ArrayList<>();
-        this.accionesCorrectivas = new ArrayList<>();
+        this.noConformidades = new LinkedHashMap<>();
+        this.vistaTodas = new VistaPublicada<>(cerrojo, noConformidades.values());
+        this.indicePorEstado = IndiceSecundario.porEnum(EstadoNoConformidad.class, NoConformidad::getEstado, NoConformidad::getId);
+        this.indicePorPrioridad = IndiceSecundario.porEnum(Prioridad.class, NoConformidad::getPrioridad, NoConformidad::getId);
+        this.indicePorProceso = IndiceSecundario.porClave(NoConformidad::getProcesoAfectado, NoConformidad::getId);
+        this.indicePorResponsableDeteccion = IndiceSecundario.porClave(
+                nc -> nc.getResponsableDeteccion() != null ? nc.getResponsableDeteccion().toLowerCase() : null,
+                NoConformidad::getId);
+        this.indicePorResponsableCorreccion = IndiceSecundario.porClave(
+                nc -> nc.getResponsableCorreccion() != null ? nc.getResponsableCorreccion().toLowerCase() : null,
+                NoConformidad::getId);
+        this.indiceTexto = new IndiceTexto<>(NoConformidad::getId);
+        this.campoTitulo = indiceTexto.campo(NoConformidad::getTitulo, 3);
+        indiceTexto.campo(NoConformidad::getDescripcion, 1);
+        indiceTexto.campo(NoConformidad::getCausaRaiz, 1);
+        indiceTexto.campo(NoConformidad::getObservaciones, 1);
+        this.accionesCorrectivas = new LinkedHashMap<>();
+        this.indiceAccionesPorNoConformidad = IndiceSecundario.porClave(
+                AccionCorrectiva::getNoConformidadId, AccionCorrectiva::getId);
+        this.repositorio = Repositorios.noConformidades(() -> new ArrayList<>(noConformidades.values()));
         cargarNoConformidades();
+        this.repositorioAcciones = Repositorios.accionesCorrectivas(() -> new ArrayList<>(accionesCorrectivas.values()));
+        cargarAccionesCorrectivas();
     }
 
     // Operaciones CRUD para No Conformidades
     public void agregarNoConformidad(NoConformidad noConformidad) {
-        if (noConformidad != null && !existeNoConformidad(noConformidad.getId())) {
-            noConformidades.add(noConformidad);
-            guardarCambios();
-            System.out.println("No conformidad agregada: " + noConformidad.getTitulo());
-        } else {
-            System.err.println("Error: No conformidad nula o ID ya existe");
-        }
+        cerrojo.escribir(() -> {
+            if (noConformidad != null && !existeNoConformidad(noConformidad.getId())) {
+                indexar(noConformidad);
+                guardarCambios(noConformidad);
+                eventos.publicar(TipoCambio.NC_MODIFICADA, noConformidad.getId());
+                System.out.println("No conformidad agregada: " + noConformidad.getTitulo());
+            } else {
+                System.err.println("Error: No conformidad nula o ID ya existe");
+            }
+        });
     }
 
     public NoConformidad obtenerNoConformidad(String id) {
-        return noConformidades.stream()
-                .filter(nc -> nc.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        return cerrojo.leer(() -> noConformidades.get(id));
     }
 
+    /**
+     * @return Vista de solo lectura de todas las no conformidades, sin copiar: se reutiliza
+     *         entre llamadas hasta que se agrega, reemplaza o elimina alguna
+     */
     public List<NoConformidad> obtenerTodasNoConformidades() {
-        return new ArrayList<>(noConformidades);
+        return vistaTodas.obtener();
     }
 
     public void actualizarNoConformidad(NoConformidad noConformidad) {
         if (noConformidad != null) {
-            for (int i = 0; i < noConformidades.size(); i++) {
-                if (noConformidades.get(i).getId().equals(noConformidad.getId())) {
-                    noConformidades.set(i, noConformidad);
-                    guardarCambios();
+            cerrojo.escribir(() -> {
+                if (noConformidades.containsKey(noConformidad.getId())) {
+                    indexar(noConformidad);
+                    guardarCambios(noConformidad);
+                    eventos.publicar(TipoCambio.NC_MODIFICADA, noConformidad.getId());
                     System.out.println("No conformidad actualizada: " + noConformidad.getTitulo());
                     return;
                 }
-            }
-            System.err.println("No conformidad no encontrada para actualizar");
+                System.err.println("No conformidad no encontrada para actualizar");
+            });
         }
     }
 
     public boolean eliminarNoConformidad(String id) {
-        boolean eliminada = noConformidades.removeIf(nc -> nc.getId().equals(id));
-        if (eliminada) {
-            // También eliminar acciones correctivas asociadas
-            accionesCorrectivas.removeIf(ac -> ac.getNoConformidadId().equals(id));
-            guardarCambios();
-            System.out.println("No conformidad eliminada: " + id);
-        }
-        return eliminada;
+        return cerrojo.escribirYObtener(() -> {
+            boolean eliminada = desindexar(id);
+            if (eliminada) {
+                // También eliminar acciones correctivas asociadas
+                for (AccionCorrectiva accion : indiceAccionesPorNoConformidad.obtener(id)) {
+                    desindexarAccion(accion.getId());
+                    repositorioAcciones.eliminar(accion.getId());
+                }
+                repositorio.eliminar(id);
+                eventos.publicar(TipoCambio.NC_MODIFICADA, id);
+                System.out.println("No conformidad eliminada: " + id);
+            }
+            return eliminada;
+        });
     }
 
     // Búsquedas y filtros
     public List<NoConformidad> buscarPorTitulo(String titulo) {
-        return noConformidades.stream()
-                .filter(nc -> nc.getTitulo().toLowerCase().contains(titulo.toLowerCase()))
-                .collect(Collectors.toList());
+        return cerrojo.leer(() -> indiceTexto.buscar(titulo, campoTitulo));
+    }
+
+    /**
+     * Busca palabras (o comienzos de palabra) en título, descripción, causa raíz
+     * y observaciones, sin distinguir acentos
+     * @return No conformidades que contienen todas las palabras, las más relevantes primero
+     */
+    public List<NoConformidad> buscarTexto(String consulta) {
+        return cerrojo.leer(() -> indiceTexto.buscar(consulta));
     }
 
     public List<NoConformidad> obtenerPorEstado(EstadoNoConformidad estado) {
-        return noConformidades.stream()
-                .filter(nc -> nc.getEstado() == estado)
-                .collect(Collectors.toList());
+        return cerrojo.leer(() -> indicePorEstado.obtener(estado));
     }
 
     public List<NoConformidad> obtenerPorPrioridad(Prioridad prioridad) {
-        return noConformidades.stream()
-                .filter(nc -> nc.getPrioridad() == prioridad)
-                .collect(Collectors.toList());
+        return cerrojo.leer(() -> indicePorPrioridad.obtener(prioridad));
     }
 
     public List<NoConformidad> obtenerPorProceso(String procesoId) {
-        return noConformidades.stream()
-                .filter(nc -> nc.getProcesoAfectado().equals(procesoId))
-                .collect(Collectors.toList());
+        return cerrojo.leer(() -> indicePorProceso.obtener(procesoId));
     }
 
     public List<NoConformidad> obtenerPorResponsable(String responsable) {
-        return noConformidades.stream()
-                .filter(nc -> nc.getResponsableDeteccion().toLowerCase().contains(responsable.toLowerCase()) ||
-                        (nc.getResponsableCorreccion() != null &&
-                                nc.getResponsableCorreccion().toLowerCase().contains(responsable.toLowerCase())))
-                .collect(Collectors.toList());
+        // Búsqueda parcial: se recorren solo los responsables distintos, no todas las NC
+        String buscado = responsable.toLowerCase();
+        return cerrojo.leer(() -> {
+            Map<String, NoConformidad> resultado = new LinkedHashMap<>();
+            for (String clave : indicePorResponsableDeteccion.claves()) {
+                if (clave.contains(buscado)) {
+                    indicePorResponsableDeteccion.obtener(clave).forEach(nc -> resultado.put(nc.getId(), nc));
+                }
+            }
+            for (String clave : indicePorResponsableCorreccion.claves()) {
+                if (clave.contains(buscado)) {
+                    indicePorResponsableCorreccion.obtener(clave).forEach(nc -> resultado.put(nc.getId(), nc));
+                }
+            }
+            return new ArrayList<>(resultado.values());
+        });
     }
 
     // Análisis y métricas
     public Map<EstadoNoConformidad, Long> obtenerEstadisticasPorEstado() {
-        return noConformidades.stream()
-                .collect(Collectors.groupingBy(NoConformidad::getEstado, Collectors.counting()));
+        return cerrojo.leer(() -> {
+            Map<EstadoNoConformidad, Long> estadisticas = new EnumMap<>(EstadoNoConformidad.class);
+            for (EstadoNoConformidad estado : indicePorEstado.claves()) {
+                estadisticas.put(estado, (long) indicePorEstado.contar(estado));
+            }
+            return estadisticas;
+        });
     }
 
     public Map<Prioridad, Long> obtenerEstadisticasPorPrioridad() {
-        return noConformidades.stream()
-                .collect(Collectors.groupingBy(NoConformidad::getPrioridad, Collectors.counting()));
+        return cerrojo.leer(() -> {
+            Map<Prioridad, Long> estadisticas = new EnumMap<>(Prioridad.class);
+            for (Prioridad prioridad : indicePorPrioridad.claves()) {
+                estadisticas.put(prioridad, (long) indicePorPrioridad.contar(prioridad));
+            }
+            return estadisticas;
+        });
     }
 
     public List<NoConformidad> obtenerNoConformidadesVencidas() {
-        return noConformidades.stream()
+        return cerrojo.leer(() -> noConformidades.values().stream()
                 .filter(NoConformidad::estaVencida)
                 .sorted((nc1, nc2) -> Long.compare(nc1.diasParaVencimiento(), nc2.diasParaVencimiento()))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     public List<NoConformidad> obtenerNoConformidadesPorVencer(int diasAnticipacion) {
-        return noConformidades.stream()
+        return cerrojo.leer(() -> noConformidades.values().stream()
                 .filter(nc -> !nc.estaVencida() && nc.diasParaVencimiento() <= diasAnticipacion)
                 .sorted((nc1, nc2) -> Long.compare(nc1.diasParaVencimiento(), nc2.diasParaVencimiento()))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     public double calcularTiempoPromedioCierre() {
-        List<NoConformidad> cerradas = obtenerPorEstado(EstadoNoConformidad.CERRADA);
-        if (cerradas.isEmpty()) return 0.0;
+        return cerrojo.leer(() -> {
+            List<NoConformidad> cerradas = obtenerPorEstado(EstadoNoConformidad.CERRADA);
+            if (cerradas.isEmpty()) return 0.0;
 
-        return cerradas.stream()
-                .filter(nc -> nc.getFechaCierre() != null)
-                .mapToLong(nc -> nc.getFechaDeteccion().until(nc.getFechaCierre()).getDays())
-                .average()
-                .orElse(0.0);
+            return cerradas.stream()
+                    .filter(nc -> nc.getFechaCierre() != null)
+                    .mapToLong(nc -> nc.getFechaDeteccion().until(nc.getFechaCierre()).getDays())
+                    .average()
+                    .orElse(0.0);
+        });
     }
 
     public double calcularPorcentajeCompletitudGeneral() {
-        if (noConformidades.isEmpty()) return 0.0;
+        return cerrojo.leer(() -> {
+            if (noConformidades.isEmpty()) return 0.0;
 
-        double totalCompletitud = noConformidades.stream()
-                .mapToInt(NoConformidad::calcularPorcentajeCompletitud)
-                .average()
-                .orElse(0.0);
+            double totalCompletitud = noConformidades.values().stream()
+                    .mapToInt(NoConformidad::calcularPorcentajeCompletitud)
+                    .average()
+                    .orElse(0.0);
 
-        return totalCompletitud;
+            return totalCompletitud;
+        });
     }
 
     // Gestión de estados
     public void cambiarEstado(String noConformidadId, EstadoNoConformidad nuevoEstado) {
-        NoConformidad nc = obtenerNoConformidad(noConformidadId);
-        if (nc != null) {
-            nc.cambiarEstado(nuevoEstado);
-            actualizarNoConformidad(nc);
-            System.out.println("Estado cambiado para NC " + noConformidadId + ": " + nuevoEstado.getNombre());
-        }
+        cerrojo.escribir(() -> {
+            NoConformidad nc = noConformidades.get(noConformidadId);
+            if (nc != null) {
+                EstadoNoConformidad estadoAnterior = nc.getEstado();
+                nc.cambiarEstado(nuevoEstado);
+                actualizarNoConformidad(nc);
+                if (nc.getEstado() != estadoAnterior) {
+                    eventos.publicar(TipoCambio.ESTADO_NC_CAMBIADO, noConformidadId);
+                }
+                System.out.println("Estado cambiado para NC " + noConformidadId + ": " + nuevoEstado.getNombre());
+            }
+        });
     }
 
     public void cerrarNoConformidad(String noConformidadId, String observacionesCierre) {
-        NoConformidad nc = obtenerNoConformidad(noConformidadId);
-        if (nc != null) {
-            nc.cambiarEstado(EstadoNoConformidad.CERRADA);
-            nc.setObservaciones(observacionesCierre);
-            actualizarNoConformidad(nc);
-            System.out.println("No conformidad cerrada: " + nc.getTitulo());
-        }
+        cerrojo.escribir(() -> {
+            NoConformidad nc = noConformidades.get(noConformidadId);
+            if (nc != null) {
+                EstadoNoConformidad estadoAnterior = nc.getEstado();
+                nc.cambiarEstado(EstadoNoConformidad.CERRADA);
+                nc.setObservaciones(observacionesCierre);
+                actualizarNoConformidad(nc);
+                if (nc.getEstado() != estadoAnterior) {
+                    eventos.publicar(TipoCambio.ESTADO_NC_CAMBIADO, noConformidadId);
+                }
+                System.out.println("No conformidad cerrada: " + nc.getTitulo());
+            }
+        });
     }
 
     // Operaciones CRUD para Acciones Correctivas
     public void agregarAccionCorrectiva(AccionCorrectiva accion) {
-        if (accion != null) {
-            accionesCorrectivas.add(accion);
-
-            // Agregar a la no conformidad correspondiente
-            NoConformidad nc = obtenerNoConformidad(accion.getNoConformidadId());
-            if (nc != null) {
-                nc.agregarAccionCorrectiva(accion);
-                actualizarNoConformidad(nc);
+        cerrojo.escribir(() -> {
+            if (accion != null && !accionesCorrectivas.containsKey(accion.getId())) {
+                // La acción se persiste en su propia bitácora; la NC no cambia
+                indexarAccion(accion);
+                repositorioAcciones.guardar(accion);
+                System.out.println("Acción correctiva agregada: " + accion.getDescripcion());
+            } else {
+                System.err.println("Error: Acción correctiva nula o ID ya existe");
             }
+        });
+    }
 
-            System.out.println("Acción correctiva agregada: " + accion.getDescripcion());
-        }
+    public AccionCorrectiva obtenerAccionCorrectiva(String id) {
+        return cerrojo.leer(() -> accionesCorrectivas.get(id));
     }
 
     public List<AccionCorrectiva> obtenerAccionesCorrectivas(String noConformidadId) {
-        return accionesCorrectivas.stream()
-                .filter(ac -> ac.getNoConformidadId().equals(noConformidadId))
-                .collect(Collectors.toList());
+        return cerrojo.leer(() -> indiceAccionesPorNoConformidad.obtener(noConformidadId));
     }
 
     public List<AccionCorrectiva> obtenerAccionesVencidas() {
-        return accionesCorrectivas.stream()
+        return cerrojo.leer(() -> accionesCorrectivas.values().stream()
                 .filter(AccionCorrectiva::estaVencida)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     public void completarAccionCorrectiva(String accionId, String resultado) {
-        AccionCorrectiva accion = accionesCorrectivas.stream()
-                .filter(ac -> ac.getId().equals(accionId))
-                .findFirst()
-                .orElse(null);
-
-        if (accion != null) {
-            accion.marcarComoCompletada(resultado);
-            System.out.println("Acción correctiva completada: " + accion.getDescripcion());
-
-            // Verificar si todas las acciones de la NC están completadas
-            String ncId = accion.getNoConformidadId();
-            List<AccionCorrectiva> acciones = obtenerAccionesCorrectivas(ncId);
-            boolean todasCompletadas = acciones.stream().allMatch(AccionCorrectiva::isCompletada);
-
-            if (todasCompletadas) {
-                cambiarEstado(ncId, EstadoNoConformidad.EN_CORRECCION);
-                System.out.println("Todas las acciones completadas para NC: " + ncId);
+        cerrojo.escribir(() -> {
+            AccionCorrectiva accion = accionesCorrectivas.get(accionId);
+
+            if (accion != null) {
+                accion.marcarComoCompletada(resultado);
+                repositorioAcciones.guardar(accion);
+                System.out.println("Acción correctiva completada: " + accion.getDescripcion());
+
+                // Verificar si todas las acciones de la NC están completadas (solo se recorren las suyas)
+                String ncId = accion.getNoConformidadId();
+                List<AccionCorrectiva> acciones = obtenerAccionesCorrectivas(ncId);
+                boolean todasCompletadas = acciones.stream().allMatch(AccionCorrectiva::isCompletada);
+
+                if (todasCompletadas) {
+                    cambiarEstado(ncId, EstadoNoConformidad.EN_CORRECCION);
+                    System.out.println("Todas las acciones completadas para NC: " + ncId);
+                }
             }
-        }
+        });
     }
 
     // Alertas y notificaciones
     public List<String> generarAlertas() {
+        // Las tres alertas se calculan sobre el mismo estado
+        return cerrojo.leer(this::armarAlertas);
+    }
+
+    private List<String> armarAlertas() {
         List<String> alertas = new ArrayList<>();
 
         // Alertas por vencimiento
@@ -244,7 +335,7 @@ public class NoConformidadManager {
 
     // Validaciones
     public boolean existeNoConformidad(String id) {
-        return noConformidades.stream().anyMatch(nc -> nc.getId().equals(id));
+        return cerrojo.leer(() -> noConformidades.containsKey(id));
     }
 
     public boolean validarNoConformidad(NoConformidad noConformidad) {
@@ -260,6 +351,11 @@ public class NoConformidadManager {
 
     // Reportes
     public String generarReporteNoConformidades() {
+        // Todas las cifras del reporte salen del mismo estado
+        return cerrojo.leer(this::armarReporteNoConformidades);
+    }
+
+    private String armarReporteNoConformidades() {
         StringBuilder reporte = new StringBuilder();
         reporte.append("REPORTE DE NO CONFORMIDADES\n");
         reporte.append("=".repeat(40)).append("\n");
@@ -286,25 +382,93 @@ public class NoConformidadManager {
 
     // Métodos de persistencia
     private void cargarNoConformidades() {
-        this.noConformidades = DatabaseHelper.cargarNoConformidades();
+        noConformidades.clear();
+        vistaTodas.invalidar();
+        repositorio.cargar(this::indexar);
         System.out.println("No conformidades cargadas: " + noConformidades.size());
     }
 
-    private void guardarCambios() {
-        DatabaseHelper.guardarNoConformidades(noConformidades);
+    // Mantiene el mapa por id y los índices secundarios en sincronía
+    private void indexar(NoConformidad noConformidad) {
+        vistaTodas.reemplazado(noConformidades.put(noConformidad.getId(), noConformidad), noConformidad);
+        indicePorEstado.actualizar(noConformidad);
+        indicePorPrioridad.actualizar(noConformidad);
+        indicePorProceso.actualizar(noConformidad);
+        indicePorResponsableDeteccion.actualizar(noConformidad);
+        indicePorResponsableCorreccion.actualizar(noConformidad);
+        indiceTexto.actualizar(noConformidad);
+    }
+
+    private boolean desindexar(String id) {
+        if (noConformidades.remove(id) == null) return false;
+        vistaTodas.invalidar();
+        indicePorEstado.eliminar(id);
+        indicePorPrioridad.eliminar(id);
+        indicePorProceso.eliminar(id);
+        indicePorResponsableDeteccion.eliminar(id);
+        indicePorResponsableCorreccion.eliminar(id);
+        indiceTexto.eliminar(id);
+        return true;
+    }
+
+    private void guardarCambios(NoConformidad noConformidad) {
+        repositorio.guardar(noConformidad);
+    }
+
+    /**
+     * Cierra el almacenamiento dejando los cambios compactados; se invoca al salir
+     */
+    public void cerrar() {
+        // Con el cerrojo de escritura la compactación no se cruza con una modificación en curso
+        cerrojo.escribir(() -> {
+            try {
+                repositorio.close();
+                repositorioAcciones.close();
+            } catch (IOException e) {
+                System.err.println("Error al cerrar no conformidades: " + e.getMessage());
+            }
+        });
+    }
+
+    // Las acciones se cargan después de las NC para asociarlas a cada una
+    private void cargarAccionesCorrectivas() {
+        accionesCorrectivas.clear();
+        repositorioAcciones.cargar(this::indexarAccion);
+        System.out.println("Acciones correctivas cargadas: " + accionesCorrectivas.size());
+    }
+
+    private void indexarAccion(AccionCorrectiva accion) {
+        accionesCorrectivas.put(accion.getId(), accion);
+        indiceAccionesPorNoConformidad.actualizar(accion);
+        NoConformidad nc = noConformidades.get(accion.getNoConformidadId());
+        if (nc != null) {
+            nc.agregarAccionCorrectiva(accion);
+        }
+    }
+
+    private void desindexarAccion(String id) {
+        accionesCorrectivas.remove(id);
+        indiceAccionesPorNoConformidad.eliminar(id);
+    }
+
+    /**
+     * @return Avisos de cambios de estado de las no conformidades para el dashboard
+     */
+    public BusEventos getEventos() {
+        return eventos;
     }
 
     // Getters para estadísticas
     public int getTotalNoConformidades() {
-        return noConformidades.size();
+        return cerrojo.leer(noConformidades::size);
     }
 
     public int getNoConformidadesAbiertas() {
-        return (int) obtenerPorEstado(EstadoNoConformidad.ABIERTA).size();
+        return cerrojo.leer(() -> indicePorEstado.contar(EstadoNoConformidad.ABIERTA));
     }
 
     public int getNoConformidadesCerradas() {
-        return (int) obtenerPorEstado(EstadoNoConformidad.CERRADA).size();
+        return cerrojo.leer(() -> indicePorEstado.contar(EstadoNoConformidad.CERRADA));
     }
 
     public int getNoConformidadesVencidas() {
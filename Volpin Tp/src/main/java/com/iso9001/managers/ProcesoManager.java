@@ -1,19 +1,32 @@
 package com.iso9001.managers;
 
 import com.iso9001.models.Proceso;
-import com.iso9001.models.Indicador;
+import com.iso9001.enums.EstadoSemaforo;
 import com.iso9001.enums.TipoProceso;
-import com.iso9001.utils.DatabaseHelper;
+import com.iso9001.repositorios.Repositorio;
+import com.iso9001.repositorios.Repositorios;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
 public class ProcesoManager {
-    private List<Proceso> procesos;
+    private Map<String, Proceso> procesos;
     private IndicadorManager indicadorManager;
+    private final IndiceSecundario<TipoProceso, Proceso> indicePorTipo;
+    private final IndiceSecundario<String, Proceso> indicePorResponsable;
+    private final Repositorio<Proceso> repositorio;
+    private final CerrojoManager cerrojo = new CerrojoManager();
+    // Lista completa publicada para leer sin copiar
+    private final VistaPublicada<Proceso> vistaTodos;
 
     public ProcesoManager() {
-        this.procesos = new ArrayList<>();
+        this.procesos = new LinkedHashMap<>();
+        this.vistaTodos = new VistaPublicada<>(cerrojo, procesos.values());
+        this.indicePorTipo = IndiceSecundario.porEnum(TipoProceso.class, Proceso::getTipo, Proceso::getId);
+        this.indicePorResponsable = IndiceSecundario.porClave(
+                p -> p.getResponsable() != null ? p.getResponsable().toLowerCase() : null, Proceso::getId);
+        this.repositorio = Repositorios.procesos(() -> new ArrayList<>(procesos.values()));
         cargarProcesos();
     }
 
@@ -22,117 +35,140 @@ public class ProcesoManager {
         this.indicadorManager = indicadorManager;
     }
 
+    // Usado por SistemaManagers: procesos e indicadores se cargan en paralelo
+    void vincularIndicadores(IndicadorManager indicadorManager) {
+        cerrojo.escribir(() -> this.indicadorManager = indicadorManager);
+    }
+
     // Operaciones CRUD
     public void agregarProceso(Proceso proceso) {
-        if (proceso != null && !existeProceso(proceso.getId())) {
-            procesos.add(proceso);
-            guardarCambios();
-            System.out.println("Proceso agregado: " + proceso.getNombre());
-        } else {
-            System.err.println("Error: Proceso nulo o ID ya existe");
-        }
+        cerrojo.escribir(() -> {
+            if (proceso != null && !existeProceso(proceso.getId())) {
+                indexar(proceso);
+                guardarCambios(proceso);
+                System.out.println("Proceso agregado: " + proceso.getNombre());
+            } else {
+                System.err.println("Error: Proceso nulo o ID ya existe");
+            }
+        });
     }
 
     public Proceso obtenerProceso(String id) {
-        return procesos.stream()
-                .filter(p -> p.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        return cerrojo.leer(() -> procesos.get(id));
     }
 
+    /**
+     * @return Vista de solo lectura de todos los procesos, sin copiar: se reutiliza
+     *         entre llamadas hasta que se agrega, reemplaza o elimina alguno
+     */
     public List<Proceso> obtenerTodosProcesos() {
-        return new ArrayList<>(procesos);
+        return vistaTodos.obtener();
     }
 
     public List<Proceso> obtenerProcesosActivos() {
-        return procesos.stream()
+        return cerrojo.leer(() -> procesos.values().stream()
                 .filter(Proceso::isActivo)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     public void actualizarProceso(Proceso proceso) {
         if (proceso != null) {
-            for (int i = 0; i < procesos.size(); i++) {
-                if (procesos.get(i).getId().equals(proceso.getId())) {
+            cerrojo.escribir(() -> {
+                if (procesos.containsKey(proceso.getId())) {
                     proceso.actualizarFechaRevision();
-                    procesos.set(i, proceso);
-                    guardarCambios();
+                    indexar(proceso);
+                    guardarCambios(proceso);
                     System.out.println("Proceso actualizado: " + proceso.getNombre());
                     return;
                 }
-            }
-            System.err.println("Proceso no encontrado para actualizar");
+                System.err.println("Proceso no encontrado para actualizar");
+            });
         }
     }
 
     public boolean eliminarProceso(String id) {
-        Proceso proceso = obtenerProceso(id);
-        if (proceso != null) {
-            // En lugar de eliminar, desactivar
-            proceso.setActivo(false);
-            actualizarProceso(proceso);
-            System.out.println("Proceso desactivado: " + proceso.getNombre());
-            return true;
-        }
-        return false;
+        return cerrojo.escribirYObtener(() -> {
+            Proceso proceso = procesos.get(id);
+            if (proceso != null) {
+                // En lugar de eliminar, desactivar
+                proceso.setActivo(false);
+                actualizarProceso(proceso);
+                System.out.println("Proceso desactivado: " + proceso.getNombre());
+                return true;
+            }
+            return false;
+        });
     }
 
     // Búsquedas y filtros
     public List<Proceso> buscarPorNombre(String nombre) {
-        return procesos.stream()
+        return cerrojo.leer(() -> procesos.values().stream()
                 .filter(p -> p.getNombre().toLowerCase().contains(nombre.toLowerCase()))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     public List<Proceso> obtenerPorTipo(TipoProceso tipo) {
-        return procesos.stream()
-                .filter(p -> p.getTipo() == tipo)
-                .collect(Collectors.toList());
+        return cerrojo.leer(() -> indicePorTipo.obtener(tipo));
     }
 
     public List<Proceso> obtenerPorResponsable(String responsable) {
-        return procesos.stream()
-                .filter(p -> p.getResponsable().toLowerCase().contains(responsable.toLowerCase()))
-                .collect(Collectors.toList());
+        // Búsqueda parcial: se recorren solo los responsables distintos, no todos los procesos
+        String buscado = responsable.toLowerCase();
+        return cerrojo.leer(() -> {
+            List<Proceso> resultado = new ArrayList<>();
+            for (String clave : indicePorResponsable.claves()) {
+                if (clave.contains(buscado)) {
+                    resultado.addAll(indicePorResponsable.obtener(clave));
+                }
+            }
+            return resultado;
+        });
     }
 
     // Análisis y métricas
     public Map<TipoProceso, Long> obtenerEstadisticasPorTipo() {
-        return procesos.stream()
+        return cerrojo.leer(() -> procesos.values().stream()
                 .filter(Proceso::isActivo)
-                .collect(Collectors.groupingBy(Proceso::getTipo, Collectors.counting()));
+                .collect(Collectors.groupingBy(Proceso::getTipo, Collectors.counting())));
     }
 
     public List<Proceso> obtenerProcesosConIndicadoresCriticos() {
-        if (indicadorManager == null) return new ArrayList<>();
-
-        return procesos.stream()
-                .filter(p -> {
-                    List<Indicador> indicadoresProceso = indicadorManager.obtenerIndicadoresPorProceso(p.getId());
-                    return indicadoresProceso.stream()
-                            .anyMatch(i -> "ROJO".equals(i.getEstadoSemaforo()));
-                })
-                .collect(Collectors.toList());
+        IndicadorManager indicadores = cerrojo.leer(() -> indicadorManager);
+        if (indicadores == null) return new ArrayList<>();
+
+        // Se parte de los indicadores en rojo, no de cada proceso; los ids se piden
+        // antes de tomar el cerrojo propio para no anidar los de ambos managers
+        Set<String> procesoIds = indicadores.obtenerProcesosConIndicadoresEnEstado(EstadoSemaforo.ROJO);
+        return cerrojo.leer(() -> {
+            List<Proceso> resultado = new ArrayList<>(procesoIds.size());
+            for (String procesoId : procesoIds) {
+                Proceso proceso = procesos.get(procesoId);
+                if (proceso != null) {
+                    resultado.add(proceso);
+                }
+            }
+            return resultado;
+        });
     }
 
     public double calcularEficienciaPromedio() {
-        return procesos.stream()
+        return cerrojo.leer(() -> procesos.values().stream()
                 .filter(Proceso::isActivo)
                 .mapToDouble(Proceso::calcularEficienciaGeneral)
                 .average()
-                .orElse(0.0);
+                .orElse(0.0));
     }
 
     public List<Proceso> obtenerProcesosSinRevision(int diasLimite) {
         LocalDate fechaLimite = LocalDate.now().minusDays(diasLimite);
-        return procesos.stream()
+        return cerrojo.leer(() -> procesos.values().stream()
                 .filter(p -> p.isActivo() && p.getFechaUltimaRevision().isBefore(fechaLimite))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     // Validaciones
     public boolean existeProceso(String id) {
-        return procesos.stream().anyMatch(p -> p.getId().equals(id));
+        return cerrojo.leer(() -> procesos.containsKey(id));
     }
 
     public boolean validarProceso(Proceso proceso) {
@@ -145,6 +181,11 @@ public class ProcesoManager {
 
     // Reportes
     public String generarReporteProcesos() {
+        // Todas las cifras del reporte salen del mismo estado
+        return cerrojo.leer(this::armarReporteProcesos);
+    }
+
+    private String armarReporteProcesos() {
         StringBuilder reporte = new StringBuilder();
         reporte.append("REPORTE DE PROCESOS\n");
         reporte.append("=".repeat(30)).append("\n");
@@ -163,20 +204,43 @@ public class ProcesoManager {
 
     // Métodos de persistencia
     private void cargarProcesos() {
-        this.procesos = DatabaseHelper.cargarProcesos();
+        procesos.clear();
+        vistaTodos.invalidar();
+        repositorio.cargar(this::indexar);
         System.out.println("Procesos cargados: " + procesos.size());
     }
 
-    private void guardarCambios() {
-        DatabaseHelper.guardarProcesos(procesos);
+    // Mantiene el mapa por id y los índices secundarios en sincronía
+    private void indexar(Proceso proceso) {
+        vistaTodos.reemplazado(procesos.put(proceso.getId(), proceso), proceso);
+        indicePorTipo.actualizar(proceso);
+        indicePorResponsable.actualizar(proceso);
+    }
+
+    private void guardarCambios(Proceso proceso) {
+        repositorio.guardar(proceso);
+    }
+
+    /**
+     * Cierra el almacenamiento dejando los cambios compactados; se invoca al salir
+     */
+    public void cerrar() {
+        // Con el cerrojo de escritura la compactación no se cruza con una modificación en curso
+        cerrojo.escribir(() -> {
+            try {
+                repositorio.close();
+            } catch (IOException e) {
+                System.err.println("Error al cerrar procesos: " + e.getMessage());
+            }
+        });
     }
 
     // Getters
     public int getTotalProcesos() {
-        return procesos.size();
+        return cerrojo.leer(procesos::size);
     }
 
     public int getProcesosActivos() {
-        return (int) procesos.stream().filter(Proceso::isActivo).count();
+        return cerrojo.leer(() -> (int) procesos.values().stream().filter(Proceso::isActivo).count());
     }
 }
\ No newline at end of file
@@ -0,0 +1,140 @@
+package com.iso9001.managers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Conjunto de managers del Sistema ISO 9001 y su carga inicial
+ *
+ * Cada manager lee sus propios archivos, así que se construyen en paralelo con
+ * una tarea por manager. El de procesos se vincula al de indicadores cuando
+ * ambos terminaron. Si un manager falla, queda en null y el error se registra;
+ * el resto del sistema sigue disponible.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+public class SistemaManagers {
+    public static final int TOTAL_MODULOS = 4;
+
+    private final ProcesoManager procesoManager;
+    private final IndicadorManager indicadorManager;
+    private final NoConformidadManager noConformidadManager;
+    private final AuditoriaManager auditoriaManager;
+    private final List<String> errores;
+    private final long milisegundosCarga;
+
+    /**
+     * Recibe el avance de la carga; se invoca desde los hilos de carga
+     */
+    @FunctionalInterface
+    public interface ProgresoCarga {
+        void moduloCargado(String modulo, int completados, int total);
+    }
+
+    private SistemaManagers(ProcesoManager procesoManager, IndicadorManager indicadorManager,
+                            NoConformidadManager noConformidadManager, AuditoriaManager auditoriaManager,
+                            List<String> errores, long milisegundosCarga) {
+        this.procesoManager = procesoManager;
+        this.indicadorManager = indicadorManager;
+        this.noConformidadManager = noConformidadManager;
+        this.auditoriaManager = auditoriaManager;
+        this.errores = Collections.unmodifiableList(errores);
+        this.milisegundosCarga = milisegundosCarga;
+    }
+
+    /**
+     * Construye los cuatro managers en paralelo y espera a que terminen
+     * @param progreso Avisos de avance (puede ser null)
+     * @return Los managers cargados
+     */
+    public static SistemaManagers cargar(ProgresoCarga progreso) {
+        long inicio = System.nanoTime();
+        AtomicInteger completados = new AtomicInteger();
+        List<String> errores = Collections.synchronizedList(new ArrayList<>());
+
+        ExecutorService ejecutor = Executors.newFixedThreadPool(TOTAL_MODULOS, r -> {
+            Thread hilo = new Thread(r, "iso9001-carga");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        try {
+            CompletableFuture<IndicadorManager> indicadores =
+                    cargarModulo("Indicadores", IndicadorManager::new, ejecutor, progreso, completados, errores);
+            CompletableFuture<ProcesoManager> procesos =
+                    cargarModulo("Procesos", ProcesoManager::new, ejecutor, progreso, completados, errores);
+            CompletableFuture<NoConformidadManager> noConformidades =
+                    cargarModulo("No conformidades", NoConformidadManager::new, ejecutor, progreso, completados, errores);
+            CompletableFuture<AuditoriaManager> auditorias =
+                    cargarModulo("Auditorías", AuditoriaManager::new, ejecutor, progreso, completados, errores);
+
+            IndicadorManager indicadorManager = indicadores.join();
+            ProcesoManager procesoManager = procesos.join();
+            if (procesoManager != null) {
+                procesoManager.vincularIndicadores(indicadorManager);
+            }
+
+            long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+            System.out.println("✓ Datos cargados en " + milisegundos + " ms");
+            return new SistemaManagers(procesoManager, indicadorManager, noConformidades.join(),
+                    auditorias.join(), errores, milisegundos);
+        } finally {
+            ejecutor.shutdown();
+        }
+    }
+
+    // Las fallas se registran y devuelven null para no frenar a los demás módulos
+    private static <T> CompletableFuture<T> cargarModulo(String modulo, Supplier<T> constructor,
+                                                         ExecutorService ejecutor, ProgresoCarga progreso,
+                                                         AtomicInteger completados, List<String> errores) {
+        return CompletableFuture.supplyAsync(() -> {
+            long inicio = System.nanoTime();
+            T manager = null;
+            try {
+                manager = constructor.get();
+                System.out.println("✓ Módulo " + modulo + " cargado en " + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+            } catch (RuntimeException e) {
+                System.err.println("⚠ Error al cargar " + modulo + ": " + e.getMessage());
+                errores.add(modulo + ": " + e.getMessage());
+            }
+            if (progreso != null) {
+                progreso.moduloCargado(modulo, completados.incrementAndGet(), TOTAL_MODULOS);
+            }
+            return manager;
+        }, ejecutor);
+    }
+
+    public ProcesoManager getProcesoManager() {
+        return procesoManager;
+    }
+
+    public IndicadorManager getIndicadorManager() {
+        return indicadorManager;
+    }
+
+    public NoConformidadManager getNoConformidadManager() {
+        return noConformidadManager;
+    }
+
+    public AuditoriaManager getAuditoriaManager() {
+        return auditoriaManager;
+    }
+
+    public List<String> getErrores() {
+        return errores;
+    }
+
+    public boolean tieneErrores() {
+        return !errores.isEmpty();
+    }
+
+    public long getMilisegundosCarga() {
+        return milisegundosCarga;
+    }
+}
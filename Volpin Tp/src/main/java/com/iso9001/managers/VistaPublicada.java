@@ -0,0 +1,68 @@
+package com.iso9001.managers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Lista de todas las entidades de un manager publicada para leer sin copiar
+ *
+ * Las ventanas y el dashboard piden la lista completa muy seguido y casi
+ * siempre sin cambios de por medio: se arma una copia de solo lectura, se
+ * reutiliza entre llamadas sin tomar el cerrojo y se descarta cuando cambia
+ * el contenido del mapa. Modificar una entidad ya publicada no la invalida,
+ * porque la vista contiene el mismo objeto.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+class VistaPublicada<T> {
+    private final CerrojoManager cerrojo;
+    private final Collection<T> entidades;
+    // null cuando hay que volver a armarla
+    private volatile List<T> vista;
+
+    /**
+     * @param cerrojo Cerrojo del manager que protege las entidades
+     * @param entidades Valores del mapa del manager (vista viva, no una copia)
+     */
+    VistaPublicada(CerrojoManager cerrojo, Collection<T> entidades) {
+        this.cerrojo = cerrojo;
+        this.entidades = entidades;
+    }
+
+    /**
+     * @return Vista de solo lectura de todas las entidades
+     */
+    List<T> obtener() {
+        List<T> actual = vista;
+        if (actual != null) return actual;
+        // Se arma bajo el cerrojo de lectura: ninguna escritura puede invalidarla a medio publicar
+        return cerrojo.leer(() -> {
+            if (vista == null) {
+                vista = Collections.unmodifiableList(new ArrayList<>(entidades));
+            }
+            return vista;
+        });
+    }
+
+    /**
+     * Registra el resultado de un put en el mapa; se invoca con el cerrojo de escritura
+     * @param anterior Valor que devolvió el put
+     * @param nuevo Valor guardado
+     */
+    void reemplazado(T anterior, T nuevo) {
+        // Otra instancia con el mismo id también cambia la lista publicada
+        if (anterior != nuevo) {
+            vista = null;
+        }
+    }
+
+    /**
+     * Descarta la vista tras una baja o un vaciado; se invoca con el cerrojo de escritura
+     */
+    void invalidar() {
+        vista = null;
+    }
+}
@@ -1,7 +1,9 @@
 package com.iso9001.models;
 
+import com.iso9001.enums.EstadoAuditoria;
+import com.iso9001.utils.CopiaEnEscritura;
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class Auditoria {
@@ -11,13 +13,14 @@ public class Auditoria {
     private LocalDate fechaProgramada;
     private LocalDate fechaRealizada;
     private String auditorLider;
-    private List<String> auditores;
-    private List<String> procesosAuditados;
+    // Listas de solo lectura: cada cambio publica una lista nueva y los getters no copian
+    private volatile List<String> auditores;
+    private volatile List<String> procesosAuditados;
     private String alcance;
     private String objetivos;
     private String metodologia;
-    private List<String> hallazgos;
-    private List<String> noConformidadesDetectadas;
+    private volatile List<String> hallazgos;
+    private volatile List<String> noConformidadesDetectadas;
     private String conclusion;
     private double calificacionGeneral;
     private boolean completada;
@@ -30,34 +33,28 @@ public class Auditoria {
         this.tipo = tipo;
         this.fechaProgramada = fechaProgramada;
         this.auditorLider = auditorLider;
-        this.auditores = new ArrayList<>();
-        this.procesosAuditados = new ArrayList<>();
-        this.hallazgos = new ArrayList<>();
-        this.noConformidadesDetectadas = new ArrayList<>();
+        this.auditores = Collections.emptyList();
+        this.procesosAuditados = Collections.emptyList();
+        this.hallazgos = Collections.emptyList();
+        this.noConformidadesDetectadas = Collections.emptyList();
         this.completada = false;
     }
 
     // Métodos de negocio
     public void agregarAuditor(String auditor) {
-        if (!auditores.contains(auditor)) {
-            auditores.add(auditor);
-        }
+        auditores = CopiaEnEscritura.agregarSiFalta(auditores, auditor);
     }
 
     public void agregarProcesoAuditado(String procesoId) {
-        if (!procesosAuditados.contains(procesoId)) {
-            procesosAuditados.add(procesoId);
-        }
+        procesosAuditados = CopiaEnEscritura.agregarSiFalta(procesosAuditados, procesoId);
     }
 
     public void agregarHallazgo(String hallazgo) {
-        hallazgos.add(hallazgo);
+        hallazgos = CopiaEnEscritura.agregar(hallazgos, hallazgo);
     }
 
     public void agregarNoConformidad(String noConformidadId) {
-        if (!noConformidadesDetectadas.contains(noConformidadId)) {
-            noConformidadesDetectadas.add(noConformidadId);
-        }
+        noConformidadesDetectadas = CopiaEnEscritura.agregarSiFalta(noConformidadesDetectadas, noConformidadId);
     }
 
     public void completarAuditoria(LocalDate fechaReal, String conclusion, double calificacion) {
@@ -71,11 +68,11 @@ public class Auditoria {
         return !completada && LocalDate.now().isAfter(fechaProgramada);
     }
 
-    public String getEstadoAuditoria() {
-        if (completada) return "COMPLETADA";
-        if (estaVencida()) return "VENCIDA";
-        if (LocalDate.now().isEqual(fechaProgramada)) return "EN_CURSO";
-        return "PROGRAMADA";
+    public EstadoAuditoria getEstadoAuditoria() {
+        if (completada) return EstadoAuditoria.COMPLETADA;
+        if (estaVencida()) return EstadoAuditoria.VENCIDA;
+        if (LocalDate.now().isEqual(fechaProgramada)) return EstadoAuditoria.EN_CURSO;
+        return EstadoAuditoria.PROGRAMADA;
     }
 
     public int cantidadNoConformidades() {
@@ -105,11 +102,11 @@ public class Auditoria {
     public String getAuditorLider() { return auditorLider; }
     public void setAuditorLider(String auditorLider) { this.auditorLider = auditorLider; }
 
-    public List<String> getAuditores() { return new ArrayList<>(auditores); }
-    public void setAuditores(List<String> auditores) { this.auditores = new ArrayList<>(auditores); }
+    public List<String> getAuditores() { return auditores; }
+    public void setAuditores(List<String> auditores) { this.auditores = CopiaEnEscritura.copiar(auditores); }
 
-    public List<String> getProcesosAuditados() { return new ArrayList<>(procesosAuditados); }
-    public void setProcesosAuditados(List<String> procesosAuditados) { this.procesosAuditados = new ArrayList<>(procesosAuditados); }
+    public List<String> getProcesosAuditados() { return procesosAuditados; }
+    public void setProcesosAuditados(List<String> procesosAuditados) { this.procesosAuditados = CopiaEnEscritura.copiar(procesosAuditados); }
 
     public String getAlcance() { return alcance; }
     public void setAlcance(String alcance) { this.alcance = alcance; }
@@ -120,11 +117,11 @@ public class Auditoria {
     public String getMetodologia() { return metodologia; }
     public void setMetodologia(String metodologia) { this.metodologia = metodologia; }
 
-    public List<String> getHallazgos() { return new ArrayList<>(hallazgos); }
-    public void setHallazgos(List<String> hallazgos) { this.hallazgos = new ArrayList<>(hallazgos); }
+    public List<String> getHallazgos() { return hallazgos; }
+    public void setHallazgos(List<String> hallazgos) { this.hallazgos = CopiaEnEscritura.copiar(hallazgos); }
 
-    public List<String> getNoConformidadesDetectadas() { return new ArrayList<>(noConformidadesDetectadas); }
-    public void setNoConformidadesDetectadas(List<String> noConformidadesDetectadas) { this.noConformidadesDetectadas = new ArrayList<>(noConformidadesDetectadas); }
+    public List<String> getNoConformidadesDetectadas() { return noConformidadesDetectadas; }
+    public void setNoConformidadesDetectadas(List<String> noConformidadesDetectadas) { this.noConformidadesDetectadas = CopiaEnEscritura.copiar(noConformidadesDetectadas); }
 
     public String getConclusion() { return conclusion; }
     public void setConclusion(String conclusion) { this.conclusion = conclusion; }
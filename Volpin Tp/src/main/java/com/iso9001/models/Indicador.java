@@ -1,11 +1,14 @@
 package com.iso9001.models;
 
+import com.iso9001.enums.EstadoSemaforo;
 import com.iso9001.enums.TipoIndicador;
+import com.iso9001.utils.HistorialCircular;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
 
 public class Indicador {
+    public static final int CAPACIDAD_HISTORIAL = 12;
+
     private String id;
     private String nombre;
     private String descripcion;
@@ -17,8 +20,9 @@ public class Indicador {
     private LocalDate fechaUltimaMedicion;
     private String formulaCalculo;
     private String procesoId; // ID del proceso al que pertenece
-    private List<Double> historialValores;
-    private List<LocalDate> historialFechas;
+    private HistorialCircular historial;
+    // Se recalcula solo cuando cambia el valor actual o el objetivo
+    private EstadoSemaforo estadoSemaforo;
 
     // Constructor
     public Indicador(String id, String nombre, String descripcion, TipoIndicador tipo,
@@ -30,58 +34,90 @@ public class Indicador {
         this.unidadMedida = unidadMedida;
         this.valorObjetivo = valorObjetivo;
         this.procesoId = procesoId;
-        this.historialValores = new ArrayList<>();
-        this.historialFechas = new ArrayList<>();
-        this.fechaUltimaMedicion = LocalDate.now();
+        this.historial = new HistorialCircular(CAPACIDAD_HISTORIAL);
+        // fechaUltimaMedicion queda en null hasta la primera medición real
+        recalcularEstado();
     }
 
     // Métodos de negocio
-    public void registrarMedicion(double valor) {
+    public boolean registrarMedicion(double valor) {
+        return registrarMedicion(valor, LocalDate.now());
+    }
+
+    // Una medición anterior a la última registrada no cambia el valor vigente, el semáforo ni
+    // el historial (solo va a la serie del indicador); devuelve false en ese caso
+    public boolean registrarMedicion(double valor, LocalDate fecha) {
+        if (esAnteriorAUltima(fecha)) return false;
+
         this.valorAnterior = this.valorActual;
         this.valorActual = valor;
-        this.fechaUltimaMedicion = LocalDate.now();
+        this.fechaUltimaMedicion = fecha;
+        recalcularEstado();
 
-        // Agregar al historial
-        historialValores.add(valor);
-        historialFechas.add(LocalDate.now());
+        // El historial circular descarta solo la medición más antigua al llenarse
+        historial.agregar(valor, fecha);
+        return true;
+    }
 
-        // Mantener solo los últimos 12 registros
-        if (historialValores.size() > 12) {
-            historialValores.remove(0);
-            historialFechas.remove(0);
+    // Mediciones ya ordenadas por fecha: equivale a registrarlas de a una, pero
+    // el semáforo se recalcula una sola vez y el historial recibe el lote de una vez.
+    // Devuelve true si había mediciones anteriores a la última: esas no se aplican
+    // y el historial debe rearmarse desde la serie para ubicarlas en su lugar
+    public boolean registrarMediciones(List<Medicion> mediciones) {
+        int desde = 0;
+        while (desde < mediciones.size() && esAnteriorAUltima(mediciones.get(desde).getFecha())) {
+            desde++;
+        }
+        int nuevas = mediciones.size() - desde;
+        if (nuevas > 0) {
+            double[] valores = new double[nuevas];
+            int[] dias = new int[nuevas];
+            for (int i = 0; i < nuevas; i++) {
+                Medicion medicion = mediciones.get(desde + i);
+                valores[i] = medicion.getValor();
+                dias[i] = (int) medicion.getFecha().toEpochDay();
+            }
+            this.valorAnterior = nuevas > 1 ? valores[nuevas - 2] : this.valorActual;
+            this.valorActual = valores[nuevas - 1];
+            this.fechaUltimaMedicion = mediciones.get(mediciones.size() - 1).getFecha();
+            historial.agregarTodas(valores, dias, nuevas);
+            recalcularEstado();
         }
+        return desde > 0;
+    }
+
+    // Sin mediciones previas cualquier fecha es válida, incluso una carga histórica
+    private boolean esAnteriorAUltima(LocalDate fecha) {
+        return fechaUltimaMedicion != null && fecha.isBefore(fechaUltimaMedicion);
     }
 
     public double calcularTendencia() {
-        if (historialValores.size() < 2) return 0.0;
+        // Una sola versión del historial: otro hilo puede estar agregando mediciones
+        HistorialCircular.Foto foto = historial.foto();
+        if (foto.tamanio() < 2) return 0.0;
 
         // Cálculo simple de tendencia (diferencia porcentual)
-        double valorInicial = historialValores.get(0);
-        double valorFinal = historialValores.get(historialValores.size() - 1);
+        double valorInicial = foto.primero();
+        double valorFinal = foto.ultimo();
 
         if (valorInicial == 0) return 0.0;
         return ((valorFinal - valorInicial) / valorInicial) * 100;
     }
 
     public double calcularPromedio() {
-        if (historialValores.isEmpty()) return 0.0;
-
-        return historialValores.stream()
-                .mapToDouble(Double::doubleValue)
-                .average()
-                .orElse(0.0);
+        return historial.promedio();
     }
 
     public boolean estaDentroObjetivo() {
         return Math.abs(valorActual - valorObjetivo) <= (valorObjetivo * 0.1); // 10% de tolerancia
     }
 
-    public String getEstadoSemaforo() {
-        double diferencia = Math.abs(valorActual - valorObjetivo) / valorObjetivo;
+    public EstadoSemaforo getEstadoSemaforo() {
+        return estadoSemaforo;
+    }
 
-        if (diferencia <= 0.05) return "VERDE";      // Dentro del 5%
-        else if (diferencia <= 0.15) return "AMARILLO"; // Dentro del 15%
-        else return "ROJO";                              // Fuera del 15%
+    private void recalcularEstado() {
+        this.estadoSemaforo = EstadoSemaforo.calcular(valorActual, valorObjetivo);
     }
 
     // Getters y Setters
@@ -101,10 +137,16 @@ public class Indicador {
     public void setUnidadMedida(String unidadMedida) { this.unidadMedida = unidadMedida; }
 
     public double getValorObjetivo() { return valorObjetivo; }
-    public void setValorObjetivo(double valorObjetivo) { this.valorObjetivo = valorObjetivo; }
+    public void setValorObjetivo(double valorObjetivo) {
+        this.valorObjetivo = valorObjetivo;
+        recalcularEstado();
+    }
 
     public double getValorActual() { return valorActual; }
-    public void setValorActual(double valorActual) { this.valorActual = valorActual; }
+    public void setValorActual(double valorActual) {
+        this.valorActual = valorActual;
+        recalcularEstado();
+    }
 
     public double getValorAnterior() { return valorAnterior; }
     public void setValorAnterior(double valorAnterior) { this.valorAnterior = valorAnterior; }
@@ -118,8 +160,12 @@ public class Indicador {
     public String getProcesoId() { return procesoId; }
     public void setProcesoId(String procesoId) { this.procesoId = procesoId; }
 
-    public List<Double> getHistorialValores() { return new ArrayList<>(historialValores); }
-    public List<LocalDate> getHistorialFechas() { return new ArrayList<>(historialFechas); }
+    // Vistas de solo lectura de la versión actual del historial (sin copiar)
+    public List<Double> getHistorialValores() { return historial.vistaValores(); }
+    public List<LocalDate> getHistorialFechas() { return historial.vistaFechas(); }
+    public HistorialCircular getHistorial() { return historial; }
+
+    public void setCapacidadHistorial(int capacidad) { historial.redimensionar(capacidad); }
 
     @Override
     public String toString() {
@@ -0,0 +1,30 @@
+package com.iso9001.models;
+
+import java.time.LocalDate;
+
+// Lectura de un indicador tal como llega de un colector o una importación
+public class Medicion {
+    private final String indicadorId;
+    private final LocalDate fecha;
+    private final double valor;
+
+    // Constructor
+    public Medicion(String indicadorId, LocalDate fecha, double valor) {
+        this.indicadorId = indicadorId;
+        this.fecha = fecha;
+        this.valor = valor;
+    }
+
+    // Getters
+    public String getIndicadorId() { return indicadorId; }
+
+    public LocalDate getFecha() { return fecha; }
+
+    public double getValor() { return valor; }
+
+    @Override
+    public String toString() {
+        return String.format("Medicion{indicadorId='%s', fecha=%s, valor=%.2f}",
+                indicadorId, fecha, valor);
+    }
+}
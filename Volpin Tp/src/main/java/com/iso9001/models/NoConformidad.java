@@ -2,8 +2,9 @@ package com.iso9001.models;
 
 import com.iso9001.enums.EstadoNoConformidad;
 import com.iso9001.enums.Prioridad;
+import com.iso9001.utils.CopiaEnEscritura;
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class NoConformidad {
@@ -19,7 +20,8 @@ public class NoConformidad {
     private String responsableDeteccion;
     private String responsableCorreccion;
     private String causaRaiz;
-    private List<AccionCorrectiva> accionesCorrectivas;
+    // Lista de solo lectura: cada cambio publica una lista nueva y el getter no copia
+    private volatile List<AccionCorrectiva> accionesCorrectivas;
     private String observaciones;
     private double impactoEconomico;
 
@@ -34,7 +36,7 @@ public class NoConformidad {
         this.responsableDeteccion = responsableDeteccion;
         this.estado = EstadoNoConformidad.ABIERTA;
         this.fechaDeteccion = LocalDate.now();
-        this.accionesCorrectivas = new ArrayList<>();
+        this.accionesCorrectivas = Collections.emptyList();
 
         // Calcular fecha límite basada en prioridad
         calcularFechaLimite();
@@ -59,9 +61,7 @@ public class NoConformidad {
     }
 
     public void agregarAccionCorrectiva(AccionCorrectiva accion) {
-        if (!accionesCorrectivas.contains(accion)) {
-            accionesCorrectivas.add(accion);
-        }
+        accionesCorrectivas = CopiaEnEscritura.agregarSiFalta(accionesCorrectivas, accion);
     }
 
     public void cambiarEstado(EstadoNoConformidad nuevoEstado) {
@@ -82,13 +82,14 @@ public class NoConformidad {
     }
 
     public int calcularPorcentajeCompletitud() {
-        if (accionesCorrectivas.isEmpty()) return 0;
+        List<AccionCorrectiva> acciones = accionesCorrectivas;
+        if (acciones.isEmpty()) return 0;
 
-        long accionesCompletadas = accionesCorrectivas.stream()
+        long accionesCompletadas = acciones.stream()
                 .mapToLong(accion -> accion.isCompletada() ? 1 : 0)
                 .sum();
 
-        return (int) ((accionesCompletadas * 100) / accionesCorrectivas.size());
+        return (int) ((accionesCompletadas * 100) / acciones.size());
     }
 
     // Getters y Setters
@@ -131,8 +132,8 @@ public class NoConformidad {
     public String getCausaRaiz() { return causaRaiz; }
     public void setCausaRaiz(String causaRaiz) { this.causaRaiz = causaRaiz; }
 
-    public List<AccionCorrectiva> getAccionesCorrectivas() { return new ArrayList<>(accionesCorrectivas); }
-    public void setAccionesCorrectivas(List<AccionCorrectiva> accionesCorrectivas) { this.accionesCorrectivas = new ArrayList<>(accionesCorrectivas); }
+    public List<AccionCorrectiva> getAccionesCorrectivas() { return accionesCorrectivas; }
+    public void setAccionesCorrectivas(List<AccionCorrectiva> accionesCorrectivas) { this.accionesCorrectivas = CopiaEnEscritura.copiar(accionesCorrectivas); }
 
     public String getObservaciones() { return observaciones; }
     public void setObservaciones(String observaciones) { this.observaciones = observaciones; }
@@ -1,8 +1,9 @@
 package com.iso9001.models;
 
 import com.iso9001.enums.TipoProceso;
+import com.iso9001.utils.CopiaEnEscritura;
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class Proceso {
@@ -14,7 +15,8 @@ public class Proceso {
     private LocalDate fechaCreacion;
     private LocalDate fechaUltimaRevision;
     private boolean activo;
-    private List<Indicador> indicadores;
+    // Lista de solo lectura: cada cambio publica una lista nueva y el getter no copia
+    private volatile List<Indicador> indicadores;
     private String objetivo;
     private String alcance;
 
@@ -28,7 +30,7 @@ public class Proceso {
         this.fechaCreacion = LocalDate.now();
         this.fechaUltimaRevision = LocalDate.now();
         this.activo = true;
-        this.indicadores = new ArrayList<>();
+        this.indicadores = Collections.emptyList();
     }
 
     // Constructor para cargar desde archivo
@@ -41,19 +43,18 @@ public class Proceso {
 
     // Métodos de negocio
     public void agregarIndicador(Indicador indicador) {
-        if (!indicadores.contains(indicador)) {
-            indicadores.add(indicador);
-        }
+        indicadores = CopiaEnEscritura.agregarSiFalta(indicadores, indicador);
     }
 
     public void removerIndicador(Indicador indicador) {
-        indicadores.remove(indicador);
+        indicadores = CopiaEnEscritura.quitar(indicadores, indicador);
     }
 
     public double calcularEficienciaGeneral() {
-        if (indicadores.isEmpty()) return 0.0;
+        List<Indicador> actuales = indicadores;
+        if (actuales.isEmpty()) return 0.0;
 
-        return indicadores.stream()
+        return actuales.stream()
                 .mapToDouble(Indicador::getValorActual)
                 .average()
                 .orElse(0.0);
@@ -88,8 +89,8 @@ public class Proceso {
     public boolean isActivo() { return activo; }
     public void setActivo(boolean activo) { this.activo = activo; }
 
-    public List<Indicador> getIndicadores() { return new ArrayList<>(indicadores); }
-    public void setIndicadores(List<Indicador> indicadores) { this.indicadores = new ArrayList<>(indicadores); }
+    public List<Indicador> getIndicadores() { return indicadores; }
+    public void setIndicadores(List<Indicador> indicadores) { this.indicadores = CopiaEnEscritura.copiar(indicadores); }
 
     public String getObjetivo() { return objetivo; }
     public void setObjetivo(String objetivo) { this.objetivo = objetivo; }
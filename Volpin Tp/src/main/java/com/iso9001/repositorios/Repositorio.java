@@ -0,0 +1,42 @@
+package com.iso9001.repositorios;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Almacenamiento persistente de una entidad del Sistema ISO 9001
+ *
+ * Los managers mantienen las entidades en memoria y usan el repositorio solo
+ * para cargarlas al iniciar y para registrar cada alta, cambio o baja. La
+ * implementación (archivos CSV o base de datos embebida) se elige con db.tipo
+ * en configuracion.properties; ver Repositorios.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+public interface Repositorio<T> extends Closeable {
+
+    /**
+     * Entrega cada entidad guardada a medida que se lee
+     * @param consumidor Recibe las entidades en el orden del almacenamiento
+     */
+    void cargar(Consumer<T> consumidor);
+
+    /**
+     * Guarda el alta o modificación de una entidad
+     * @param entidad Entidad con su estado actual
+     */
+    void guardar(T entidad);
+
+    /**
+     * Guarda varias entidades de una vez (altas masivas o importaciones)
+     */
+    void guardarTodos(List<T> entidades);
+
+    /**
+     * Registra la baja de una entidad
+     * @param id Identificador de la entidad eliminada
+     */
+    void eliminar(String id);
+}
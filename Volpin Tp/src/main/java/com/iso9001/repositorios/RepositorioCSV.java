@@ -0,0 +1,68 @@
+package com.iso9001.repositorios;
+
+import com.iso9001.utils.BitacoraCambios;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Repositorio sobre el snapshot CSV y la bitácora de cambios de DatabaseHelper
+ *
+ * La bitácora se abre recién después de cargar, porque al abrirse cuenta los
+ * registros pendientes que la carga todavía tiene que reproducir. Al cerrar
+ * se compacta, así el próximo inicio lee el snapshot sin reproducir cambios.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+public class RepositorioCSV<T> implements Repositorio<T> {
+    private final Consumer<Consumer<T>> cargador;
+    private final Supplier<BitacoraCambios<T>> aperturaBitacora;
+    private BitacoraCambios<T> bitacora;
+
+    /**
+     * @param cargador Lectura de DatabaseHelper (por ejemplo DatabaseHelper::cargarProcesos)
+     * @param aperturaBitacora Abre la bitácora de la entidad
+     */
+    public RepositorioCSV(Consumer<Consumer<T>> cargador, Supplier<BitacoraCambios<T>> aperturaBitacora) {
+        this.cargador = cargador;
+        this.aperturaBitacora = aperturaBitacora;
+    }
+
+    @Override
+    public void cargar(Consumer<T> consumidor) {
+        cargador.accept(consumidor);
+        bitacora();
+    }
+
+    @Override
+    public void guardar(T entidad) {
+        bitacora().registrarActualizacion(entidad);
+    }
+
+    @Override
+    public void guardarTodos(List<T> entidades) {
+        bitacora().registrarActualizaciones(entidades);
+    }
+
+    @Override
+    public void eliminar(String id) {
+        bitacora().registrarEliminacion(id);
+    }
+
+    private synchronized BitacoraCambios<T> bitacora() {
+        if (bitacora == null) {
+            bitacora = aperturaBitacora.get();
+        }
+        return bitacora;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (bitacora != null) {
+            bitacora.compactarYCerrar();
+        }
+    }
+}
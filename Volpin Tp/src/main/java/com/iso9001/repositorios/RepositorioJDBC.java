@@ -0,0 +1,181 @@
+package com.iso9001.repositorios;
+
+import java.io.IOException;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Repositorio sobre una base de datos embebida (H2 o SQLite) vía JDBC
+ *
+ * Las sentencias se preparan una vez y se reutilizan. Un alta o cambio es un
+ * DELETE + INSERT por id dentro de una transacción, así funciona igual en
+ * ambos motores sin depender de MERGE ni de INSERT OR REPLACE. Las escrituras
+ * masivas se envían en lotes de TAMANIO_LOTE.
+ *
+ * Si la tabla está vacía al cargar, se completa con los datos CSV actuales
+ * (o los datos de ejemplo), de modo que pasar de db.tipo=CSV a una base de
+ * datos no pierde información.
+ *
+ * La conexión es compartida entre los repositorios: cada operación se
+ * sincroniza sobre ella para que las transacciones no se mezclen.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+public class RepositorioJDBC<T> implements Repositorio<T> {
+    private static final int TAMANIO_LOTE = 500;
+
+    private final Connection conexion;
+    private final TablaJDBC<T> tabla;
+    private final Consumer<Consumer<T>> datosIniciales;
+    private final PreparedStatement sentenciaInsertar;
+    private final PreparedStatement sentenciaEliminar;
+
+    /**
+     * Crea la tabla y sus índices si no existen y prepara las sentencias
+     * @param datosIniciales Origen de los datos con que se llena la tabla vacía
+     */
+    RepositorioJDBC(Connection conexion, TablaJDBC<T> tabla, Consumer<Consumer<T>> datosIniciales)
+            throws SQLException {
+        this.conexion = conexion;
+        this.tabla = tabla;
+        this.datosIniciales = datosIniciales;
+
+        synchronized (conexion) {
+            try (Statement sentencia = conexion.createStatement()) {
+                for (String sql : tabla.sentenciasCreacion()) {
+                    sentencia.execute(sql);
+                }
+            }
+            conexion.commit();
+            this.sentenciaInsertar = conexion.prepareStatement(tabla.sentenciaInsertar());
+            this.sentenciaEliminar = conexion.prepareStatement(tabla.sentenciaEliminar());
+        }
+    }
+
+    @Override
+    public void cargar(Consumer<T> consumidor) {
+        List<T> entidades = new ArrayList<>();
+        synchronized (conexion) {
+            try {
+                if (estaVacia()) {
+                    datosIniciales.accept(entidades::add);
+                    escribirLotes(entidades);
+                    System.out.println("Tabla " + tabla.getNombre() + " inicializada con " + entidades.size() + " registros");
+                } else {
+                    try (Statement sentencia = conexion.createStatement();
+                         ResultSet filas = sentencia.executeQuery(tabla.sentenciaSeleccionar())) {
+                        while (filas.next()) {
+                            try {
+                                entidades.add(tabla.leer(filas));
+                            } catch (SQLException | RuntimeException e) {
+                                System.err.println("Error al leer fila de " + tabla.getNombre() + ": " + e.getMessage());
+                            }
+                        }
+                    }
+                    conexion.commit();
+                }
+            } catch (SQLException e) {
+                System.err.println("Error al cargar " + tabla.getNombre() + ": " + e.getMessage());
+                deshacer();
+            }
+        }
+        // Los consumidores indexan en memoria; no hace falta retener la conexión
+        entidades.forEach(consumidor);
+    }
+
+    @Override
+    public void guardar(T entidad) {
+        synchronized (conexion) {
+            try {
+                sentenciaEliminar.setString(1, tabla.id(entidad));
+                sentenciaEliminar.executeUpdate();
+                tabla.asignarParametros(sentenciaInsertar, entidad);
+                sentenciaInsertar.executeUpdate();
+                conexion.commit();
+            } catch (SQLException e) {
+                System.err.println("Error al guardar en " + tabla.getNombre() + ": " + e.getMessage());
+                deshacer();
+            }
+        }
+    }
+
+    @Override
+    public void guardarTodos(List<T> entidades) {
+        synchronized (conexion) {
+            try {
+                escribirLotes(entidades);
+            } catch (SQLException e) {
+                System.err.println("Error al guardar en " + tabla.getNombre() + ": " + e.getMessage());
+                deshacer();
+            }
+        }
+    }
+
+    @Override
+    public void eliminar(String id) {
+        synchronized (conexion) {
+            try {
+                sentenciaEliminar.setString(1, id);
+                sentenciaEliminar.executeUpdate();
+                conexion.commit();
+            } catch (SQLException e) {
+                System.err.println("Error al eliminar de " + tabla.getNombre() + ": " + e.getMessage());
+                deshacer();
+            }
+        }
+    }
+
+    // Todas las entidades en una sola transacción, enviadas de a TAMANIO_LOTE;
+    // si un id se repite queda la última versión
+    private void escribirLotes(List<T> lista) throws SQLException {
+        Map<String, T> porId = new LinkedHashMap<>();
+        for (T entidad : lista) {
+            porId.put(tabla.id(entidad), entidad);
+        }
+        List<T> entidades = new ArrayList<>(porId.values());
+        for (int inicio = 0; inicio < entidades.size(); inicio += TAMANIO_LOTE) {
+            List<T> lote = entidades.subList(inicio, Math.min(inicio + TAMANIO_LOTE, entidades.size()));
+            for (T entidad : lote) {
+                sentenciaEliminar.setString(1, tabla.id(entidad));
+                sentenciaEliminar.addBatch();
+                tabla.asignarParametros(sentenciaInsertar, entidad);
+                sentenciaInsertar.addBatch();
+            }
+            sentenciaEliminar.executeBatch();
+            sentenciaInsertar.executeBatch();
+        }
+        conexion.commit();
+    }
+
+    private boolean estaVacia() throws SQLException {
+        try (Statement sentencia = conexion.createStatement();
+             ResultSet resultado = sentencia.executeQuery(tabla.sentenciaContar())) {
+            return !resultado.next() || resultado.getLong(1) == 0;
+        }
+    }
+
+    private void deshacer() {
+        try {
+            conexion.rollback();
+        } catch (SQLException e) {
+            System.err.println("Error al deshacer la transacción: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (conexion) {
+            try {
+                sentenciaInsertar.close();
+                sentenciaEliminar.close();
+            } catch (SQLException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+}
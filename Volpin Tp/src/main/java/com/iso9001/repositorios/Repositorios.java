@@ -0,0 +1,225 @@
+package com.iso9001.repositorios;
+
+import com.iso9001.enums.*;
+import com.iso9001.models.*;
+import com.iso9001.utils.BitacoraCambios;
+import com.iso9001.utils.Configuracion;
+import com.iso9001.utils.DatabaseHelper;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static com.iso9001.repositorios.TablaJDBC.*;
+
+/**
+ * Crea el repositorio de cada entidad según db.tipo en configuracion.properties
+ *
+ * Con CSV se usan los archivos de DatabaseHelper; con H2 o SQLite, una base
+ * embebida en el mismo proceso (sin servidor) en la URL de db.url. El driver
+ * JDBC debe estar en el classpath: si no está o la base no abre, se avisa y
+ * se sigue con CSV para que el sistema arranque igual.
+ *
+ * Las tablas tienen las mismas columnas que los CSV, más índices sobre las
+ * columnas por las que se consulta (proceso, estado, fechas límite).
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+public class Repositorios {
+
+    private static final TablaJDBC<Proceso> PROCESOS = new TablaJDBC<Proceso>("procesos", Proceso::getId, fila -> {
+        Proceso proceso = new Proceso(fila.getString("id"), fila.getString("nombre"), fila.getString("descripcion"),
+                TipoProceso.valueOf(fila.getString("tipo")), fila.getString("responsable"),
+                fila.getString("objetivo"), fila.getString("alcance"));
+        proceso.setFechaCreacion(fecha(fila, "fechaCreacion"));
+        proceso.setActivo(fila.getBoolean("activo"));
+        return proceso;
+    })
+            .columna("nombre", TEXTO, Proceso::getNombre)
+            .columna("descripcion", TEXTO, Proceso::getDescripcion)
+            .columna("tipo", CLAVE, Proceso::getTipo)
+            .columna("responsable", TEXTO, Proceso::getResponsable)
+            .columna("objetivo", TEXTO, Proceso::getObjetivo)
+            .columna("alcance", TEXTO, Proceso::getAlcance)
+            .columna("fechaCreacion", FECHA, Proceso::getFechaCreacion)
+            .columna("activo", LOGICO, Proceso::isActivo)
+            .indice("tipo");
+
+    private static final TablaJDBC<Indicador> INDICADORES = new TablaJDBC<Indicador>("indicadores", Indicador::getId, fila -> {
+        Indicador indicador = new Indicador(fila.getString("id"), fila.getString("nombre"),
+                fila.getString("descripcion"), TipoIndicador.valueOf(fila.getString("tipo")),
+                fila.getString("unidadMedida"), fila.getDouble("valorObjetivo"), fila.getString("procesoId"));
+        indicador.setValorActual(fila.getDouble("valorActual"));
+        indicador.setFechaUltimaMedicion(fecha(fila, "fechaUltimaMedicion"));
+        return indicador;
+    })
+            .columna("nombre", TEXTO, Indicador::getNombre)
+            .columna("descripcion", TEXTO, Indicador::getDescripcion)
+            .columna("tipo", CLAVE, Indicador::getTipo)
+            .columna("unidadMedida", TEXTO, Indicador::getUnidadMedida)
+            .columna("valorObjetivo", NUMERO, Indicador::getValorObjetivo)
+            .columna("valorActual", NUMERO, Indicador::getValorActual)
+            .columna("procesoId", CLAVE, Indicador::getProcesoId)
+            .columna("fechaUltimaMedicion", FECHA, Indicador::getFechaUltimaMedicion)
+            .indice("procesoId");
+
+    private static final TablaJDBC<NoConformidad> NO_CONFORMIDADES = new TablaJDBC<NoConformidad>("no_conformidades",
+            NoConformidad::getId, fila -> {
+        NoConformidad nc = new NoConformidad(fila.getString("id"), fila.getString("titulo"),
+                fila.getString("descripcion"), Prioridad.valueOf(fila.getString("prioridad")),
+                fila.getString("procesoAfectado"), fila.getString("responsableDeteccion"));
+        nc.setEstado(EstadoNoConformidad.valueOf(fila.getString("estado")));
+        nc.setFechaDeteccion(fecha(fila, "fechaDeteccion"));
+        if (fecha(fila, "fechaLimiteCorreccion") != null) {
+            nc.setFechaLimiteCorreccion(fecha(fila, "fechaLimiteCorreccion"));
+        }
+        nc.setCausaRaiz(fila.getString("causaRaiz"));
+        return nc;
+    })
+            .columna("titulo", TEXTO, NoConformidad::getTitulo)
+            .columna("descripcion", TEXTO, NoConformidad::getDescripcion)
+            .columna("estado", CLAVE, NoConformidad::getEstado)
+            .columna("prioridad", CLAVE, NoConformidad::getPrioridad)
+            .columna("fechaDeteccion", FECHA, NoConformidad::getFechaDeteccion)
+            .columna("fechaLimiteCorreccion", FECHA, NoConformidad::getFechaLimiteCorreccion)
+            .columna("procesoAfectado", CLAVE, NoConformidad::getProcesoAfectado)
+            .columna("responsableDeteccion", TEXTO, NoConformidad::getResponsableDeteccion)
+            .columna("causaRaiz", TEXTO, NoConformidad::getCausaRaiz)
+            .indice("procesoAfectado")
+            .indice("estado")
+            .indice("fechaLimiteCorreccion");
+
+    private static final TablaJDBC<Auditoria> AUDITORIAS = new TablaJDBC<Auditoria>("auditorias", Auditoria::getId, fila -> {
+        Auditoria auditoria = new Auditoria(fila.getString("id"), fila.getString("titulo"), fila.getString("tipo"),
+                fecha(fila, "fechaProgramada"), fila.getString("auditorLider"));
+        auditoria.setFechaRealizada(fecha(fila, "fechaRealizada"));
+        auditoria.setAuditores(lista(fila, "auditores"));
+        auditoria.setProcesosAuditados(lista(fila, "procesosAuditados"));
+        auditoria.setAlcance(fila.getString("alcance"));
+        auditoria.setObjetivos(fila.getString("objetivos"));
+        auditoria.setMetodologia(fila.getString("metodologia"));
+        auditoria.setHallazgos(lista(fila, "hallazgos"));
+        auditoria.setNoConformidadesDetectadas(lista(fila, "noConformidadesDetectadas"));
+        auditoria.setConclusion(fila.getString("conclusion"));
+        auditoria.setCalificacionGeneral(fila.getDouble("calificacionGeneral"));
+        auditoria.setCompletada(fila.getBoolean("completada"));
+        auditoria.setObservaciones(fila.getString("observaciones"));
+        return auditoria;
+    })
+            .columna("titulo", TEXTO, Auditoria::getTitulo)
+            .columna("tipo", TEXTO, Auditoria::getTipo)
+            .columna("fechaProgramada", FECHA, Auditoria::getFechaProgramada)
+            .columna("fechaRealizada", FECHA, Auditoria::getFechaRealizada)
+            .columna("auditorLider", TEXTO, Auditoria::getAuditorLider)
+            .columna("auditores", TEXTO, Auditoria::getAuditores)
+            .columna("procesosAuditados", TEXTO, Auditoria::getProcesosAuditados)
+            .columna("alcance", TEXTO, Auditoria::getAlcance)
+            .columna("objetivos", TEXTO, Auditoria::getObjetivos)
+            .columna("metodologia", TEXTO, Auditoria::getMetodologia)
+            .columna("hallazgos", TEXTO, Auditoria::getHallazgos)
+            .columna("noConformidadesDetectadas", TEXTO, Auditoria::getNoConformidadesDetectadas)
+            .columna("conclusion", TEXTO, Auditoria::getConclusion)
+            .columna("calificacionGeneral", NUMERO, Auditoria::getCalificacionGeneral)
+            .columna("completada", LOGICO, Auditoria::isCompletada)
+            .columna("observaciones", TEXTO, Auditoria::getObservaciones)
+            .indice("fechaProgramada");
+
+    private static final TablaJDBC<AccionCorrectiva> ACCIONES_CORRECTIVAS = new TablaJDBC<AccionCorrectiva>(
+            "acciones_correctivas", AccionCorrectiva::getId, fila -> {
+        AccionCorrectiva accion = new AccionCorrectiva(fila.getString("id"), fila.getString("descripcion"),
+                fila.getString("responsable"), fecha(fila, "fechaLimite"), fila.getString("noConformidadId"));
+        if (fila.getString("prioridad") != null) {
+            accion.setPrioridad(Prioridad.valueOf(fila.getString("prioridad")));
+        }
+        if (fecha(fila, "fechaInicio") != null) {
+            accion.setFechaInicio(fecha(fila, "fechaInicio"));
+        }
+        accion.setFechaCompletada(fecha(fila, "fechaCompletada"));
+        accion.setCompletada(fila.getBoolean("completada"));
+        accion.setResultadoObtenido(fila.getString("resultadoObtenido"));
+        accion.setCostoEstimado(fila.getDouble("costoEstimado"));
+        accion.setObservaciones(fila.getString("observaciones"));
+        return accion;
+    })
+            .columna("noConformidadId", CLAVE, AccionCorrectiva::getNoConformidadId)
+            .columna("descripcion", TEXTO, AccionCorrectiva::getDescripcion)
+            .columna("responsable", TEXTO, AccionCorrectiva::getResponsable)
+            .columna("prioridad", CLAVE, AccionCorrectiva::getPrioridad)
+            .columna("fechaInicio", FECHA, AccionCorrectiva::getFechaInicio)
+            .columna("fechaLimite", FECHA, AccionCorrectiva::getFechaLimite)
+            .columna("fechaCompletada", FECHA, AccionCorrectiva::getFechaCompletada)
+            .columna("completada", LOGICO, AccionCorrectiva::isCompletada)
+            .columna("resultadoObtenido", TEXTO, AccionCorrectiva::getResultadoObtenido)
+            .columna("costoEstimado", NUMERO, AccionCorrectiva::getCostoEstimado)
+            .columna("observaciones", TEXTO, AccionCorrectiva::getObservaciones)
+            .indice("noConformidadId")
+            .indice("fechaLimite");
+
+    private static Connection conexion;
+    private static boolean baseDatosNoDisponible;   // Evita reintentar con cada repositorio
+
+    public static Repositorio<Proceso> procesos(Supplier<List<Proceso>> fuenteSnapshot) {
+        return crear(PROCESOS, DatabaseHelper::cargarProcesos,
+                () -> DatabaseHelper.abrirBitacoraProcesos(fuenteSnapshot));
+    }
+
+    public static Repositorio<Indicador> indicadores(Supplier<List<Indicador>> fuenteSnapshot) {
+        return crear(INDICADORES, DatabaseHelper::cargarIndicadores,
+                () -> DatabaseHelper.abrirBitacoraIndicadores(fuenteSnapshot));
+    }
+
+    public static Repositorio<NoConformidad> noConformidades(Supplier<List<NoConformidad>> fuenteSnapshot) {
+        return crear(NO_CONFORMIDADES, DatabaseHelper::cargarNoConformidades,
+                () -> DatabaseHelper.abrirBitacoraNoConformidades(fuenteSnapshot));
+    }
+
+    public static Repositorio<Auditoria> auditorias(Supplier<List<Auditoria>> fuenteSnapshot) {
+        return crear(AUDITORIAS, DatabaseHelper::cargarAuditorias,
+                () -> DatabaseHelper.abrirBitacoraAuditorias(fuenteSnapshot));
+    }
+
+    public static Repositorio<AccionCorrectiva> accionesCorrectivas(Supplier<List<AccionCorrectiva>> fuenteSnapshot) {
+        return crear(ACCIONES_CORRECTIVAS, DatabaseHelper::cargarAccionesCorrectivas,
+                () -> DatabaseHelper.abrirBitacoraAccionesCorrectivas(fuenteSnapshot));
+    }
+
+    private static <T> Repositorio<T> crear(TablaJDBC<T> tabla, Consumer<Consumer<T>> cargadorCSV,
+                                            Supplier<BitacoraCambios<T>> aperturaBitacora) {
+        if (Configuracion.getTipoAlmacenamiento().esBaseDatos()) {
+            Connection conexion = conexion();
+            if (conexion != null) {
+                try {
+                    return new RepositorioJDBC<>(conexion, tabla, cargadorCSV);
+                } catch (SQLException e) {
+                    System.err.println("⚠ No se pudo preparar la tabla " + tabla.getNombre()
+                            + " (" + e.getMessage() + "), se usan archivos CSV");
+                }
+            }
+        }
+        return new RepositorioCSV<>(cargadorCSV, aperturaBitacora);
+    }
+
+    // Una sola conexión para todos los repositorios; se abre con el primero.
+    // Devuelve null si la base no está disponible.
+    private static synchronized Connection conexion() {
+        if (baseDatosNoDisponible) return null;
+        try {
+            if (conexion == null || conexion.isClosed()) {
+                DatabaseHelper.crearCarpetaData();
+                conexion = DriverManager.getConnection(Configuracion.getUrlBaseDatos(),
+                        Configuracion.getUsuarioBaseDatos(), Configuracion.getClaveBaseDatos());
+                conexion.setAutoCommit(false);
+                System.out.println("✓ Base de datos abierta: " + Configuracion.getUrlBaseDatos());
+            }
+            return conexion;
+        } catch (SQLException e) {
+            System.err.println("⚠ Base de datos no disponible (" + e.getMessage() + "), se usan archivos CSV");
+            baseDatosNoDisponible = true;
+            return null;
+        }
+    }
+}
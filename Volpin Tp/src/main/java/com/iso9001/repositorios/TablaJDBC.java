@@ -0,0 +1,153 @@
+package com.iso9001.repositorios;
+
+import com.iso9001.utils.DatabaseHelper;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Definición de la tabla donde RepositorioJDBC guarda una entidad: columnas,
+ * índices y cómo convertir una fila en la entidad.
+ *
+ * Solo usa tipos y sentencias que aceptan tanto H2 como SQLite: fechas en
+ * texto ISO-8601 (ordenan igual que las fechas), enums por su nombre y listas
+ * en una sola columna con el formato de DatabaseHelper.unirLista.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+class TablaJDBC<T> {
+    static final String TEXTO = "VARCHAR(4000)";
+    static final String CLAVE = "VARCHAR(64)";
+    static final String FECHA = "VARCHAR(10)";
+    static final String NUMERO = "DOUBLE";
+    static final String LOGICO = "BOOLEAN";
+
+    @FunctionalInterface
+    interface LectorFila<T> {
+        T leer(ResultSet fila) throws SQLException;
+    }
+
+    private final String nombre;
+    private final Function<T, String> extractorId;
+    private final LectorFila<T> lector;
+    private final List<String> columnas = new ArrayList<>();
+    private final List<String> tipos = new ArrayList<>();
+    private final List<Function<T, ?>> valores = new ArrayList<>();
+    private final List<String> indices = new ArrayList<>();
+
+    /**
+     * @param nombre Nombre de la tabla
+     * @param extractorId Clave primaria, guardada en la columna "id"
+     * @param lector Arma la entidad a partir de una fila
+     */
+    TablaJDBC(String nombre, Function<T, String> extractorId, LectorFila<T> lector) {
+        this.nombre = nombre;
+        this.extractorId = extractorId;
+        this.lector = lector;
+        columna("id", CLAVE + " PRIMARY KEY", extractorId);
+    }
+
+    TablaJDBC<T> columna(String columna, String tipo, Function<T, ?> valor) {
+        columnas.add(columna);
+        tipos.add(tipo);
+        valores.add(valor);
+        return this;
+    }
+
+    TablaJDBC<T> indice(String columna) {
+        indices.add(columna);
+        return this;
+    }
+
+    String getNombre() {
+        return nombre;
+    }
+
+    String id(T entidad) {
+        return extractorId.apply(entidad);
+    }
+
+    // Sentencias
+
+    List<String> sentenciasCreacion() {
+        List<String> sentencias = new ArrayList<>();
+        StringBuilder tabla = new StringBuilder("CREATE TABLE IF NOT EXISTS ").append(nombre).append(" (");
+        for (int i = 0; i < columnas.size(); i++) {
+            if (i > 0) {
+                tabla.append(", ");
+            }
+            tabla.append(columnas.get(i)).append(' ').append(tipos.get(i));
+        }
+        sentencias.add(tabla.append(')').toString());
+
+        for (String columna : indices) {
+            sentencias.add("CREATE INDEX IF NOT EXISTS idx_" + nombre + "_" + columna
+                    + " ON " + nombre + " (" + columna + ")");
+        }
+        return sentencias;
+    }
+
+    String sentenciaInsertar() {
+        return "INSERT INTO " + nombre + " (" + String.join(", ", columnas) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columnas.size(), "?")) + ")";
+    }
+
+    String sentenciaEliminar() {
+        return "DELETE FROM " + nombre + " WHERE id = ?";
+    }
+
+    String sentenciaSeleccionar() {
+        return "SELECT " + String.join(", ", columnas) + " FROM " + nombre + " ORDER BY id";
+    }
+
+    String sentenciaContar() {
+        return "SELECT COUNT(*) FROM " + nombre;
+    }
+
+    // Conversión entre entidades y filas
+
+    void asignarParametros(PreparedStatement sentencia, T entidad) throws SQLException {
+        for (int i = 0; i < valores.size(); i++) {
+            Object valor = valores.get(i).apply(entidad);
+            int parametro = i + 1;
+            if (valor == null) {
+                sentencia.setNull(parametro, Types.VARCHAR);
+            } else if (valor instanceof Enum) {
+                sentencia.setString(parametro, ((Enum<?>) valor).name());
+            } else if (valor instanceof LocalDate) {
+                sentencia.setString(parametro, valor.toString());
+            } else if (valor instanceof List) {
+                @SuppressWarnings("unchecked")
+                List<String> lista = (List<String>) valor;
+                sentencia.setString(parametro, DatabaseHelper.unirLista(lista));
+            } else if (valor instanceof Double) {
+                sentencia.setDouble(parametro, (Double) valor);
+            } else if (valor instanceof Boolean) {
+                sentencia.setBoolean(parametro, (Boolean) valor);
+            } else {
+                sentencia.setString(parametro, valor.toString());
+            }
+        }
+    }
+
+    T leer(ResultSet fila) throws SQLException {
+        return lector.leer(fila);
+    }
+
+    static LocalDate fecha(ResultSet fila, String columna) throws SQLException {
+        String valor = fila.getString(columna);
+        return valor != null && !valor.isEmpty() ? LocalDate.parse(valor) : null;
+    }
+
+    static List<String> lista(ResultSet fila, String columna) throws SQLException {
+        return DatabaseHelper.parsearLista(fila.getString(columna));
+    }
+}
@@ -0,0 +1,164 @@
+package com.iso9001.utils;
+
+import com.iso9001.enums.Granularidad;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Almacén de series temporales de indicadores para el Sistema ISO 9001
+ *
+ * Mantiene una SerieTemporal por indicador dentro de una carpeta. Las series se
+ * abren bajo demanda y solo se conservan abiertas las usadas más recientemente,
+ * para no agotar descriptores de archivo con miles de indicadores. La retención
+ * se aplica cada vez que una serie se abre.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+public class AlmacenSeries implements Closeable {
+    private static final int MAXIMO_SERIES_ABIERTAS = 64;
+
+    private final File carpeta;
+    private final int aniosRetencion;
+    private final Map<String, SerieTemporal> abiertas;
+
+    /**
+     * @param carpeta Carpeta donde se guardan los archivos .fechas/.valores
+     * @param aniosRetencion Años de mediciones a conservar (0 = sin límite)
+     */
+    public AlmacenSeries(File carpeta, int aniosRetencion) {
+        this.carpeta = carpeta;
+        this.aniosRetencion = aniosRetencion;
+        this.abiertas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SerieTemporal> masAntigua) {
+                if (size() > MAXIMO_SERIES_ABIERTAS) {
+                    cerrar(masAntigua.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Agrega una medición a la serie del indicador
+     */
+    public synchronized void agregar(String indicadorId, LocalDate fecha, double valor) {
+        try {
+            serie(indicadorId).agregar(fecha, valor);
+        } catch (IOException e) {
+            System.err.println("Error al guardar medición de " + indicadorId + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Agrega varias mediciones del indicador, ordenadas por fecha, con una
+     * escritura agrupada
+     * @param dias Días epoch, de menor a mayor
+     * @param valores Valores alineados con dias
+     * @param total Cantidad de mediciones a tomar de los arreglos
+     */
+    public synchronized void agregarTodas(String indicadorId, int[] dias, double[] valores, int total) {
+        try {
+            serie(indicadorId).agregarTodas(dias, valores, total);
+        } catch (IOException e) {
+            System.err.println("Error al guardar mediciones de " + indicadorId + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Carga en el historial circular las últimas mediciones guardadas
+     */
+    public synchronized void cargarHistorial(String indicadorId, HistorialCircular historial) {
+        if (!SerieTemporal.existe(carpeta, nombreArchivo(indicadorId))) return;
+        try {
+            int capacidad = historial.capacidad();
+            double[] valores = new double[capacidad];
+            int[] dias = new int[capacidad];
+            int[] total = {0};
+            serie(indicadorId).ultimas(capacidad, (dia, valor) -> {
+                valores[total[0]] = valor;
+                dias[total[0]] = dia;
+                total[0]++;
+            });
+            // Se publica de una vez: los lectores nunca ven el historial vacío
+            historial.reemplazar(valores, dias, total[0]);
+        } catch (IOException e) {
+            System.err.println("Error al leer serie de " + indicadorId + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Recorre las mediciones del indicador entre dos fechas (inclusive)
+     */
+    public synchronized void consultar(String indicadorId, LocalDate desde, LocalDate hasta,
+                                       SerieTemporal.ConsumidorMedicion consumidor) {
+        if (!SerieTemporal.existe(carpeta, nombreArchivo(indicadorId))) return;
+        try {
+            serie(indicadorId).consultar(desde, hasta, consumidor);
+        } catch (IOException e) {
+            System.err.println("Error al consultar serie de " + indicadorId + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Resume las mediciones del indicador por día, semana o mes
+     */
+    public synchronized List<SerieTemporal.Punto> resumir(String indicadorId, LocalDate desde, LocalDate hasta,
+                                                          Granularidad granularidad) {
+        if (!SerieTemporal.existe(carpeta, nombreArchivo(indicadorId))) return new ArrayList<>();
+        try {
+            return serie(indicadorId).resumir(desde, hasta, granularidad);
+        } catch (IOException e) {
+            System.err.println("Error al resumir serie de " + indicadorId + ": " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Cierra y borra la serie del indicador
+     */
+    public synchronized void eliminar(String indicadorId) {
+        SerieTemporal serie = abiertas.remove(indicadorId);
+        if (serie != null) {
+            cerrar(serie);
+        }
+        SerieTemporal.eliminarArchivos(carpeta, nombreArchivo(indicadorId));
+    }
+
+    private SerieTemporal serie(String indicadorId) throws IOException {
+        SerieTemporal serie = abiertas.get(indicadorId);
+        if (serie == null) {
+            LocalDate fechaMinima = aniosRetencion > 0 ? LocalDate.now().minusYears(aniosRetencion) : null;
+            serie = new SerieTemporal(carpeta, nombreArchivo(indicadorId), fechaMinima);
+            abiertas.put(indicadorId, serie);
+        }
+        return serie;
+    }
+
+    // Los ids se usan como nombre de archivo: se reemplazan caracteres no seguros
+    private static String nombreArchivo(String indicadorId) {
+        return indicadorId.replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+
+    private static void cerrar(SerieTemporal serie) {
+        try {
+            serie.close();
+        } catch (IOException e) {
+            System.err.println("Error al cerrar serie: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        abiertas.values().forEach(AlmacenSeries::cerrar);
+        abiertas.clear();
+    }
+}
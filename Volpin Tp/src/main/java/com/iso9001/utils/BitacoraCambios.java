@@ -0,0 +1,299 @@
+package com.iso9001.utils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bitácora de cambios (append-only) para una entidad del Sistema ISO 9001
+ *
+ * Cada alta o modificación agrega una línea "U,&lt;fila CSV&gt;" y cada baja una
+ * línea "D,&lt;id&gt;", de modo que una escritura cuesta un solo registro en lugar
+ * de reescribir el CSV completo. Al superar el umbral de registros la bitácora
+ * se compacta en segundo plano:
+ * <ol>
+ *   <li>se rota el archivo .log a .log.1 (bajo el mismo lock que las escrituras),</li>
+ *   <li>se copia la lista de entidades en el hilo que disparó la compactación,</li>
+ *   <li>un hilo de fondo escribe el snapshot CSV y luego borra .log.1.</li>
+ * </ol>
+ * Al cargar se lee el snapshot y se reproducen .log.1 y .log, en ese orden.
+ * La reproducción es idempotente, así que una caída en cualquier punto de la
+ * compactación no pierde cambios.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+public class BitacoraCambios<T> implements Closeable {
+    private static final String OPERACION_ACTUALIZAR = "U";
+    private static final String OPERACION_ELIMINAR = "D";
+
+    private static final ExecutorService COMPACTADOR = Executors.newSingleThreadExecutor(r -> {
+        Thread hilo = new Thread(r, "compactador-bitacoras");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private final File archivoLog;
+    private final File archivoRotado;
+    private final Function<T, String> formateador;
+    private final EscritorSnapshot<T> escritorSnapshot;
+    private final Supplier<List<T>> fuenteSnapshot;
+    private final int umbralCompactacion;
+    private final BooleanSupplier snapshotAlDia;
+
+    /**
+     * Escritura del snapshot completo; debe fallar con excepción para que la
+     * bitácora rotada no se descarte.
+     */
+    @FunctionalInterface
+    public interface EscritorSnapshot<T> {
+        void escribir(List<T> entidades) throws IOException;
+    }
+
+    private Writer writer;
+    private int registrosPendientes;
+    private Future<?> compactacionEnCurso;
+
+    /**
+     * @param archivoLog Archivo de la bitácora (por ejemplo procesos.log)
+     * @param formateador Convierte una entidad en su fila CSV
+     * @param escritorSnapshot Escribe el snapshot CSV completo a partir de una lista
+     * @param fuenteSnapshot Devuelve una copia de las entidades actuales; se invoca en el hilo que escribe
+     * @param umbralCompactacion Cantidad de registros que dispara la compactación
+     * @param snapshotAlDia Indica si los archivos de snapshot reflejan el último snapshot
+     *                      escrito; si no, se regeneran al cerrar aunque no haya cambios
+     */
+    public BitacoraCambios(File archivoLog, Function<T, String> formateador,
+                           EscritorSnapshot<T> escritorSnapshot, Supplier<List<T>> fuenteSnapshot,
+                           int umbralCompactacion, BooleanSupplier snapshotAlDia) {
+        this.archivoLog = archivoLog;
+        this.archivoRotado = archivoRotado(archivoLog);
+        this.formateador = formateador;
+        this.escritorSnapshot = escritorSnapshot;
+        this.fuenteSnapshot = fuenteSnapshot;
+        this.umbralCompactacion = umbralCompactacion;
+        this.snapshotAlDia = snapshotAlDia;
+        this.registrosPendientes = contarLineas(archivoLog) + contarLineas(archivoRotado);
+    }
+
+    /**
+     * Registra el alta o modificación de una entidad
+     * @param entidad Entidad con su estado actual
+     */
+    public synchronized void registrarActualizacion(T entidad) {
+        escribir(Collections.singletonList(OPERACION_ACTUALIZAR + "," + formateador.apply(entidad)));
+    }
+
+    /**
+     * Registra varias altas o modificaciones con una sola escritura en disco
+     * @param entidades Entidades con su estado actual
+     */
+    public synchronized void registrarActualizaciones(List<T> entidades) {
+        if (entidades.isEmpty()) return;
+        List<String> lineas = new ArrayList<>(entidades.size());
+        for (T entidad : entidades) {
+            lineas.add(OPERACION_ACTUALIZAR + "," + formateador.apply(entidad));
+        }
+        escribir(lineas);
+    }
+
+    /**
+     * Registra la baja de una entidad
+     * @param id Identificador de la entidad eliminada
+     */
+    public synchronized void registrarEliminacion(String id) {
+        escribir(Collections.singletonList(OPERACION_ELIMINAR + "," + DatabaseHelper.campo(id)));
+    }
+
+    private void escribir(List<String> lineas) {
+        try {
+            if (writer == null) {
+                archivoLog.getAbsoluteFile().getParentFile().mkdirs();
+                writer = new BufferedWriter(new OutputStreamWriter(
+                        new FileOutputStream(archivoLog, true), StandardCharsets.UTF_8));
+            }
+            for (String linea : lineas) {
+                writer.write(linea);
+                writer.write(System.lineSeparator());
+            }
+            writer.flush();
+            registrosPendientes += lineas.size();
+        } catch (IOException e) {
+            System.err.println("Error al escribir bitácora " + archivoLog.getName() + ": " + e.getMessage());
+            return;
+        }
+
+        if (registrosPendientes >= umbralCompactacion) {
+            compactar();
+        }
+    }
+
+    /**
+     * Rota la bitácora y programa la escritura del snapshot en segundo plano.
+     * Si ya hay una compactación en curso no hace nada.
+     */
+    public synchronized void compactar() {
+        if (compactacionEnCurso != null && !compactacionEnCurso.isDone()) {
+            return;
+        }
+
+        try {
+            rotar();
+        } catch (IOException e) {
+            System.err.println("Error al rotar bitácora " + archivoLog.getName() + ": " + e.getMessage());
+            return;
+        }
+
+        // La copia se toma bajo el lock: todo lo anterior quedó en .log.1 y
+        // todo lo posterior irá al nuevo .log
+        List<T> copia = fuenteSnapshot.get();
+        registrosPendientes = 0;
+        compactacionEnCurso = COMPACTADOR.submit(() -> {
+            try {
+                escritorSnapshot.escribir(copia);
+            } catch (IOException e) {
+                // Sin snapshot nuevo .log.1 se conserva y se reintenta en la próxima compactación
+                System.err.println("Error al compactar " + archivoLog.getName() + ": " + e.getMessage());
+                return;
+            }
+            if (!archivoRotado.delete() && archivoRotado.exists()) {
+                System.err.println("No se pudo borrar " + archivoRotado.getName());
+            }
+        });
+    }
+
+    /**
+     * Espera a que termine la compactación en curso, si la hay
+     */
+    public void esperarCompactacion() {
+        Future<?> pendiente;
+        synchronized (this) {
+            pendiente = compactacionEnCurso;
+        }
+        if (pendiente == null) return;
+        try {
+            pendiente.get();
+        } catch (Exception e) {
+            System.err.println("Error en compactación de " + archivoLog.getName() + ": " + e.getMessage());
+        }
+    }
+
+    private void rotar() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+        if (!archivoLog.exists()) return;
+
+        if (archivoRotado.exists()) {
+            // Restos de una compactación interrumpida: el nuevo snapshot también los cubre
+            try (OutputStream salida = new FileOutputStream(archivoRotado, true)) {
+                Files.copy(archivoLog.toPath(), salida);
+            }
+            Files.delete(archivoLog.toPath());
+        } else if (!archivoLog.renameTo(archivoRotado)) {
+            throw new IOException("No se pudo renombrar " + archivoLog.getName());
+        }
+    }
+
+    /**
+     * Al cerrar la aplicación: compacta si quedan cambios en la bitácora o si el
+     * snapshot no está al día, espera a que se escriba y cierra, para que el
+     * próximo inicio lea solo el snapshot.
+     */
+    public void compactarYCerrar() throws IOException {
+        synchronized (this) {
+            if (registrosPendientes > 0 || !snapshotAlDia.getAsBoolean()) {
+                compactar();
+            }
+        }
+        esperarCompactacion();
+        close();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    /**
+     * Aplica sobre las entidades cargadas del snapshot los cambios de .log.1 y .log
+     * @param archivoLog Archivo de la bitácora
+     * @param entidades Entidades indexadas por id; se modifica en el lugar
+     * @param parser Convierte una fila CSV en entidad
+     * @param extractorId Obtiene el id de una entidad
+     * @return Cantidad de registros aplicados
+     */
+    public static <T> int reproducir(File archivoLog, Map<String, T> entidades,
+                                     Function<LectorCSV.Registro, T> parser, Function<T, String> extractorId) {
+        return reproducirArchivo(archivoRotado(archivoLog), entidades, parser, extractorId)
+                + reproducirArchivo(archivoLog, entidades, parser, extractorId);
+    }
+
+    /**
+     * @return true si existe algún cambio pendiente de compactar para el archivo indicado
+     */
+    public static boolean hayCambios(File archivoLog) {
+        return archivoLog.length() > 0 || archivoRotado(archivoLog).length() > 0;
+    }
+
+    private static <T> int reproducirArchivo(File archivo, Map<String, T> entidades,
+                                             Function<LectorCSV.Registro, T> parser, Function<T, String> extractorId) {
+        if (!archivo.exists()) return 0;
+
+        int aplicados = 0;
+        try (LectorCSV lector = LectorCSV.abrir(archivo)) {
+            while (lector.hasNext()) {
+                LectorCSV.Registro datos = lector.next();
+                try {
+                    String operacion = datos.extraerPrimerCampo();
+                    if (OPERACION_ELIMINAR.equals(operacion)) {
+                        entidades.remove(datos.campo(0));
+                    } else if (OPERACION_ACTUALIZAR.equals(operacion)) {
+                        T entidad = parser.apply(datos);
+                        entidades.put(extractorId.apply(entidad), entidad);
+                    } else {
+                        System.err.println("Operación desconocida en " + archivo.getName() + ": " + operacion);
+                        continue;
+                    }
+                    aplicados++;
+                } catch (Exception e) {
+                    // Una última línea truncada por una caída no invalida el resto
+                    System.err.println("Error al reproducir línea " + datos.getNumeroLinea()
+                            + " de " + archivo.getName() + " - " + e.getMessage());
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error al leer bitácora " + archivo.getName() + ": " + e.getMessage());
+        }
+        return aplicados;
+    }
+
+    private static File archivoRotado(File archivoLog) {
+        return new File(archivoLog.getPath() + ".1");
+    }
+
+    private static int contarLineas(File archivo) {
+        if (!archivo.exists()) return 0;
+        try (BufferedReader reader = Files.newBufferedReader(archivo.toPath(), StandardCharsets.UTF_8)) {
+            int lineas = 0;
+            while (reader.readLine() != null) lineas++;
+            return lineas;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.iso9001.utils;
+
+import com.iso9001.enums.TipoAlmacenamiento;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Configuración del Sistema ISO 9001 leída de configuracion.properties
+ *
+ * El archivo se lee una sola vez, la primera vez que se consulta una clave.
+ * Si no existe o falta una clave se usa el valor por defecto indicado, así
+ * el sistema arranca igual sin configuración.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+public class Configuracion {
+    private static final String[] UBICACIONES = {
+            "resources/config/configuracion.properties",
+            "resourses/config/configuracion.properties"
+    };
+
+    private static Properties propiedades;
+
+    public static synchronized String obtener(String clave, String valorPorDefecto) {
+        if (propiedades == null) {
+            propiedades = cargar();
+        }
+        String valor = propiedades.getProperty(clave);
+        return valor != null && !valor.trim().isEmpty() ? valor.trim() : valorPorDefecto;
+    }
+
+    public static int obtenerEntero(String clave, int valorPorDefecto) {
+        try {
+            return Integer.parseInt(obtener(clave, String.valueOf(valorPorDefecto)));
+        } catch (NumberFormatException e) {
+            System.err.println("Valor inválido para " + clave + ", se usa " + valorPorDefecto);
+            return valorPorDefecto;
+        }
+    }
+
+    public static boolean obtenerBooleano(String clave, boolean valorPorDefecto) {
+        return Boolean.parseBoolean(obtener(clave, String.valueOf(valorPorDefecto)));
+    }
+
+    /**
+     * @return Almacenamiento elegido en db.tipo; CSV si falta o no se reconoce
+     */
+    public static TipoAlmacenamiento getTipoAlmacenamiento() {
+        String tipo = obtener("db.tipo", TipoAlmacenamiento.CSV.name());
+        try {
+            return TipoAlmacenamiento.valueOf(tipo.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("db.tipo desconocido: " + tipo + ", se usan archivos CSV");
+            return TipoAlmacenamiento.CSV;
+        }
+    }
+
+    /**
+     * @return URL JDBC de db.url, o la predeterminada del tipo de almacenamiento
+     */
+    public static String getUrlBaseDatos() {
+        return obtener("db.url", getTipoAlmacenamiento().getUrlPorDefecto());
+    }
+
+    public static String getUsuarioBaseDatos() {
+        return obtener("db.usuario", "");
+    }
+
+    public static String getClaveBaseDatos() {
+        return obtener("db.clave", "");
+    }
+
+    // Properties.load lee ISO-8859-1, la codificación del archivo
+    private static Properties cargar() {
+        Properties resultado = new Properties();
+        for (String ubicacion : UBICACIONES) {
+            File archivo = new File(ubicacion);
+            if (!archivo.exists()) continue;
+
+            try (InputStream entrada = new FileInputStream(archivo)) {
+                resultado.load(entrada);
+                System.out.println("Configuración cargada de " + ubicacion);
+            } catch (IOException e) {
+                System.err.println("Error al leer la configuración: " + e.getMessage());
+            }
+            return resultado;
+        }
+        System.out.println("No se encontró configuracion.properties, se usan valores por defecto");
+        return resultado;
+    }
+}
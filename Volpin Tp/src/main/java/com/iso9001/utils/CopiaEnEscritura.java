@@ -0,0 +1,59 @@
+package com.iso9001.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Listas inmutables publicadas por copia en escritura
+ *
+ * Las entidades guardan sus listas (hallazgos, auditores, acciones...) como
+ * listas de solo lectura y las devuelven tal cual, sin copiar en cada lectura.
+ * Cada modificación arma una lista nueva y reemplaza la referencia: quien ya
+ * tenía la anterior la sigue recorriendo sin cambios, aunque otro hilo agregue
+ * elementos mientras tanto. Conviene para listas cortas que se leen mucho más
+ * de lo que se modifican.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+public class CopiaEnEscritura {
+
+    /**
+     * @param elementos Elementos a publicar (puede ser null)
+     * @return Lista de solo lectura con una copia de los elementos
+     */
+    public static <T> List<T> copiar(Collection<? extends T> elementos) {
+        if (elementos == null || elementos.isEmpty()) return Collections.emptyList();
+        return Collections.unmodifiableList(new ArrayList<>(elementos));
+    }
+
+    /**
+     * @return Lista nueva con el elemento agregado al final
+     */
+    public static <T> List<T> agregar(List<T> lista, T elemento) {
+        List<T> copia = new ArrayList<>(lista.size() + 1);
+        copia.addAll(lista);
+        copia.add(elemento);
+        return Collections.unmodifiableList(copia);
+    }
+
+    /**
+     * @return Lista nueva con el elemento agregado, o la misma si ya lo contenía
+     */
+    public static <T> List<T> agregarSiFalta(List<T> lista, T elemento) {
+        return lista.contains(elemento) ? lista : agregar(lista, elemento);
+    }
+
+    /**
+     * @return Lista nueva sin la primera aparición del elemento, o la misma si no estaba
+     */
+    public static <T> List<T> quitar(List<T> lista, Object elemento) {
+        int posicion = lista.indexOf(elemento);
+        if (posicion < 0) return lista;
+        List<T> copia = new ArrayList<>(lista);
+        copia.remove(posicion);
+        return Collections.unmodifiableList(copia);
+    }
+}
@@ -3,226 +3,697 @@ package com.iso9001.utils;
 import com.iso9001.models.*;
 import com.iso9001.enums.*;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class DatabaseHelper {
     private static final String DATA_FOLDER = "resources/data/";
-    private static final String SEPARADOR = ",";
     private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final String SEPARADOR = ",";
+    private static final int UMBRAL_COMPACTACION = 500;
+    private static final int RETENCION_SERIES_ANIOS = 5;
+
+    private static final String ENCABEZADO_PROCESOS =
+            "id,nombre,descripcion,tipo,responsable,objetivo,alcance,fechaCreacion,activo";
+    private static final String ENCABEZADO_INDICADORES =
+            "id,nombre,descripcion,tipo,unidadMedida,valorObjetivo,valorActual,procesoId,fechaUltimaMedicion";
+    private static final String ENCABEZADO_NO_CONFORMIDADES =
+            "id,titulo,descripcion,estado,prioridad,fechaDeteccion,procesoAfectado,responsableDeteccion,causaRaiz";
+    private static final String ENCABEZADO_AUDITORIAS =
+            "id,titulo,tipo,fechaProgramada,fechaRealizada,auditorLider,auditores,procesosAuditados,alcance,"
+                    + "objetivos,metodologia,hallazgos,noConformidadesDetectadas,conclusion,calificacionGeneral,"
+                    + "completada,observaciones";
+    private static final String ENCABEZADO_ACCIONES =
+            "id,noConformidadId,descripcion,responsable,prioridad,fechaInicio,fechaLimite,fechaCompletada,"
+                    + "completada,resultadoObtenido,costoEstimado,observaciones";
+
+    // Separador y escape de los elementos de una lista guardada en un solo campo
+    private static final char SEPARADOR_LISTA = '|';
+    private static final char ESCAPE_LISTA = '\\';
+
+    // Snapshots binarios: copia de cada CSV que se lee al iniciar sin parsear texto
+    private static final SnapshotBinario.Codificador<Proceso> BINARIO_PROCESOS =
+            SnapshotBinario.codificador(DatabaseHelper::escribirProcesoBinario, DatabaseHelper::leerProcesoBinario);
+    private static final SnapshotBinario.Codificador<Indicador> BINARIO_INDICADORES =
+            SnapshotBinario.codificador(DatabaseHelper::escribirIndicadorBinario, DatabaseHelper::leerIndicadorBinario);
+    private static final SnapshotBinario.Codificador<NoConformidad> BINARIO_NO_CONFORMIDADES =
+            SnapshotBinario.codificador(DatabaseHelper::escribirNoConformidadBinario, DatabaseHelper::leerNoConformidadBinario);
+    private static final SnapshotBinario.Codificador<Auditoria> BINARIO_AUDITORIAS =
+            SnapshotBinario.codificador(DatabaseHelper::escribirAuditoriaBinario, DatabaseHelper::leerAuditoriaBinario);
+    private static final SnapshotBinario.Codificador<AccionCorrectiva> BINARIO_ACCIONES =
+            SnapshotBinario.codificador(DatabaseHelper::escribirAccionCorrectivaBinario, DatabaseHelper::leerAccionCorrectivaBinario);
 
     // Métodos para Procesos
     public static void guardarProcesos(List<Proceso> procesos) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(DATA_FOLDER + "procesos.csv"))) {
-            // Escribir encabezados
-            writer.println("id,nombre,descripcion,tipo,responsable,objetivo,alcance,fechaCreacion,activo");
-
-            // Escribir datos
-            for (Proceso proceso : procesos) {
-                writer.printf("%s,%s,\"%s\",%s,%s,\"%s\",\"%s\",%s,%s%n",
-                        proceso.getId(),
-                        proceso.getNombre(),
-                        proceso.getDescripcion(),
-                        proceso.getTipo().name(),
-                        proceso.getResponsable(),
-                        proceso.getObjetivo() != null ? proceso.getObjetivo() : "",
-                        proceso.getAlcance() != null ? proceso.getAlcance() : "",
-                        proceso.getFechaCreacion().format(FORMATO_FECHA),
-                        proceso.isActivo()
-                );
-            }
+        try {
+            escribirSnapshot("procesos.csv", ENCABEZADO_PROCESOS, procesos, DatabaseHelper::formatearProceso, BINARIO_PROCESOS);
             System.out.println("Procesos guardados exitosamente");
         } catch (IOException e) {
             System.err.println("Error al guardar procesos: " + e.getMessage());
         }
     }
 
+    public static String formatearProceso(Proceso proceso) {
+        return String.join(SEPARADOR,
+                campo(proceso.getId()),
+                campo(proceso.getNombre()),
+                texto(proceso.getDescripcion()),
+                proceso.getTipo().name(),
+                campo(proceso.getResponsable()),
+                texto(proceso.getObjetivo()),
+                texto(proceso.getAlcance()),
+                proceso.getFechaCreacion().format(FORMATO_FECHA),
+                String.valueOf(proceso.isActivo())
+        );
+    }
+
+    /**
+     * Abre la bitácora de cambios de procesos
+     * @param fuenteSnapshot Devuelve una copia de los procesos actuales para compactar
+     */
+    public static BitacoraCambios<Proceso> abrirBitacoraProcesos(Supplier<List<Proceso>> fuenteSnapshot) {
+        return new BitacoraCambios<>(new File(DATA_FOLDER + "procesos.log"), DatabaseHelper::formatearProceso,
+                entidades -> escribirSnapshot("procesos.csv", ENCABEZADO_PROCESOS, entidades, DatabaseHelper::formatearProceso, BINARIO_PROCESOS),
+                fuenteSnapshot, UMBRAL_COMPACTACION,
+                () -> snapshotBinarioVigente("procesos.csv"));
+    }
+
     public static List<Proceso> cargarProcesos() {
         List<Proceso> procesos = new ArrayList<>();
-        File archivo = new File(DATA_FOLDER + "procesos.csv");
-
-        if (!archivo.exists()) {
-            System.out.println("Archivo de procesos no existe, creando datos de ejemplo...");
-            return crearDatosEjemploProcesos();
-        }
+        cargarProcesos(procesos::add);
+        return procesos;
+    }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(archivo))) {
-            reader.readLine();
-            String linea; // Saltar encabezados
+    /**
+     * Recorre el archivo de procesos entregando cada proceso a medida que se lee,
+     * sin materializar el archivo completo. Si el archivo no existe se entregan
+     * los datos de ejemplo. Los cambios pendientes en la bitácora se aplican
+     * sobre el snapshot antes de entregarlos.
+     */
+    public static void cargarProcesos(Consumer<Proceso> consumidor) {
+        cargarEntidades(new File(DATA_FOLDER + "procesos.csv"), new File(DATA_FOLDER + "procesos.log"),
+                DatabaseHelper::leerProcesos, BINARIO_PROCESOS,
+                () -> {
+                    System.out.println("Archivo de procesos no existe, creando datos de ejemplo...");
+                    return crearDatosEjemploProcesos();
+                },
+                DatabaseHelper::parsearProceso, Proceso::getId, consumidor);
+    }
 
-            while ((linea = reader.readLine()) != null) {
-                String[] datos = linea.split(SEPARADOR);
-                if (datos.length >= 8) {
+    private static void leerProcesos(File archivo, Consumer<Proceso> consumidor) {
+        int cargados = 0;
+        try (LectorCSV lector = LectorCSV.abrir(archivo).saltarEncabezado()) {
+            while (lector.hasNext()) {
+                LectorCSV.Registro datos = lector.next();
+                if (datos.cantidadCampos() >= 8) {
                     try {
-                        Proceso proceso = new Proceso(
-                                datos[0].trim(),                           // id
-                                datos[1].trim(),                           // nombre
-                                datos[2].replace("\"", "").trim(),         // descripcion
-                                TipoProceso.valueOf(datos[3].trim()),      // tipo
-                                datos[4].trim(),                           // responsable
-                                datos[5].replace("\"", "").trim(),         // objetivo
-                                datos[6].replace("\"", "").trim()          // alcance
-                        );
-
-                        // Configurar fecha y estado
-                        proceso.setFechaCreacion(LocalDate.parse(datos[7].trim(), FORMATO_FECHA));
-                        if (datos.length > 8) {
-                            proceso.setActivo(Boolean.parseBoolean(datos[8].trim()));
-                        }
-
-                        procesos.add(proceso);
+                        consumidor.accept(parsearProceso(datos));
+                        cargados++;
                     } catch (Exception e) {
-                        System.err.println("Error al procesar línea: " + linea + " - " + e.getMessage());
+                        System.err.println("Error al procesar línea: " + datos + " - " + e.getMessage());
                     }
                 }
             }
 
-            System.out.println("Cargados " + procesos.size() + " procesos");
-        } catch (IOException e) {
+            System.out.println("Cargados " + cargados + " procesos");
+        } catch (IOException | UncheckedIOException e) {
             System.err.println("Error al cargar procesos: " + e.getMessage());
         }
+    }
 
-        return procesos;
+    private static Proceso parsearProceso(LectorCSV.Registro datos) {
+        Proceso proceso = new Proceso(
+                datos.campo(0),                            // id
+                datos.campo(1),                            // nombre
+                datos.campo(2),                            // descripcion
+                TipoProceso.valueOf(datos.campo(3)),       // tipo
+                datos.campo(4),                            // responsable
+                datos.campo(5),                            // objetivo
+                datos.campo(6)                             // alcance
+        );
+
+        // Configurar fecha y estado
+        proceso.setFechaCreacion(LocalDate.parse(datos.campo(7), FORMATO_FECHA));
+        if (datos.cantidadCampos() > 8) {
+            proceso.setActivo(Boolean.parseBoolean(datos.campo(8)));
+        }
+        return proceso;
+    }
+
+    private static void escribirProcesoBinario(Proceso proceso, SnapshotBinario.Escritor salida) throws IOException {
+        salida.texto(proceso.getId());
+        salida.texto(proceso.getNombre());
+        salida.texto(proceso.getDescripcion());
+        salida.enumeracion(proceso.getTipo());
+        salida.texto(proceso.getResponsable());
+        salida.texto(proceso.getObjetivo());
+        salida.texto(proceso.getAlcance());
+        salida.fecha(proceso.getFechaCreacion());
+        salida.logico(proceso.isActivo());
+    }
+
+    private static Proceso leerProcesoBinario(SnapshotBinario.Lector entrada) {
+        Proceso proceso = new Proceso(entrada.texto(), entrada.texto(), entrada.texto(),
+                entrada.enumeracion(TipoProceso.values()), entrada.texto(), entrada.texto(), entrada.texto());
+        proceso.setFechaCreacion(entrada.fecha());
+        proceso.setActivo(entrada.logico());
+        return proceso;
     }
 
     // Métodos para Indicadores
     public static void guardarIndicadores(List<Indicador> indicadores) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(DATA_FOLDER + "indicadores.csv"))) {
-            writer.println("id,nombre,descripcion,tipo,unidadMedida,valorObjetivo,valorActual,procesoId,fechaUltimaMedicion");
-
-            for (Indicador indicador : indicadores) {
-                writer.printf("%s,%s,\"%s\",%s,%s,%.2f,%.2f,%s,%s%n",
-                        indicador.getId(),
-                        indicador.getNombre(),
-                        indicador.getDescripcion(),
-                        indicador.getTipo().name(),
-                        indicador.getUnidadMedida(),
-                        indicador.getValorObjetivo(),
-                        indicador.getValorActual(),
-                        indicador.getProcesoId(),
-                        indicador.getFechaUltimaMedicion().format(FORMATO_FECHA)
-                );
-            }
+        try {
+            escribirSnapshot("indicadores.csv", ENCABEZADO_INDICADORES, indicadores, DatabaseHelper::formatearIndicador, BINARIO_INDICADORES);
             System.out.println("Indicadores guardados exitosamente");
         } catch (IOException e) {
             System.err.println("Error al guardar indicadores: " + e.getMessage());
         }
     }
 
+    public static String formatearIndicador(Indicador indicador) {
+        return String.join(SEPARADOR,
+                campo(indicador.getId()),
+                campo(indicador.getNombre()),
+                texto(indicador.getDescripcion()),
+                indicador.getTipo().name(),
+                campo(indicador.getUnidadMedida()),
+                String.format(Locale.ROOT, "%.2f", indicador.getValorObjetivo()),
+                String.format(Locale.ROOT, "%.2f", indicador.getValorActual()),
+                campo(indicador.getProcesoId()),
+                indicador.getFechaUltimaMedicion() != null ? indicador.getFechaUltimaMedicion().format(FORMATO_FECHA) : ""
+        );
+    }
+
+    public static BitacoraCambios<Indicador> abrirBitacoraIndicadores(Supplier<List<Indicador>> fuenteSnapshot) {
+        return new BitacoraCambios<>(new File(DATA_FOLDER + "indicadores.log"), DatabaseHelper::formatearIndicador,
+                entidades -> escribirSnapshot("indicadores.csv", ENCABEZADO_INDICADORES, entidades, DatabaseHelper::formatearIndicador, BINARIO_INDICADORES),
+                fuenteSnapshot, UMBRAL_COMPACTACION,
+                () -> snapshotBinarioVigente("indicadores.csv"));
+    }
+
     public static List<Indicador> cargarIndicadores() {
         List<Indicador> indicadores = new ArrayList<>();
-        File archivo = new File(DATA_FOLDER + "indicadores.csv");
-
-        if (!archivo.exists()) {
-            return crearDatosEjemploIndicadores();
-        }
+        cargarIndicadores(indicadores::add);
+        return indicadores;
+    }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(archivo))) {
-            reader.readLine();
-            String linea; // Saltar encabezados
+    public static void cargarIndicadores(Consumer<Indicador> consumidor) {
+        cargarEntidades(new File(DATA_FOLDER + "indicadores.csv"), new File(DATA_FOLDER + "indicadores.log"),
+                DatabaseHelper::leerIndicadores, BINARIO_INDICADORES, DatabaseHelper::crearDatosEjemploIndicadores,
+                DatabaseHelper::parsearIndicador, Indicador::getId, consumidor);
+    }
 
-            while ((linea = reader.readLine()) != null) {
-                String[] datos = linea.split(SEPARADOR);
-                if (datos.length >= 9) {
+    private static void leerIndicadores(File archivo, Consumer<Indicador> consumidor) {
+        int cargados = 0;
+        try (LectorCSV lector = LectorCSV.abrir(archivo).saltarEncabezado()) {
+            while (lector.hasNext()) {
+                LectorCSV.Registro datos = lector.next();
+                if (datos.cantidadCampos() >= 9) {
                     try {
-                        Indicador indicador = new Indicador(
-                                datos[0].trim(),                               // id
-                                datos[1].trim(),                               // nombre
-                                datos[2].replace("\"", "").trim(),             // descripcion
-                                TipoIndicador.valueOf(datos[3].trim()),        // tipo
-                                datos[4].trim(),                               // unidadMedida
-                                Double.parseDouble(datos[5].trim()),           // valorObjetivo
-                                datos[7].trim()                                // procesoId
-                        );
-
-                        indicador.setValorActual(Double.parseDouble(datos[6].trim()));
-                        indicador.setFechaUltimaMedicion(LocalDate.parse(datos[8].trim(), FORMATO_FECHA));
-
-                        indicadores.add(indicador);
+                        consumidor.accept(parsearIndicador(datos));
+                        cargados++;
                     } catch (Exception e) {
-                        System.err.println("Error al procesar indicador: " + linea + " - " + e.getMessage());
+                        System.err.println("Error al procesar indicador: " + datos + " - " + e.getMessage());
                     }
                 }
             }
 
-            System.out.println("Cargados " + indicadores.size() + " indicadores");
-        } catch (IOException e) {
+            System.out.println("Cargados " + cargados + " indicadores");
+        } catch (IOException | UncheckedIOException e) {
             System.err.println("Error al cargar indicadores: " + e.getMessage());
         }
+    }
 
-        return indicadores;
+    private static Indicador parsearIndicador(LectorCSV.Registro datos) {
+        Indicador indicador = new Indicador(
+                datos.campo(0),                                // id
+                datos.campo(1),                                // nombre
+                datos.campo(2),                                // descripcion
+                TipoIndicador.valueOf(datos.campo(3)),         // tipo
+                datos.campo(4),                                // unidadMedida
+                datos.campoDouble(5),                          // valorObjetivo
+                datos.campo(7)                                 // procesoId
+        );
+
+        indicador.setValorActual(datos.campoDouble(6));
+        if (!datos.campoVacio(8)) {
+            indicador.setFechaUltimaMedicion(LocalDate.parse(datos.campo(8), FORMATO_FECHA));
+        }
+        return indicador;
+    }
+
+    private static void escribirIndicadorBinario(Indicador indicador, SnapshotBinario.Escritor salida) throws IOException {
+        salida.texto(indicador.getId());
+        salida.texto(indicador.getNombre());
+        salida.texto(indicador.getDescripcion());
+        salida.enumeracion(indicador.getTipo());
+        salida.texto(indicador.getUnidadMedida());
+        salida.numero(indicador.getValorObjetivo());
+        salida.texto(indicador.getProcesoId());
+        salida.numero(indicador.getValorActual());
+        salida.fecha(indicador.getFechaUltimaMedicion());
+    }
+
+    private static Indicador leerIndicadorBinario(SnapshotBinario.Lector entrada) {
+        Indicador indicador = new Indicador(entrada.texto(), entrada.texto(), entrada.texto(),
+                entrada.enumeracion(TipoIndicador.values()), entrada.texto(), entrada.numero(), entrada.texto());
+        indicador.setValorActual(entrada.numero());
+        indicador.setFechaUltimaMedicion(entrada.fecha());
+        return indicador;
     }
 
     // Métodos para No Conformidades
     public static void guardarNoConformidades(List<NoConformidad> noConformidades) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(DATA_FOLDER + "no_conformidades.csv"))) {
-            writer.println("id,titulo,descripcion,estado,prioridad,fechaDeteccion,procesoAfectado,responsableDeteccion,causaRaiz");
-
-            for (NoConformidad nc : noConformidades) {
-                writer.printf("%s,%s,\"%s\",%s,%s,%s,%s,%s,\"%s\"%n",
-                        nc.getId(),
-                        nc.getTitulo(),
-                        nc.getDescripcion(),
-                        nc.getEstado().name(),
-                        nc.getPrioridad().name(),
-                        nc.getFechaDeteccion().format(FORMATO_FECHA),
-                        nc.getProcesoAfectado(),
-                        nc.getResponsableDeteccion(),
-                        nc.getCausaRaiz() != null ? nc.getCausaRaiz() : ""
-                );
-            }
+        try {
+            escribirSnapshot("no_conformidades.csv", ENCABEZADO_NO_CONFORMIDADES, noConformidades,
+                    DatabaseHelper::formatearNoConformidad, BINARIO_NO_CONFORMIDADES);
             System.out.println("No conformidades guardadas exitosamente");
         } catch (IOException e) {
             System.err.println("Error al guardar no conformidades: " + e.getMessage());
         }
     }
 
+    public static String formatearNoConformidad(NoConformidad nc) {
+        return String.join(SEPARADOR,
+                campo(nc.getId()),
+                campo(nc.getTitulo()),
+                texto(nc.getDescripcion()),
+                nc.getEstado().name(),
+                nc.getPrioridad().name(),
+                nc.getFechaDeteccion().format(FORMATO_FECHA),
+                campo(nc.getProcesoAfectado()),
+                campo(nc.getResponsableDeteccion()),
+                texto(nc.getCausaRaiz())
+        );
+    }
+
+    public static BitacoraCambios<NoConformidad> abrirBitacoraNoConformidades(Supplier<List<NoConformidad>> fuenteSnapshot) {
+        return new BitacoraCambios<>(new File(DATA_FOLDER + "no_conformidades.log"), DatabaseHelper::formatearNoConformidad,
+                entidades -> escribirSnapshot("no_conformidades.csv", ENCABEZADO_NO_CONFORMIDADES, entidades, DatabaseHelper::formatearNoConformidad, BINARIO_NO_CONFORMIDADES),
+                fuenteSnapshot, UMBRAL_COMPACTACION,
+                () -> snapshotBinarioVigente("no_conformidades.csv"));
+    }
+
     public static List<NoConformidad> cargarNoConformidades() {
         List<NoConformidad> noConformidades = new ArrayList<>();
-        File archivo = new File(DATA_FOLDER + "no_conformidades.csv");
+        cargarNoConformidades(noConformidades::add);
+        return noConformidades;
+    }
+
+    public static void cargarNoConformidades(Consumer<NoConformidad> consumidor) {
+        cargarEntidades(new File(DATA_FOLDER + "no_conformidades.csv"), new File(DATA_FOLDER + "no_conformidades.log"),
+                DatabaseHelper::leerNoConformidades, BINARIO_NO_CONFORMIDADES, DatabaseHelper::crearDatosEjemploNoConformidades,
+                DatabaseHelper::parsearNoConformidad, NoConformidad::getId, consumidor);
+    }
+
+    private static void leerNoConformidades(File archivo, Consumer<NoConformidad> consumidor) {
+        int cargadas = 0;
+        try (LectorCSV lector = LectorCSV.abrir(archivo).saltarEncabezado()) {
+            while (lector.hasNext()) {
+                LectorCSV.Registro datos = lector.next();
+                if (datos.cantidadCampos() >= 8) {
+                    try {
+                        consumidor.accept(parsearNoConformidad(datos));
+                        cargadas++;
+                    } catch (Exception e) {
+                        System.err.println("Error al procesar no conformidad: " + datos + " - " + e.getMessage());
+                    }
+                }
+            }
+
+            System.out.println("Cargadas " + cargadas + " no conformidades");
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error al cargar no conformidades: " + e.getMessage());
+        }
+    }
 
-        if (!archivo.exists()) {
-            return crearDatosEjemploNoConformidades();
+    private static NoConformidad parsearNoConformidad(LectorCSV.Registro datos) {
+        NoConformidad nc = new NoConformidad(
+                datos.campo(0),                                    // id
+                datos.campo(1),                                    // titulo
+                datos.campo(2),                                    // descripcion
+                Prioridad.valueOf(datos.campo(4)),                 // prioridad
+                datos.campo(6),                                    // procesoAfectado
+                datos.campo(7)                                     // responsableDeteccion
+        );
+
+        nc.setEstado(EstadoNoConformidad.valueOf(datos.campo(3)));
+        nc.setFechaDeteccion(LocalDate.parse(datos.campo(5), FORMATO_FECHA));
+
+        if (datos.cantidadCampos() > 8) {
+            nc.setCausaRaiz(datos.campo(8));
         }
+        return nc;
+    }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(archivo))) {
-            reader.readLine();
-            String linea; // Saltar encabezados
+    private static void escribirNoConformidadBinario(NoConformidad nc, SnapshotBinario.Escritor salida) throws IOException {
+        salida.texto(nc.getId());
+        salida.texto(nc.getTitulo());
+        salida.texto(nc.getDescripcion());
+        salida.enumeracion(nc.getPrioridad());
+        salida.texto(nc.getProcesoAfectado());
+        salida.texto(nc.getResponsableDeteccion());
+        salida.enumeracion(nc.getEstado());
+        salida.fecha(nc.getFechaDeteccion());
+        salida.texto(nc.getCausaRaiz());
+    }
 
-            while ((linea = reader.readLine()) != null) {
-                String[] datos = linea.split(SEPARADOR);
-                if (datos.length >= 8) {
+    private static NoConformidad leerNoConformidadBinario(SnapshotBinario.Lector entrada) {
+        NoConformidad nc = new NoConformidad(entrada.texto(), entrada.texto(), entrada.texto(),
+                entrada.enumeracion(Prioridad.values()), entrada.texto(), entrada.texto());
+        nc.setEstado(entrada.enumeracion(EstadoNoConformidad.values()));
+        nc.setFechaDeteccion(entrada.fecha());
+        nc.setCausaRaiz(entrada.texto());
+        return nc;
+    }
+
+    // Métodos para Auditorías
+    public static void guardarAuditorias(List<Auditoria> auditorias) {
+        try {
+            escribirSnapshot("auditorias.csv", ENCABEZADO_AUDITORIAS, auditorias, DatabaseHelper::formatearAuditoria, BINARIO_AUDITORIAS);
+            System.out.println("Auditorías guardadas exitosamente");
+        } catch (IOException e) {
+            System.err.println("Error al guardar auditorías: " + e.getMessage());
+        }
+    }
+
+    public static String formatearAuditoria(Auditoria auditoria) {
+        return String.join(SEPARADOR,
+                campo(auditoria.getId()),
+                campo(auditoria.getTitulo()),
+                campo(auditoria.getTipo()),
+                auditoria.getFechaProgramada().format(FORMATO_FECHA),
+                auditoria.getFechaRealizada() != null ? auditoria.getFechaRealizada().format(FORMATO_FECHA) : "",
+                campo(auditoria.getAuditorLider()),
+                lista(auditoria.getAuditores()),
+                lista(auditoria.getProcesosAuditados()),
+                texto(auditoria.getAlcance()),
+                texto(auditoria.getObjetivos()),
+                texto(auditoria.getMetodologia()),
+                lista(auditoria.getHallazgos()),
+                lista(auditoria.getNoConformidadesDetectadas()),
+                texto(auditoria.getConclusion()),
+                String.valueOf(auditoria.getCalificacionGeneral()),
+                String.valueOf(auditoria.isCompletada()),
+                texto(auditoria.getObservaciones())
+        );
+    }
+
+    /**
+     * Abre la bitácora de cambios de auditorías; cada hallazgo o auditor nuevo
+     * agrega un registro en lugar de reescribir el archivo
+     * @param fuenteSnapshot Devuelve una copia de las auditorías actuales para compactar
+     */
+    public static BitacoraCambios<Auditoria> abrirBitacoraAuditorias(Supplier<List<Auditoria>> fuenteSnapshot) {
+        return new BitacoraCambios<>(new File(DATA_FOLDER + "auditorias.log"), DatabaseHelper::formatearAuditoria,
+                entidades -> escribirSnapshot("auditorias.csv", ENCABEZADO_AUDITORIAS, entidades, DatabaseHelper::formatearAuditoria, BINARIO_AUDITORIAS),
+                fuenteSnapshot, UMBRAL_COMPACTACION,
+                () -> snapshotBinarioVigente("auditorias.csv"));
+    }
+
+    public static void cargarAuditorias(Consumer<Auditoria> consumidor) {
+        cargarEntidades(new File(DATA_FOLDER + "auditorias.csv"), new File(DATA_FOLDER + "auditorias.log"),
+                DatabaseHelper::leerAuditorias, BINARIO_AUDITORIAS, DatabaseHelper::crearDatosEjemploAuditorias,
+                DatabaseHelper::parsearAuditoria, Auditoria::getId, consumidor);
+    }
+
+    private static void leerAuditorias(File archivo, Consumer<Auditoria> consumidor) {
+        int cargadas = 0;
+        try (LectorCSV lector = LectorCSV.abrir(archivo).saltarEncabezado()) {
+            while (lector.hasNext()) {
+                LectorCSV.Registro datos = lector.next();
+                if (datos.cantidadCampos() >= 6) {
                     try {
-                        NoConformidad nc = new NoConformidad(
-                                datos[0].trim(),                                   // id
-                                datos[1].trim(),                                   // titulo
-                                datos[2].replace("\"", "").trim(),                 // descripcion
-                                Prioridad.valueOf(datos[4].trim()),                // prioridad
-                                datos[6].trim(),                                   // procesoAfectado
-                                datos[7].trim()                                    // responsableDeteccion
-                        );
-
-                        nc.setEstado(EstadoNoConformidad.valueOf(datos[3].trim()));
-                        nc.setFechaDeteccion(LocalDate.parse(datos[5].trim(), FORMATO_FECHA));
-
-                        if (datos.length > 8) {
-                            nc.setCausaRaiz(datos[8].replace("\"", "").trim());
-                        }
-
-                        noConformidades.add(nc);
+                        consumidor.accept(parsearAuditoria(datos));
+                        cargadas++;
                     } catch (Exception e) {
-                        System.err.println("Error al procesar no conformidad: " + linea + " - " + e.getMessage());
+                        System.err.println("Error al procesar auditoría: " + datos + " - " + e.getMessage());
                     }
                 }
             }
 
-            System.out.println("Cargadas " + noConformidades.size() + " no conformidades");
+            System.out.println("Cargadas " + cargadas + " auditorías");
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error al cargar auditorías: " + e.getMessage());
+        }
+    }
+
+    private static Auditoria parsearAuditoria(LectorCSV.Registro datos) {
+        Auditoria auditoria = new Auditoria(
+                datos.campo(0),                                        // id
+                datos.campo(1),                                        // titulo
+                datos.campo(2),                                        // tipo
+                LocalDate.parse(datos.campo(3), FORMATO_FECHA),        // fechaProgramada
+                datos.campo(5)                                         // auditorLider
+        );
+
+        if (!datos.campoVacio(4)) {
+            auditoria.setFechaRealizada(LocalDate.parse(datos.campo(4), FORMATO_FECHA));
+        }
+        if (datos.cantidadCampos() > 16) {
+            auditoria.setAuditores(parsearLista(datos.campo(6)));
+            auditoria.setProcesosAuditados(parsearLista(datos.campo(7)));
+            auditoria.setAlcance(datos.campo(8));
+            auditoria.setObjetivos(datos.campo(9));
+            auditoria.setMetodologia(datos.campo(10));
+            auditoria.setHallazgos(parsearLista(datos.campo(11)));
+            auditoria.setNoConformidadesDetectadas(parsearLista(datos.campo(12)));
+            auditoria.setConclusion(datos.campo(13));
+            auditoria.setCalificacionGeneral(datos.campoDouble(14));
+            auditoria.setCompletada(Boolean.parseBoolean(datos.campo(15)));
+            auditoria.setObservaciones(datos.campo(16));
+        }
+        return auditoria;
+    }
+
+    private static void escribirAuditoriaBinario(Auditoria auditoria, SnapshotBinario.Escritor salida) throws IOException {
+        salida.texto(auditoria.getId());
+        salida.texto(auditoria.getTitulo());
+        salida.texto(auditoria.getTipo());
+        salida.fecha(auditoria.getFechaProgramada());
+        salida.texto(auditoria.getAuditorLider());
+        salida.fecha(auditoria.getFechaRealizada());
+        salida.lista(auditoria.getAuditores());
+        salida.lista(auditoria.getProcesosAuditados());
+        salida.texto(auditoria.getAlcance());
+        salida.texto(auditoria.getObjetivos());
+        salida.texto(auditoria.getMetodologia());
+        salida.lista(auditoria.getHallazgos());
+        salida.lista(auditoria.getNoConformidadesDetectadas());
+        salida.texto(auditoria.getConclusion());
+        salida.numero(auditoria.getCalificacionGeneral());
+        salida.logico(auditoria.isCompletada());
+        salida.texto(auditoria.getObservaciones());
+    }
+
+    private static Auditoria leerAuditoriaBinario(SnapshotBinario.Lector entrada) {
+        Auditoria auditoria = new Auditoria(entrada.texto(), entrada.texto(), entrada.texto(),
+                entrada.fecha(), entrada.texto());
+        auditoria.setFechaRealizada(entrada.fecha());
+        auditoria.setAuditores(entrada.lista());
+        auditoria.setProcesosAuditados(entrada.lista());
+        auditoria.setAlcance(entrada.texto());
+        auditoria.setObjetivos(entrada.texto());
+        auditoria.setMetodologia(entrada.texto());
+        auditoria.setHallazgos(entrada.lista());
+        auditoria.setNoConformidadesDetectadas(entrada.lista());
+        auditoria.setConclusion(entrada.texto());
+        auditoria.setCalificacionGeneral(entrada.numero());
+        auditoria.setCompletada(entrada.logico());
+        auditoria.setObservaciones(entrada.texto());
+        return auditoria;
+    }
+
+    // Métodos para Acciones Correctivas
+    public static void guardarAccionesCorrectivas(List<AccionCorrectiva> acciones) {
+        try {
+            escribirSnapshot("acciones_correctivas.csv", ENCABEZADO_ACCIONES, acciones,
+                    DatabaseHelper::formatearAccionCorrectiva, BINARIO_ACCIONES);
+            System.out.println("Acciones correctivas guardadas exitosamente");
         } catch (IOException e) {
-            System.err.println("Error al cargar no conformidades: " + e.getMessage());
+            System.err.println("Error al guardar acciones correctivas: " + e.getMessage());
         }
+    }
 
-        return noConformidades;
+    public static String formatearAccionCorrectiva(AccionCorrectiva accion) {
+        return String.join(SEPARADOR,
+                campo(accion.getId()),
+                campo(accion.getNoConformidadId()),
+                texto(accion.getDescripcion()),
+                campo(accion.getResponsable()),
+                accion.getPrioridad() != null ? accion.getPrioridad().name() : "",
+                accion.getFechaInicio() != null ? accion.getFechaInicio().format(FORMATO_FECHA) : "",
+                accion.getFechaLimite().format(FORMATO_FECHA),
+                accion.getFechaCompletada() != null ? accion.getFechaCompletada().format(FORMATO_FECHA) : "",
+                String.valueOf(accion.isCompletada()),
+                texto(accion.getResultadoObtenido()),
+                String.valueOf(accion.getCostoEstimado()),
+                texto(accion.getObservaciones())
+        );
+    }
+
+    /**
+     * Abre la bitácora de cambios de acciones correctivas; agregar o completar
+     * una acción agrega un registro en lugar de reescribir el archivo
+     * @param fuenteSnapshot Devuelve una copia de las acciones actuales para compactar
+     */
+    public static BitacoraCambios<AccionCorrectiva> abrirBitacoraAccionesCorrectivas(
+            Supplier<List<AccionCorrectiva>> fuenteSnapshot) {
+        return new BitacoraCambios<>(new File(DATA_FOLDER + "acciones_correctivas.log"),
+                DatabaseHelper::formatearAccionCorrectiva,
+                entidades -> escribirSnapshot("acciones_correctivas.csv", ENCABEZADO_ACCIONES, entidades,
+                        DatabaseHelper::formatearAccionCorrectiva, BINARIO_ACCIONES),
+                fuenteSnapshot, UMBRAL_COMPACTACION,
+                () -> snapshotBinarioVigente("acciones_correctivas.csv"));
+    }
+
+    /**
+     * Carga las acciones correctivas; no hay datos de ejemplo, sin archivo no se entrega ninguna
+     */
+    public static void cargarAccionesCorrectivas(Consumer<AccionCorrectiva> consumidor) {
+        cargarEntidades(new File(DATA_FOLDER + "acciones_correctivas.csv"), new File(DATA_FOLDER + "acciones_correctivas.log"),
+                DatabaseHelper::leerAccionesCorrectivas, BINARIO_ACCIONES, ArrayList::new,
+                DatabaseHelper::parsearAccionCorrectiva, AccionCorrectiva::getId, consumidor);
+    }
+
+    private static void leerAccionesCorrectivas(File archivo, Consumer<AccionCorrectiva> consumidor) {
+        int cargadas = 0;
+        try (LectorCSV lector = LectorCSV.abrir(archivo).saltarEncabezado()) {
+            while (lector.hasNext()) {
+                LectorCSV.Registro datos = lector.next();
+                if (datos.cantidadCampos() >= 7) {
+                    try {
+                        consumidor.accept(parsearAccionCorrectiva(datos));
+                        cargadas++;
+                    } catch (Exception e) {
+                        System.err.println("Error al procesar acción correctiva: " + datos + " - " + e.getMessage());
+                    }
+                }
+            }
+
+            System.out.println("Cargadas " + cargadas + " acciones correctivas");
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error al cargar acciones correctivas: " + e.getMessage());
+        }
+    }
+
+    private static AccionCorrectiva parsearAccionCorrectiva(LectorCSV.Registro datos) {
+        AccionCorrectiva accion = new AccionCorrectiva(
+                datos.campo(0),                                        // id
+                datos.campo(2),                                        // descripcion
+                datos.campo(3),                                        // responsable
+                LocalDate.parse(datos.campo(6), FORMATO_FECHA),        // fechaLimite
+                datos.campo(1)                                         // noConformidadId
+        );
+
+        if (!datos.campoVacio(4)) {
+            accion.setPrioridad(Prioridad.valueOf(datos.campo(4)));
+        }
+        if (!datos.campoVacio(5)) {
+            accion.setFechaInicio(LocalDate.parse(datos.campo(5), FORMATO_FECHA));
+        }
+        if (datos.cantidadCampos() > 11) {
+            if (!datos.campoVacio(7)) {
+                accion.setFechaCompletada(LocalDate.parse(datos.campo(7), FORMATO_FECHA));
+            }
+            accion.setCompletada(Boolean.parseBoolean(datos.campo(8)));
+            accion.setResultadoObtenido(datos.campo(9));
+            accion.setCostoEstimado(datos.campoDouble(10));
+            accion.setObservaciones(datos.campo(11));
+        }
+        return accion;
+    }
+
+    private static void escribirAccionCorrectivaBinario(AccionCorrectiva accion, SnapshotBinario.Escritor salida)
+            throws IOException {
+        salida.texto(accion.getId());
+        salida.texto(accion.getDescripcion());
+        salida.texto(accion.getResponsable());
+        salida.fecha(accion.getFechaLimite());
+        salida.texto(accion.getNoConformidadId());
+        salida.enumeracion(accion.getPrioridad());
+        salida.fecha(accion.getFechaInicio());
+        salida.fecha(accion.getFechaCompletada());
+        salida.logico(accion.isCompletada());
+        salida.texto(accion.getResultadoObtenido());
+        salida.numero(accion.getCostoEstimado());
+        salida.texto(accion.getObservaciones());
+    }
+
+    private static AccionCorrectiva leerAccionCorrectivaBinario(SnapshotBinario.Lector entrada) {
+        AccionCorrectiva accion = new AccionCorrectiva(entrada.texto(), entrada.texto(), entrada.texto(),
+                entrada.fecha(), entrada.texto());
+        Prioridad prioridad = entrada.enumeracion(Prioridad.values());
+        if (prioridad != null) {
+            accion.setPrioridad(prioridad);
+        }
+        LocalDate fechaInicio = entrada.fecha();
+        if (fechaInicio != null) {
+            accion.setFechaInicio(fechaInicio);
+        }
+        accion.setFechaCompletada(entrada.fecha());
+        accion.setCompletada(entrada.logico());
+        accion.setResultadoObtenido(entrada.texto());
+        accion.setCostoEstimado(entrada.numero());
+        accion.setObservaciones(entrada.texto());
+        return accion;
+    }
+
+    /**
+     * Guarda una lista en un solo campo CSV: elementos separados por '|' y
+     * '\' como escape, así un hallazgo puede contener cualquier carácter
+     */
+    static String lista(List<String> valores) {
+        return texto(unirLista(valores));
+    }
+
+    /**
+     * Une los elementos con el separador de listas, sin comillas; también lo
+     * usan los repositorios que guardan la lista en una sola columna
+     */
+    public static String unirLista(List<String> valores) {
+        StringBuilder resultado = new StringBuilder();
+        for (int i = 0; i < valores.size(); i++) {
+            if (i > 0) {
+                resultado.append(SEPARADOR_LISTA);
+            }
+            String valor = valores.get(i);
+            for (int j = 0; j < valor.length(); j++) {
+                char c = valor.charAt(j);
+                if (c == SEPARADOR_LISTA || c == ESCAPE_LISTA) {
+                    resultado.append(ESCAPE_LISTA);
+                }
+                resultado.append(c);
+            }
+        }
+        return resultado.toString();
+    }
+
+    public static List<String> parsearLista(String campo) {
+        List<String> valores = new ArrayList<>();
+        if (campo == null || campo.isEmpty()) return valores;
+
+        StringBuilder actual = new StringBuilder();
+        for (int i = 0; i < campo.length(); i++) {
+            char c = campo.charAt(i);
+            if (c == ESCAPE_LISTA && i + 1 < campo.length()) {
+                actual.append(campo.charAt(++i));
+            } else if (c == SEPARADOR_LISTA) {
+                valores.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        valores.add(actual.toString());
+        return valores;
     }
 
     // Métodos para crear datos de ejemplo
@@ -312,6 +783,181 @@ public class DatabaseHelper {
         return noConformidades;
     }
 
+    private static List<Auditoria> crearDatosEjemploAuditorias() {
+        List<Auditoria> auditorias = new ArrayList<>();
+
+        // Auditoría completada
+        Auditoria aud1 = new Auditoria("AUD001", "Auditoría Interna Q1 2024", "Interna",
+                LocalDate.now().minusMonths(2), "Carlos Mendoza");
+        aud1.agregarAuditor("Ana López");
+        aud1.agregarProcesoAuditado("P001");
+        aud1.agregarProcesoAuditado("P002");
+        aud1.agregarHallazgo("Documentación actualizada correctamente");
+        aud1.agregarHallazgo("Procesos bien definidos");
+        aud1.completarAuditoria(LocalDate.now().minusMonths(2).plusDays(1),
+                "Sistema de calidad funcionando correctamente", 8.5);
+        auditorias.add(aud1);
+
+        // Auditoría programada
+        Auditoria aud2 = new Auditoria("AUD002", "Auditoría Externa ISO 9001", "Externa",
+                LocalDate.now().plusDays(15), "Auditor Externo");
+        aud2.agregarAuditor("Carlos Mendoza");
+        aud2.agregarAuditor("Ana López");
+        aud2.setAlcance("Todos los procesos de la organización");
+        aud2.setObjetivos("Verificar cumplimiento de requisitos ISO 9001:2015");
+        auditorias.add(aud2);
+
+        // Auditoría de seguimiento
+        Auditoria aud3 = new Auditoria("AUD003", "Seguimiento Acciones Correctivas", "Interna",
+                LocalDate.now().plusDays(30), "Roberto Silva");
+        aud3.agregarProcesoAuditado("P004");
+        aud3.setAlcance("Proceso de producción");
+        aud3.setObjetivos("Verificar implementación de acciones correctivas");
+        auditorias.add(aud3);
+
+        guardarAuditorias(auditorias);
+        return auditorias;
+    }
+
+    // Series temporales de mediciones
+    public static AlmacenSeries abrirAlmacenSeries() {
+        return new AlmacenSeries(new File(DATA_FOLDER + "series"), RETENCION_SERIES_ANIOS);
+    }
+
+    // Snapshot + bitácora
+    /**
+     * Entrega las entidades del snapshot CSV (o los datos de ejemplo si no existe).
+     * Si hay cambios en la bitácora se indexan por id, se reproducen los cambios
+     * y recién entonces se entregan; si no, se transmiten directamente.
+     */
+    private static <T> void cargarEntidades(File archivo, File archivoLog,
+                                            BiConsumer<File, Consumer<T>> lectorSnapshot,
+                                            SnapshotBinario.Codificador<T> codificador,
+                                            Supplier<List<T>> datosEjemplo,
+                                            Function<LectorCSV.Registro, T> parser,
+                                            Function<T, String> extractorId,
+                                            Consumer<T> consumidor) {
+        if (!BitacoraCambios.hayCambios(archivoLog)) {
+            if (archivo.exists()) {
+                leerSnapshot(archivo, lectorSnapshot, codificador, consumidor);
+            } else {
+                datosEjemplo.get().forEach(consumidor);
+            }
+            return;
+        }
+
+        Map<String, T> entidades = new LinkedHashMap<>();
+        Consumer<T> indexar = entidad -> entidades.put(extractorId.apply(entidad), entidad);
+        if (archivo.exists()) {
+            leerSnapshot(archivo, lectorSnapshot, codificador, indexar);
+        } else {
+            datosEjemplo.get().forEach(indexar);
+        }
+
+        int aplicados = BitacoraCambios.reproducir(archivoLog, entidades, parser, extractorId);
+        System.out.println("Aplicados " + aplicados + " cambios de " + archivoLog.getName());
+        entidades.values().forEach(consumidor);
+    }
+
+    /**
+     * Lee el snapshot binario si es copia vigente del CSV; si no existe, está
+     * vencido o dañado, lee el CSV. Las entidades del binario se entregan
+     * recién al terminar de leerlo, así un archivo dañado no deja una carga a medias.
+     */
+    private static <T> void leerSnapshot(File archivo, BiConsumer<File, Consumer<T>> lectorCSV,
+                                         SnapshotBinario.Codificador<T> codificador, Consumer<T> consumidor) {
+        Path binario = archivoBinario(archivo.toPath());
+        if (SnapshotBinario.vigente(binario, archivo.toPath())) {
+            long inicio = System.nanoTime();
+            List<T> entidades = new ArrayList<>();
+            try {
+                SnapshotBinario.leer(binario, codificador, entidades::add);
+                System.out.println("Cargados " + entidades.size() + " registros de " + binario.getFileName()
+                        + " en " + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+                entidades.forEach(consumidor);
+                return;
+            } catch (IOException e) {
+                System.err.println("Error al leer " + binario.getFileName() + ", se usa el CSV: " + e.getMessage());
+            }
+        }
+
+        long inicio = System.nanoTime();
+        lectorCSV.accept(archivo, consumidor);
+        System.out.println("Leído " + archivo.getName() + " en " + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+    }
+
+    /**
+     * @return true si el snapshot binario del CSV indicado está al día; si no,
+     * la bitácora lo regenera al cerrar
+     */
+    private static boolean snapshotBinarioVigente(String nombreArchivo) {
+        Path csv = Paths.get(DATA_FOLDER, nombreArchivo);
+        return SnapshotBinario.vigente(archivoBinario(csv), csv);
+    }
+
+    private static Path archivoBinario(Path csv) {
+        String nombre = csv.getFileName().toString();
+        return csv.resolveSibling(nombre.substring(0, nombre.lastIndexOf('.')) + ".bin");
+    }
+
+    /**
+     * Escribe el CSV completo en un archivo temporal y lo reemplaza de forma atómica,
+     * para que una caída a mitad de la escritura no deje el snapshot truncado.
+     * Después escribe el snapshot binario del mismo contenido; si eso falla el
+     * CSV ya quedó guardado y el binario vencido simplemente no se usa.
+     */
+    private static <T> void escribirSnapshot(String nombreArchivo, String encabezado, List<T> entidades,
+                                             Function<T, String> formateador,
+                                             SnapshotBinario.Codificador<T> codificador) throws IOException {
+        Path destino = Paths.get(DATA_FOLDER, nombreArchivo);
+        Path temporal = Paths.get(DATA_FOLDER, nombreArchivo + ".tmp");
+        Files.createDirectories(destino.getParent());
+
+        try (BufferedWriter writer = Files.newBufferedWriter(temporal, StandardCharsets.UTF_8)) {
+            writer.write(encabezado);
+            writer.newLine();
+            for (T entidad : entidades) {
+                writer.write(formateador.apply(entidad));
+                writer.newLine();
+            }
+        }
+
+        reemplazar(temporal, destino);
+
+        Path binario = archivoBinario(destino);
+        Path binarioTemporal = binario.resolveSibling(binario.getFileName() + ".tmp");
+        try {
+            SnapshotBinario.escribir(binarioTemporal, destino, entidades, codificador);
+            reemplazar(binarioTemporal, binario);
+        } catch (IOException e) {
+            System.err.println("Error al escribir " + binario.getFileName() + ": " + e.getMessage());
+            Files.deleteIfExists(binarioTemporal);
+        }
+    }
+
+    private static void reemplazar(Path temporal, Path destino) throws IOException {
+        try {
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // Campo sin comillas salvo que contenga separadores, comillas o saltos de línea
+    static String campo(String valor) {
+        if (valor == null) return "";
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return texto(valor);
+    }
+
+    // Campo de texto libre, siempre entre comillas y con las comillas internas duplicadas
+    private static String texto(String valor) {
+        if (valor == null) return "\"\"";
+        return "\"" + valor.replace("\"", "\"\"") + "\"";
+    }
+
     // Utilidades generales
     public static void crearCarpetaData() {
         File carpeta = new File(DATA_FOLDER);
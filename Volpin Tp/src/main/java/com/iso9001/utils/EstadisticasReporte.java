@@ -0,0 +1,297 @@
+package com.iso9001.utils;
+
+import com.iso9001.enums.*;
+import com.iso9001.models.*;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * Estadísticas de procesos, indicadores y no conformidades para los reportes
+ *
+ * Recorre cada lista una sola vez y acumula todos los conteos que usan los
+ * reportes (por color, tipo, estado, prioridad, vencidas, críticas...), en
+ * lugar de un filtrado por cada valor. Con listas grandes el recorrido se
+ * reparte entre los hilos del ForkJoinPool común: cada parte acumula por
+ * separado y luego se combinan en orden, así las listas del resultado
+ * conservan el orden original.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+public class EstadisticasReporte {
+    private static final int UMBRAL_PARALELO = 10_000;
+    private static final int LIMITE_DESTACADOS = 5;
+
+    private final Procesos procesos;
+    private final Indicadores indicadores;
+    private final NoConformidades noConformidades;
+
+    private EstadisticasReporte(Procesos procesos, Indicadores indicadores, NoConformidades noConformidades) {
+        this.procesos = procesos;
+        this.indicadores = indicadores;
+        this.noConformidades = noConformidades;
+    }
+
+    /**
+     * Calcula las estadísticas; las listas que un reporte no usa pueden ir vacías
+     * @param procesos Procesos a analizar
+     * @param indicadores Indicadores a analizar
+     * @param noConformidades No conformidades a analizar
+     * @return Estadísticas de las tres listas
+     */
+    public static EstadisticasReporte calcular(List<Proceso> procesos,
+                                               List<Indicador> indicadores,
+                                               List<NoConformidad> noConformidades) {
+        return new EstadisticasReporte(
+                recorrer(procesos, Procesos::new, Procesos::acumular, Procesos::combinar),
+                recorrer(indicadores, Indicadores::new, Indicadores::acumular, Indicadores::combinar),
+                recorrer(noConformidades, NoConformidades::new, NoConformidades::acumular, NoConformidades::combinar));
+    }
+
+    private static <T, A> A recorrer(List<T> lista, Supplier<A> nuevo, BiConsumer<A, T> acumular,
+                                     BinaryOperator<A> combinar) {
+        Collector<T, A, A> colector = Collector.of(nuevo, acumular, combinar);
+        return lista.size() >= UMBRAL_PARALELO
+                ? lista.parallelStream().collect(colector)
+                : lista.stream().collect(colector);
+    }
+
+    // Procesos
+
+    public int getTotalProcesos() {
+        return procesos.total;
+    }
+
+    public int getProcesosActivos() {
+        return procesos.activos;
+    }
+
+    public long getProcesosPorTipo(TipoProceso tipo) {
+        return procesos.porTipo[tipo.ordinal()];
+    }
+
+    /**
+     * @return Procesos activos por tipo, solo los tipos con al menos uno
+     */
+    public Map<TipoProceso, Long> getProcesosActivosPorTipo() {
+        return contarNoVacios(TipoProceso.class, procesos.activosPorTipo);
+    }
+
+    /**
+     * @return Promedio de la eficiencia de los procesos activos
+     */
+    public double getEficienciaPromedio() {
+        return procesos.activos == 0 ? 0.0 : procesos.sumaEficiencia / procesos.activos;
+    }
+
+    // Indicadores
+
+    public int getTotalIndicadores() {
+        return indicadores.total;
+    }
+
+    public long getIndicadoresPorColor(EstadoSemaforo estado) {
+        return indicadores.porColor[estado.ordinal()];
+    }
+
+    /**
+     * @return Porcentaje de indicadores dentro del objetivo
+     */
+    public double getPorcentajeCumplimiento() {
+        return indicadores.total == 0 ? 0.0 : (indicadores.enObjetivo * 100.0) / indicadores.total;
+    }
+
+    /**
+     * @return Indicadores agrupados por tipo, en el orden del enum
+     */
+    public Map<TipoIndicador, List<Indicador>> getIndicadoresPorTipo() {
+        return indicadores.porTipo;
+    }
+
+    /**
+     * @return Los primeros indicadores en rojo (hasta 5), en el orden de la lista
+     */
+    public List<Indicador> getIndicadoresCriticos() {
+        return indicadores.criticos;
+    }
+
+    /**
+     * @return Hasta 5 indicadores con tendencia positiva, de mayor a menor
+     */
+    public List<Indicador> getMejoresTendencias() {
+        List<Indicador> mejores = new ArrayList<>(indicadores.mejoresTendencias.size());
+        for (Tendencia tendencia : indicadores.mejoresTendencias) {
+            mejores.add(tendencia.indicador);
+        }
+        return mejores;
+    }
+
+    // No conformidades
+
+    public int getTotalNoConformidades() {
+        return noConformidades.total;
+    }
+
+    public long getNoConformidadesPorEstado(EstadoNoConformidad estado) {
+        return noConformidades.porEstado[estado.ordinal()];
+    }
+
+    public long getNoConformidadesPorPrioridad(Prioridad prioridad) {
+        return noConformidades.porPrioridad[prioridad.ordinal()];
+    }
+
+    public List<NoConformidad> getNoConformidadesVencidas() {
+        return noConformidades.vencidas;
+    }
+
+    /**
+     * @return No conformidades de prioridad crítica que no están cerradas
+     */
+    public List<NoConformidad> getCriticasPendientes() {
+        return noConformidades.criticasPendientes;
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> contarNoVacios(Class<E> tipo, long[] conteos) {
+        Map<E, Long> resultado = new EnumMap<>(tipo);
+        for (E valor : tipo.getEnumConstants()) {
+            if (conteos[valor.ordinal()] > 0) {
+                resultado.put(valor, conteos[valor.ordinal()]);
+            }
+        }
+        return resultado;
+    }
+
+    // Acumuladores: cada parte del recorrido llena uno y luego se combinan
+
+    private static class Procesos {
+        int total;
+        int activos;
+        double sumaEficiencia;
+        final long[] porTipo = new long[TipoProceso.values().length];
+        final long[] activosPorTipo = new long[TipoProceso.values().length];
+
+        void acumular(Proceso proceso) {
+            total++;
+            porTipo[proceso.getTipo().ordinal()]++;
+            if (proceso.isActivo()) {
+                activos++;
+                activosPorTipo[proceso.getTipo().ordinal()]++;
+                sumaEficiencia += proceso.calcularEficienciaGeneral();
+            }
+        }
+
+        Procesos combinar(Procesos otro) {
+            total += otro.total;
+            activos += otro.activos;
+            sumaEficiencia += otro.sumaEficiencia;
+            sumar(porTipo, otro.porTipo);
+            sumar(activosPorTipo, otro.activosPorTipo);
+            return this;
+        }
+    }
+
+    private static class Indicadores {
+        int total;
+        int enObjetivo;
+        final long[] porColor = new long[EstadoSemaforo.values().length];
+        final Map<TipoIndicador, List<Indicador>> porTipo = new EnumMap<>(TipoIndicador.class);
+        final List<Indicador> criticos = new ArrayList<>();
+        final List<Tendencia> mejoresTendencias = new ArrayList<>();
+
+        void acumular(Indicador indicador) {
+            total++;
+            porColor[indicador.getEstadoSemaforo().ordinal()]++;
+            if (indicador.estaDentroObjetivo()) {
+                enObjetivo++;
+            }
+            porTipo.computeIfAbsent(indicador.getTipo(), t -> new ArrayList<>()).add(indicador);
+            if (indicador.getEstadoSemaforo() == EstadoSemaforo.ROJO && criticos.size() < LIMITE_DESTACADOS) {
+                criticos.add(indicador);
+            }
+            double tendencia = indicador.calcularTendencia();
+            if (tendencia > 0) {
+                agregarTendencia(new Tendencia(indicador, tendencia));
+            }
+        }
+
+        // Mantiene las mejores tendencias ordenadas; ante un empate queda la primera
+        private void agregarTendencia(Tendencia nueva) {
+            int posicion = mejoresTendencias.size();
+            while (posicion > 0 && mejoresTendencias.get(posicion - 1).valor < nueva.valor) {
+                posicion--;
+            }
+            if (posicion < LIMITE_DESTACADOS) {
+                mejoresTendencias.add(posicion, nueva);
+                if (mejoresTendencias.size() > LIMITE_DESTACADOS) {
+                    mejoresTendencias.remove(LIMITE_DESTACADOS);
+                }
+            }
+        }
+
+        Indicadores combinar(Indicadores otro) {
+            total += otro.total;
+            enObjetivo += otro.enObjetivo;
+            sumar(porColor, otro.porColor);
+            otro.porTipo.forEach((tipo, lista) ->
+                    porTipo.computeIfAbsent(tipo, t -> new ArrayList<>()).addAll(lista));
+            for (Indicador indicador : otro.criticos) {
+                if (criticos.size() == LIMITE_DESTACADOS) break;
+                criticos.add(indicador);
+            }
+            for (Tendencia tendencia : otro.mejoresTendencias) {
+                agregarTendencia(tendencia);
+            }
+            return this;
+        }
+    }
+
+    private static class Tendencia {
+        final Indicador indicador;
+        final double valor;   // Se calcula una vez por indicador
+
+        Tendencia(Indicador indicador, double valor) {
+            this.indicador = indicador;
+            this.valor = valor;
+        }
+    }
+
+    private static class NoConformidades {
+        int total;
+        final long[] porEstado = new long[EstadoNoConformidad.values().length];
+        final long[] porPrioridad = new long[Prioridad.values().length];
+        final List<NoConformidad> vencidas = new ArrayList<>();
+        final List<NoConformidad> criticasPendientes = new ArrayList<>();
+
+        void acumular(NoConformidad noConformidad) {
+            total++;
+            porEstado[noConformidad.getEstado().ordinal()]++;
+            porPrioridad[noConformidad.getPrioridad().ordinal()]++;
+            if (noConformidad.estaVencida()) {
+                vencidas.add(noConformidad);
+            }
+            if (noConformidad.getPrioridad() == Prioridad.CRITICA
+                    && noConformidad.getEstado() != EstadoNoConformidad.CERRADA) {
+                criticasPendientes.add(noConformidad);
+            }
+        }
+
+        NoConformidades combinar(NoConformidades otro) {
+            total += otro.total;
+            sumar(porEstado, otro.porEstado);
+            sumar(porPrioridad, otro.porPrioridad);
+            vencidas.addAll(otro.vencidas);
+            criticasPendientes.addAll(otro.criticasPendientes);
+            return this;
+        }
+    }
+
+    private static void sumar(long[] destino, long[] origen) {
+        for (int i = 0; i < destino.length; i++) {
+            destino[i] += origen[i];
+        }
+    }
+}
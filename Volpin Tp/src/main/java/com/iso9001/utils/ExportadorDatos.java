@@ -0,0 +1,268 @@
+package com.iso9001.utils;
+
+import com.iso9001.enums.*;
+import com.iso9001.models.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Exportación de datos del Sistema ISO 9001 en formatos legibles por máquina
+ *
+ * A diferencia de los reportes de texto, cada registro se escribe como una
+ * fila CSV o un objeto JSON por línea (JSON Lines), con fechas ISO-8601,
+ * números con punto decimal y enums por su nombre constante. En CSV las
+ * listas (auditores, hallazgos...) ocupan un campo con los elementos unidos
+ * por '|' y escapados con '\', igual que en los archivos de datos, así que
+ * DatabaseHelper.parsearLista las separa sin ambigüedad. Las filas se
+ * escriben de a una en el Writer recibido, sin armar la salida en memoria;
+ * con ReporteGenerator.escribirEnArchivo van directo a un archivo.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+public class ExportadorDatos {
+    private static final Tabla<Indicador> INDICADORES = new Tabla<Indicador>()
+            .columna("id", Indicador::getId)
+            .columna("nombre", Indicador::getNombre)
+            .columna("tipo", Indicador::getTipo)
+            .columna("procesoId", Indicador::getProcesoId)
+            .columna("unidadMedida", Indicador::getUnidadMedida)
+            .columna("valorObjetivo", Indicador::getValorObjetivo)
+            .columna("valorActual", Indicador::getValorActual)
+            .columna("valorAnterior", Indicador::getValorAnterior)
+            .columna("estadoSemaforo", Indicador::getEstadoSemaforo)
+            .columna("dentroObjetivo", Indicador::estaDentroObjetivo)
+            .columna("tendencia", Indicador::calcularTendencia)
+            .columna("fechaUltimaMedicion", Indicador::getFechaUltimaMedicion);
+
+    private static final Tabla<NoConformidad> NO_CONFORMIDADES = new Tabla<NoConformidad>()
+            .columna("id", NoConformidad::getId)
+            .columna("titulo", NoConformidad::getTitulo)
+            .columna("estado", NoConformidad::getEstado)
+            .columna("prioridad", NoConformidad::getPrioridad)
+            .columna("procesoAfectado", NoConformidad::getProcesoAfectado)
+            .columna("responsableDeteccion", NoConformidad::getResponsableDeteccion)
+            .columna("responsableCorreccion", NoConformidad::getResponsableCorreccion)
+            .columna("fechaDeteccion", NoConformidad::getFechaDeteccion)
+            .columna("fechaLimiteCorreccion", NoConformidad::getFechaLimiteCorreccion)
+            .columna("fechaCierre", NoConformidad::getFechaCierre)
+            .columna("vencida", NoConformidad::estaVencida)
+            .columna("porcentajeCompletitud", NoConformidad::calcularPorcentajeCompletitud)
+            .columna("impactoEconomico", NoConformidad::getImpactoEconomico)
+            .columna("causaRaiz", NoConformidad::getCausaRaiz)
+            .columna("descripcion", NoConformidad::getDescripcion);
+
+    private static final Tabla<Auditoria> AUDITORIAS = new Tabla<Auditoria>()
+            .columna("id", Auditoria::getId)
+            .columna("titulo", Auditoria::getTitulo)
+            .columna("tipo", Auditoria::getTipo)
+            .columna("estado", Auditoria::getEstadoAuditoria)
+            .columna("fechaProgramada", Auditoria::getFechaProgramada)
+            .columna("fechaRealizada", Auditoria::getFechaRealizada)
+            .columna("auditorLider", Auditoria::getAuditorLider)
+            .columna("auditores", Auditoria::getAuditores)
+            .columna("procesosAuditados", Auditoria::getProcesosAuditados)
+            .columna("calificacionGeneral", Auditoria::getCalificacionGeneral)
+            .columna("hallazgos", Auditoria::getHallazgos)
+            .columna("noConformidadesDetectadas", Auditoria::getNoConformidadesDetectadas)
+            .columna("conclusion", Auditoria::getConclusion);
+
+    private static final Tabla<Metrica> METRICAS = new Tabla<Metrica>()
+            .columna("seccion", m -> m.seccion)
+            .columna("clave", m -> m.clave)
+            .columna("valor", m -> m.valor);
+
+    public static void exportarIndicadores(List<Indicador> indicadores, FormatoExportacion formato,
+                                           Writer destino) throws IOException {
+        INDICADORES.escribir(indicadores, formato, destino);
+    }
+
+    public static void exportarNoConformidades(List<NoConformidad> noConformidades, FormatoExportacion formato,
+                                               Writer destino) throws IOException {
+        NO_CONFORMIDADES.escribir(noConformidades, formato, destino);
+    }
+
+    public static void exportarAuditorias(List<Auditoria> auditorias, FormatoExportacion formato,
+                                          Writer destino) throws IOException {
+        AUDITORIAS.escribir(auditorias, formato, destino);
+    }
+
+    /**
+     * Exporta las cifras del reporte de estado general, una métrica por fila
+     * (sección, clave y valor)
+     */
+    public static void exportarEstadoGeneral(EstadisticasReporte estadisticas, FormatoExportacion formato,
+                                             Writer destino) throws IOException {
+        List<Metrica> metricas = new ArrayList<>();
+        metricas.add(new Metrica("procesos", "total", estadisticas.getTotalProcesos()));
+        metricas.add(new Metrica("procesos", "activos", estadisticas.getProcesosActivos()));
+        metricas.add(new Metrica("procesos", "eficienciaPromedio", estadisticas.getEficienciaPromedio()));
+        for (TipoProceso tipo : TipoProceso.values()) {
+            metricas.add(new Metrica("procesosPorTipo", tipo.name(), estadisticas.getProcesosPorTipo(tipo)));
+        }
+        metricas.add(new Metrica("indicadores", "total", estadisticas.getTotalIndicadores()));
+        metricas.add(new Metrica("indicadores", "porcentajeCumplimiento", estadisticas.getPorcentajeCumplimiento()));
+        for (EstadoSemaforo estado : EstadoSemaforo.values()) {
+            metricas.add(new Metrica("indicadoresPorColor", estado.name(), estadisticas.getIndicadoresPorColor(estado)));
+        }
+        metricas.add(new Metrica("noConformidades", "total", estadisticas.getTotalNoConformidades()));
+        metricas.add(new Metrica("noConformidades", "vencidas", estadisticas.getNoConformidadesVencidas().size()));
+        metricas.add(new Metrica("noConformidades", "criticasPendientes", estadisticas.getCriticasPendientes().size()));
+        for (EstadoNoConformidad estado : EstadoNoConformidad.values()) {
+            metricas.add(new Metrica("noConformidadesPorEstado", estado.name(),
+                    estadisticas.getNoConformidadesPorEstado(estado)));
+        }
+        for (Prioridad prioridad : Prioridad.values()) {
+            metricas.add(new Metrica("noConformidadesPorPrioridad", prioridad.name(),
+                    estadisticas.getNoConformidadesPorPrioridad(prioridad)));
+        }
+        METRICAS.escribir(metricas, formato, destino);
+    }
+
+    private static class Metrica {
+        final String seccion;
+        final String clave;
+        final Number valor;
+
+        Metrica(String seccion, String clave, Number valor) {
+            this.seccion = seccion;
+            this.clave = clave;
+            this.valor = valor;
+        }
+    }
+
+    // Columnas exportadas de una entidad, con su nombre y cómo obtener el valor
+    private static class Tabla<T> {
+        private final List<String> nombres = new ArrayList<>();
+        private final List<Function<T, ?>> valores = new ArrayList<>();
+
+        Tabla<T> columna(String nombre, Function<T, ?> valor) {
+            nombres.add(nombre);
+            valores.add(valor);
+            return this;
+        }
+
+        // Cada fila se arma en un buffer reutilizado y se escribe de una vez
+        void escribir(Iterable<T> filas, FormatoExportacion formato, Writer destino) throws IOException {
+            if (formato == FormatoExportacion.CSV) {
+                destino.write(String.join(",", nombres));
+                destino.write('\n');
+            }
+            StringBuilder linea = new StringBuilder(256);
+            for (T fila : filas) {
+                linea.setLength(0);
+                if (formato == FormatoExportacion.CSV) {
+                    agregarFilaCsv(fila, linea);
+                } else {
+                    agregarObjetoJson(fila, linea);
+                }
+                linea.append('\n');
+                destino.append(linea);
+            }
+        }
+
+        private void agregarFilaCsv(T fila, StringBuilder linea) {
+            for (int i = 0; i < valores.size(); i++) {
+                if (i > 0) {
+                    linea.append(',');
+                }
+                linea.append(valorCsv(valores.get(i).apply(fila)));
+            }
+        }
+
+        private void agregarObjetoJson(T fila, StringBuilder linea) {
+            linea.append('{');
+            for (int i = 0; i < valores.size(); i++) {
+                if (i > 0) {
+                    linea.append(',');
+                }
+                agregarTextoJson(nombres.get(i), linea);
+                linea.append(':');
+                agregarValorJson(valores.get(i).apply(fila), linea);
+            }
+            linea.append('}');
+        }
+    }
+
+    private static String valorCsv(Object valor) {
+        if (valor == null) return "";
+        if (valor instanceof Double && !Double.isFinite((Double) valor)) return "";
+        if (valor instanceof Collection) {
+            List<String> elementos = new ArrayList<>();
+            for (Object elemento : (Collection<?>) valor) {
+                elementos.add(texto(elemento));
+            }
+            return DatabaseHelper.campo(DatabaseHelper.unirLista(elementos));
+        }
+        return DatabaseHelper.campo(texto(valor));
+    }
+
+    private static void agregarValorJson(Object valor, StringBuilder linea) {
+        if (valor == null) {
+            linea.append("null");
+        } else if (valor instanceof Number) {
+            // JSON no admite NaN ni infinitos
+            boolean finito = !(valor instanceof Double) || Double.isFinite((Double) valor);
+            linea.append(finito ? valor.toString() : "null");
+        } else if (valor instanceof Boolean) {
+            linea.append(valor.toString());
+        } else if (valor instanceof Collection) {
+            linea.append('[');
+            boolean primero = true;
+            for (Object elemento : (Collection<?>) valor) {
+                if (!primero) {
+                    linea.append(',');
+                }
+                agregarTextoJson(texto(elemento), linea);
+                primero = false;
+            }
+            linea.append(']');
+        } else {
+            agregarTextoJson(texto(valor), linea);
+        }
+    }
+
+    // Fechas en ISO-8601 y enums por nombre, estables ante cambios de etiquetas
+    private static String texto(Object valor) {
+        if (valor instanceof Enum) return ((Enum<?>) valor).name();
+        if (valor instanceof LocalDate) return valor.toString();
+        return String.valueOf(valor);
+    }
+
+    private static void agregarTextoJson(String texto, StringBuilder linea) {
+        linea.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"':
+                    linea.append("\\\"");
+                    break;
+                case '\\':
+                    linea.append("\\\\");
+                    break;
+                case '\n':
+                    linea.append("\\n");
+                    break;
+                case '\r':
+                    linea.append("\\r");
+                    break;
+                case '\t':
+                    linea.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        linea.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        linea.append(c);
+                    }
+            }
+        }
+        linea.append('"');
+    }
+}
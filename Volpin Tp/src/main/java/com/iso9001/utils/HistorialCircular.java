@@ -0,0 +1,263 @@
+package com.iso9001.utils;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Historial de mediciones de capacidad fija para el Sistema ISO 9001
+ *
+ * Guarda los valores en un double[] y las fechas como días epoch en un int[],
+ * descartando las mediciones más antiguas cuando se llena. Los cálculos
+ * (promedio, primero, último) trabajan sobre primitivos sin boxing.
+ *
+ * Los arreglos se publican por copia en escritura: cada modificación arma una
+ * Foto nueva y reemplaza la referencia, así que las lecturas no toman cerrojos
+ * (la ventana de indicadores las hace desde el EDT y los reportes desde varios
+ * hilos mientras una importación agrega mediciones). Quien necesita varias
+ * lecturas coherentes entre sí (tamaño, primero y último) toma una Foto y
+ * trabaja sobre ella. La copia cuesta poco porque la capacidad es chica; los
+ * lotes se agregan con una sola copia.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+public class HistorialCircular {
+    private static final double[] SIN_VALORES = new double[0];
+    private static final int[] SIN_DIAS = new int[0];
+
+    private volatile Foto actual;
+
+    /**
+     * @param capacidad Cantidad máxima de mediciones a conservar
+     */
+    public HistorialCircular(int capacidad) {
+        this.actual = new Foto(verificarCapacidad(capacidad), SIN_VALORES, SIN_DIAS);
+    }
+
+    /**
+     * Agrega una medición; si el historial está lleno descarta la más antigua
+     * @param valor Valor medido
+     * @param fecha Fecha de la medición
+     */
+    public void agregar(double valor, LocalDate fecha) {
+        agregar(valor, (int) fecha.toEpochDay());
+    }
+
+    public void agregar(double valor, int diaEpoch) {
+        agregarTodas(new double[]{valor}, new int[]{diaEpoch}, 1);
+    }
+
+    /**
+     * Agrega varias mediciones, de la más antigua a la más reciente, publicando
+     * una sola versión nueva
+     * @param valores Valores medidos
+     * @param dias Días epoch alineados con valores
+     * @param total Cantidad de mediciones a tomar de los arreglos
+     */
+    public synchronized void agregarTodas(double[] valores, int[] dias, int total) {
+        Foto foto = actual;
+        actual = combinar(foto.capacidad, foto.valores, foto.dias, foto.tamanio(), valores, dias, total);
+    }
+
+    /**
+     * Reemplaza el contenido completo (por ejemplo, al recargarlo desde la serie
+     * guardada) sin que un lector vea el historial vacío a mitad de camino
+     */
+    public synchronized void reemplazar(double[] valores, int[] dias, int total) {
+        Foto foto = actual;
+        actual = combinar(foto.capacidad, SIN_VALORES, SIN_DIAS, 0, valores, dias, total);
+    }
+
+    /**
+     * Cambia la capacidad conservando las mediciones más recientes
+     * @param capacidad Nueva capacidad
+     */
+    public synchronized void redimensionar(int capacidad) {
+        verificarCapacidad(capacidad);
+        Foto foto = actual;
+        if (capacidad == foto.capacidad) return;
+        actual = combinar(capacidad, foto.valores, foto.dias, foto.tamanio(), SIN_VALORES, SIN_DIAS, 0);
+    }
+
+    public synchronized void limpiar() {
+        actual = new Foto(actual.capacidad, SIN_VALORES, SIN_DIAS);
+    }
+
+    /**
+     * @return Versión actual del historial; no cambia aunque se agreguen mediciones después
+     */
+    public Foto foto() {
+        return actual;
+    }
+
+    /**
+     * @param indice Posición lógica (0 = medición más antigua)
+     */
+    public double valor(int indice) {
+        return actual.valor(indice);
+    }
+
+    public int diaEpoch(int indice) {
+        return actual.diaEpoch(indice);
+    }
+
+    public LocalDate fecha(int indice) {
+        return actual.fecha(indice);
+    }
+
+    public double primero() {
+        return actual.primero();
+    }
+
+    public double ultimo() {
+        return actual.ultimo();
+    }
+
+    public double promedio() {
+        return actual.promedio();
+    }
+
+    public int tamanio() {
+        return actual.tamanio();
+    }
+
+    public int capacidad() {
+        return actual.capacidad;
+    }
+
+    public boolean estaVacio() {
+        return actual.estaVacio();
+    }
+
+    /**
+     * @return Vista de solo lectura de los valores, de la más antigua a la más reciente.
+     *         Corresponde a la versión actual y no cambia con las mediciones posteriores.
+     */
+    public List<Double> vistaValores() {
+        return actual.vistaValores();
+    }
+
+    /**
+     * @return Vista de solo lectura de las fechas de la versión actual; para alinearla
+     *         con los valores, tomar ambas vistas de una misma {@link #foto()}
+     */
+    public List<LocalDate> vistaFechas() {
+        return actual.vistaFechas();
+    }
+
+    // Conserva las últimas mediciones de la concatenación de ambos tramos que entran en la capacidad
+    private static Foto combinar(int capacidad, double[] valores1, int[] dias1, int total1,
+                                 double[] valores2, int[] dias2, int total2) {
+        int tamanio = Math.min(capacidad, total1 + total2);
+        int deSegundo = Math.min(total2, tamanio);
+        int dePrimero = tamanio - deSegundo;
+
+        double[] valores = new double[tamanio];
+        int[] dias = new int[tamanio];
+        System.arraycopy(valores1, total1 - dePrimero, valores, 0, dePrimero);
+        System.arraycopy(dias1, total1 - dePrimero, dias, 0, dePrimero);
+        System.arraycopy(valores2, total2 - deSegundo, valores, dePrimero, deSegundo);
+        System.arraycopy(dias2, total2 - deSegundo, dias, dePrimero, deSegundo);
+        return new Foto(capacidad, valores, dias);
+    }
+
+    private static int verificarCapacidad(int capacidad) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva: " + capacidad);
+        }
+        return capacidad;
+    }
+
+    /**
+     * Versión inmutable del historial, de la medición más antigua a la más reciente
+     */
+    public static final class Foto {
+        private final int capacidad;
+        private final double[] valores;
+        private final int[] dias;
+
+        private Foto(int capacidad, double[] valores, int[] dias) {
+            this.capacidad = capacidad;
+            this.valores = valores;
+            this.dias = dias;
+        }
+
+        public double valor(int indice) {
+            return valores[verificarIndice(indice)];
+        }
+
+        public int diaEpoch(int indice) {
+            return dias[verificarIndice(indice)];
+        }
+
+        public LocalDate fecha(int indice) {
+            return LocalDate.ofEpochDay(diaEpoch(indice));
+        }
+
+        public double primero() {
+            return valor(0);
+        }
+
+        public double ultimo() {
+            return valor(valores.length - 1);
+        }
+
+        public double promedio() {
+            if (valores.length == 0) return 0.0;
+            double suma = 0.0;
+            for (double valor : valores) {
+                suma += valor;
+            }
+            return suma / valores.length;
+        }
+
+        public int tamanio() {
+            return valores.length;
+        }
+
+        public boolean estaVacio() {
+            return valores.length == 0;
+        }
+
+        public List<Double> vistaValores() {
+            return new VistaValores();
+        }
+
+        public List<LocalDate> vistaFechas() {
+            return new VistaFechas();
+        }
+
+        private int verificarIndice(int indice) {
+            if (indice < 0 || indice >= valores.length) {
+                throw new IndexOutOfBoundsException("Índice " + indice + " fuera del historial de " + valores.length);
+            }
+            return indice;
+        }
+
+        private class VistaValores extends AbstractList<Double> implements RandomAccess {
+            @Override
+            public Double get(int indice) {
+                return valor(indice);
+            }
+
+            @Override
+            public int size() {
+                return valores.length;
+            }
+        }
+
+        private class VistaFechas extends AbstractList<LocalDate> implements RandomAccess {
+            @Override
+            public LocalDate get(int indice) {
+                return fecha(indice);
+            }
+
+            @Override
+            public int size() {
+                return dias.length;
+            }
+        }
+    }
+}
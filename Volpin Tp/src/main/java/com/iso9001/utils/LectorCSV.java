@@ -0,0 +1,272 @@
+package com.iso9001.utils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lector de archivos CSV en streaming para el Sistema ISO 9001
+ *
+ * Recorre el archivo registro por registro sin materializarlo completo en memoria.
+ * Respeta los campos entre comillas que escribe DatabaseHelper (pueden contener
+ * comas, saltos de línea y comillas escapadas como "") y reutiliza sus buffers:
+ * el mismo objeto Registro se devuelve en cada iteración, por lo que los valores
+ * deben extraerse antes de avanzar al siguiente registro.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+public class LectorCSV implements Closeable, Iterator<LectorCSV.Registro> {
+    private static final int TAMANIO_BUFFER = 16 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer = new char[TAMANIO_BUFFER];
+    private int posicion;
+    private int limite;
+    private boolean finArchivo;
+
+    // Contenido de los campos del registro actual, uno a continuación del otro
+    private final StringBuilder contenido = new StringBuilder(256);
+    private int[] inicios = new int[16];
+    private int[] fines = new int[16];
+    private int cantidadCampos;
+    private int primerCampo;
+    private long numeroLinea;
+    private long lineaRegistro;
+
+    private final Registro registro = new Registro();
+    private boolean registroPendiente;
+
+    public LectorCSV(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Abre un archivo CSV en UTF-8
+     * @param archivo Archivo a leer
+     * @return Lector posicionado al inicio del archivo
+     * @throws IOException si el archivo no puede abrirse
+     */
+    public static LectorCSV abrir(File archivo) throws IOException {
+        return new LectorCSV(new InputStreamReader(new FileInputStream(archivo), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Descarta el primer registro (encabezados)
+     * @return este lector, para encadenar llamadas
+     */
+    public LectorCSV saltarEncabezado() throws IOException {
+        leerRegistro();
+        registroPendiente = false;
+        return this;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!registroPendiente) {
+            try {
+                registroPendiente = leerRegistro();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return registroPendiente;
+    }
+
+    @Override
+    public Registro next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        registroPendiente = false;
+        return registro;
+    }
+
+    /**
+     * Expone los registros restantes como Stream secuencial.
+     * Cerrar el Stream cierra también el archivo.
+     * @return Stream de registros (el objeto Registro se reutiliza)
+     */
+    public Stream<Registro> stream() {
+        Spliterator<Registro> spliterator = Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // Lectura de caracteres sobre el buffer reutilizable
+    private int leerCaracter() throws IOException {
+        if (posicion >= limite) {
+            if (finArchivo) return -1;
+            limite = reader.read(buffer, 0, buffer.length);
+            posicion = 0;
+            if (limite <= 0) {
+                finArchivo = true;
+                limite = 0;
+                return -1;
+            }
+        }
+        return buffer[posicion++];
+    }
+
+    private int verCaracter() throws IOException {
+        int c = leerCaracter();
+        if (c != -1) posicion--;
+        return c;
+    }
+
+    private boolean leerRegistro() throws IOException {
+        while (true) {
+            contenido.setLength(0);
+            cantidadCampos = 0;
+            primerCampo = 0;
+            lineaRegistro = numeroLinea + 1;
+
+            int c = leerCaracter();
+            if (c == -1) return false;
+
+            // Ignorar marca BOM y líneas vacías
+            if (c == '\uFEFF') c = leerCaracter();
+            if (c == '\r' && verCaracter() == '\n') c = leerCaracter();
+            if (c == '\n') {
+                numeroLinea++;
+                continue;
+            }
+            if (c == -1) return false;
+
+            leerCampos(c);
+            return true;
+        }
+    }
+
+    private void leerCampos(int c) throws IOException {
+        int inicioCampo = 0;
+        boolean entreComillas = false;
+        boolean inicioDeCampo = true;
+
+        while (c != -1) {
+            if (entreComillas) {
+                if (c == '"') {
+                    if (verCaracter() == '"') {
+                        leerCaracter();
+                        contenido.append('"');
+                    } else {
+                        entreComillas = false;
+                    }
+                } else {
+                    if (c == '\n') numeroLinea++;
+                    contenido.append((char) c);
+                }
+            } else if (c == ',') {
+                cerrarCampo(inicioCampo);
+                inicioCampo = contenido.length();
+                inicioDeCampo = true;
+            } else if (c == '\n') {
+                numeroLinea++;
+                break;
+            } else if (c == '\r' && verCaracter() == '\n') {
+                // Fin de línea Windows: el \n se procesa en la siguiente vuelta
+            } else if (c == '"' && inicioDeCampo) {
+                entreComillas = true;
+                inicioDeCampo = false;
+            } else {
+                // Una comilla suelta dentro de un campo sin comillas se conserva literal
+                contenido.append((char) c);
+                if (c != ' ' && c != '\t') inicioDeCampo = false;
+            }
+            c = leerCaracter();
+        }
+
+        cerrarCampo(inicioCampo);
+    }
+
+    private void cerrarCampo(int inicioCampo) {
+        if (cantidadCampos == inicios.length) {
+            inicios = Arrays.copyOf(inicios, inicios.length * 2);
+            fines = Arrays.copyOf(fines, fines.length * 2);
+        }
+        inicios[cantidadCampos] = inicioCampo;
+        fines[cantidadCampos] = contenido.length();
+        cantidadCampos++;
+    }
+
+    /**
+     * Vista del registro actual. Se reutiliza entre iteraciones.
+     */
+    public class Registro {
+        private Registro() { }
+
+        public int cantidadCampos() {
+            return cantidadCampos - primerCampo;
+        }
+
+        /**
+         * Consume el primer campo del registro; los índices restantes se desplazan
+         * una posición. Permite leer líneas con un prefijo (por ejemplo, la
+         * operación de una bitácora) usando los mismos parsers que el CSV base.
+         * @return Valor del campo consumido
+         */
+        public String extraerPrimerCampo() {
+            String valor = campo(0);
+            primerCampo++;
+            return valor;
+        }
+
+        /**
+         * Devuelve el campo indicado sin espacios al inicio ni al final
+         * @param indice Posición del campo (base 0)
+         * @return Valor del campo
+         */
+        public String campo(int indice) {
+            if (indice < 0 || indice >= cantidadCampos()) {
+                throw new IndexOutOfBoundsException("Campo " + indice + " inexistente en línea " + lineaRegistro);
+            }
+            int inicio = inicios[primerCampo + indice];
+            int fin = fines[primerCampo + indice];
+            while (inicio < fin && Character.isWhitespace(contenido.charAt(inicio))) inicio++;
+            while (fin > inicio && Character.isWhitespace(contenido.charAt(fin - 1))) fin--;
+            return contenido.substring(inicio, fin);
+        }
+
+        public double campoDouble(int indice) {
+            return Double.parseDouble(campo(indice));
+        }
+
+        public boolean campoVacio(int indice) {
+            return indice >= cantidadCampos() || campo(indice).isEmpty();
+        }
+
+        /**
+         * @return Número de línea del archivo donde comienza el registro
+         */
+        public long getNumeroLinea() {
+            return lineaRegistro;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder texto = new StringBuilder();
+            for (int i = primerCampo; i < cantidadCampos; i++) {
+                if (i > primerCampo) texto.append(',');
+                texto.append(contenido, inicios[i], fines[i]);
+            }
+            return texto.toString();
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package com.iso9001.utils;
+
+import com.iso9001.enums.Granularidad;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serie temporal de mediciones de un indicador para el Sistema ISO 9001
+ *
+ * Se guarda en dos archivos columnares: &lt;id&gt;.fechas (días epoch como int) y
+ * &lt;id&gt;.valores (double), ordenados por fecha. Las altas en orden se agregan al
+ * final; una medición con fecha anterior a la última se intercala desplazando la
+ * cola. Las lecturas usan los archivos mapeados en memoria y las consultas por
+ * rango buscan el inicio con búsqueda binaria.
+ *
+ * Si una caída deja los archivos con distinta cantidad de registros se toma el
+ * mínimo común y la siguiente escritura sobrescribe el resto.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+public class SerieTemporal implements Closeable {
+    private static final int BYTES_FECHA = Integer.BYTES;
+    private static final int BYTES_VALOR = Double.BYTES;
+
+    private final File archivoFechas;
+    private final File archivoValores;
+    private FileChannel canalFechas;
+    private FileChannel canalValores;
+    private MappedByteBuffer mapaFechas;
+    private MappedByteBuffer mapaValores;
+    private int cantidadMapeada;
+    private int cantidad;
+    private int ultimoDia;
+
+    private final ByteBuffer bufferFecha = ByteBuffer.allocate(BYTES_FECHA);
+    private final ByteBuffer bufferValor = ByteBuffer.allocate(BYTES_VALOR);
+
+    /**
+     * Consumidor de mediciones sin boxing
+     */
+    @FunctionalInterface
+    public interface ConsumidorMedicion {
+        void aceptar(int diaEpoch, double valor);
+    }
+
+    /**
+     * Punto resumido de la serie para un período (día, semana o mes)
+     */
+    public static class Punto {
+        private final LocalDate inicioPeriodo;
+        private final int cantidad;
+        private final double promedio;
+        private final double minimo;
+        private final double maximo;
+
+        public Punto(LocalDate inicioPeriodo, int cantidad, double promedio, double minimo, double maximo) {
+            this.inicioPeriodo = inicioPeriodo;
+            this.cantidad = cantidad;
+            this.promedio = promedio;
+            this.minimo = minimo;
+            this.maximo = maximo;
+        }
+
+        public LocalDate getInicioPeriodo() { return inicioPeriodo; }
+        public int getCantidad() { return cantidad; }
+        public double getPromedio() { return promedio; }
+        public double getMinimo() { return minimo; }
+        public double getMaximo() { return maximo; }
+
+        @Override
+        public String toString() {
+            return String.format("Punto{%s, n=%d, prom=%.2f, min=%.2f, max=%.2f}",
+                    inicioPeriodo, cantidad, promedio, minimo, maximo);
+        }
+    }
+
+    /**
+     * Abre (o crea) la serie y descarta las mediciones anteriores al límite de retención
+     * @param carpeta Carpeta de las series
+     * @param nombre Nombre base de los archivos
+     * @param fechaMinima Fecha más antigua a conservar, o null para no aplicar retención
+     */
+    public SerieTemporal(File carpeta, String nombre, LocalDate fechaMinima) throws IOException {
+        Files.createDirectories(carpeta.toPath());
+        this.archivoFechas = new File(carpeta, nombre + ".fechas");
+        this.archivoValores = new File(carpeta, nombre + ".valores");
+        this.cantidad = (int) Math.min(archivoFechas.length() / BYTES_FECHA, archivoValores.length() / BYTES_VALOR);
+
+        if (fechaMinima != null && cantidad > 0) {
+            aplicarRetencion((int) fechaMinima.toEpochDay());
+        }
+
+        this.canalFechas = FileChannel.open(archivoFechas.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.canalValores = FileChannel.open(archivoValores.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        if (cantidad > 0) {
+            leerCompleto(canalFechas, bufferFecha, (long) (cantidad - 1) * BYTES_FECHA);
+            ultimoDia = bufferFecha.getInt(0);
+        }
+    }
+
+    /**
+     * Registra una medición manteniendo el orden por fecha
+     */
+    public synchronized void agregar(LocalDate fecha, double valor) throws IOException {
+        agregar((int) fecha.toEpochDay(), valor);
+    }
+
+    /**
+     * Registra varias mediciones ordenadas por fecha. Si todas son posteriores a
+     * la última guardada se escriben al final, con una sola escritura por archivo.
+     * Si hay atrasadas, la cola de la serie desde la primera de ellas se lee una
+     * vez, se mezcla con el lote y se reescribe: un lote desordenado cuesta una
+     * pasada sobre esa cola y no una por cada medición atrasada.
+     * @param dias Días epoch, de menor a mayor
+     * @param valores Valores alineados con dias
+     * @param total Cantidad de mediciones a tomar de los arreglos
+     */
+    public synchronized void agregarTodas(int[] dias, double[] valores, int total) throws IOException {
+        if (total == 0) return;
+
+        // Igual que al intercalar de a una: las nuevas quedan después de las del mismo día
+        int posicion = (cantidad == 0 || dias[0] >= ultimoDia) ? cantidad : limiteSuperior(dias[0]);
+        int existentes = cantidad - posicion;
+        ByteBuffer colaFechas = ByteBuffer.allocate(existentes * BYTES_FECHA);
+        ByteBuffer colaValores = ByteBuffer.allocate(existentes * BYTES_VALOR);
+        if (existentes > 0) {
+            leerCompleto(canalFechas, colaFechas, (long) posicion * BYTES_FECHA);
+            leerCompleto(canalValores, colaValores, (long) posicion * BYTES_VALOR);
+        }
+
+        ByteBuffer bloqueFechas = ByteBuffer.allocate((existentes + total) * BYTES_FECHA);
+        ByteBuffer bloqueValores = ByteBuffer.allocate((existentes + total) * BYTES_VALOR);
+        int i = 0, j = 0;
+        while (i < existentes || j < total) {
+            if (j == total || (i < existentes && colaFechas.getInt(i * BYTES_FECHA) <= dias[j])) {
+                bloqueFechas.putInt(colaFechas.getInt(i * BYTES_FECHA));
+                bloqueValores.putDouble(colaValores.getDouble(i * BYTES_VALOR));
+                i++;
+            } else {
+                bloqueFechas.putInt(dias[j]);
+                bloqueValores.putDouble(valores[j]);
+                j++;
+            }
+        }
+        ultimoDia = bloqueFechas.getInt(bloqueFechas.position() - BYTES_FECHA);
+        bloqueFechas.flip();
+        bloqueValores.flip();
+        escribirCompleto(canalFechas, bloqueFechas, (long) posicion * BYTES_FECHA);
+        escribirCompleto(canalValores, bloqueValores, (long) posicion * BYTES_VALOR);
+        cantidad += total;
+        if (existentes > 0) {
+            cantidadMapeada = 0; // El contenido mapeado cambió de lugar
+        }
+    }
+
+    private void agregar(int dia, double valor) throws IOException {
+        if (cantidad == 0 || dia >= ultimoDia) {
+            escribir(cantidad, dia, valor);
+            cantidad++;
+            ultimoDia = dia;
+            return;
+        }
+
+        // Medición atrasada: se intercala después de las del mismo día
+        int posicion = limiteSuperior(dia);
+        int desplazar = cantidad - posicion;
+        ByteBuffer colaFechas = ByteBuffer.allocate(desplazar * BYTES_FECHA);
+        ByteBuffer colaValores = ByteBuffer.allocate(desplazar * BYTES_VALOR);
+        leerCompleto(canalFechas, colaFechas, (long) posicion * BYTES_FECHA);
+        leerCompleto(canalValores, colaValores, (long) posicion * BYTES_VALOR);
+
+        canalFechas.write(colaFechas, (long) (posicion + 1) * BYTES_FECHA);
+        canalValores.write(colaValores, (long) (posicion + 1) * BYTES_VALOR);
+        escribir(posicion, dia, valor);
+        cantidad++;
+        cantidadMapeada = 0; // El contenido mapeado cambió de lugar
+    }
+
+    private static void leerCompleto(FileChannel canal, ByteBuffer destino, long posicion) throws IOException {
+        destino.clear();
+        while (destino.hasRemaining()) {
+            int leidos = canal.read(destino, posicion + destino.position());
+            if (leidos < 0) throw new IOException("Fin de archivo inesperado en la serie");
+        }
+        destino.flip();
+    }
+
+    private static void escribirCompleto(FileChannel canal, ByteBuffer origen, long posicion) throws IOException {
+        while (origen.hasRemaining()) {
+            canal.write(origen, posicion + origen.position());
+        }
+    }
+
+    private void escribir(int posicion, int dia, double valor) throws IOException {
+        bufferFecha.clear();
+        bufferFecha.putInt(dia).flip();
+        bufferValor.clear();
+        bufferValor.putDouble(valor).flip();
+        canalFechas.write(bufferFecha, (long) posicion * BYTES_FECHA);
+        canalValores.write(bufferValor, (long) posicion * BYTES_VALOR);
+    }
+
+    public synchronized int cantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Recorre las mediciones entre dos fechas (inclusive) en orden cronológico
+     */
+    public synchronized void consultar(LocalDate desde, LocalDate hasta, ConsumidorMedicion consumidor) throws IOException {
+        mapear();
+        int diaHasta = (int) hasta.toEpochDay();
+        for (int i = limiteInferior((int) desde.toEpochDay()); i < cantidad; i++) {
+            int dia = dia(i);
+            if (dia > diaHasta) break;
+            consumidor.aceptar(dia, valor(i));
+        }
+    }
+
+    /**
+     * Recorre las últimas mediciones registradas, de la más antigua a la más reciente
+     * @param maximo Cantidad máxima de mediciones
+     */
+    public synchronized void ultimas(int maximo, ConsumidorMedicion consumidor) throws IOException {
+        mapear();
+        for (int i = Math.max(0, cantidad - maximo); i < cantidad; i++) {
+            consumidor.aceptar(dia(i), valor(i));
+        }
+    }
+
+    /**
+     * Resume las mediciones del rango en un punto por período con promedio, mínimo y máximo
+     */
+    public synchronized List<Punto> resumir(LocalDate desde, LocalDate hasta, Granularidad granularidad) throws IOException {
+        mapear();
+        List<Punto> puntos = new ArrayList<>();
+        int diaHasta = (int) hasta.toEpochDay();
+
+        LocalDate inicioPeriodo = null;
+        int finPeriodo = Integer.MIN_VALUE;
+        int n = 0;
+        double suma = 0, minimo = 0, maximo = 0;
+
+        for (int i = limiteInferior((int) desde.toEpochDay()); i < cantidad; i++) {
+            int dia = dia(i);
+            if (dia > diaHasta) break;
+
+            if (dia >= finPeriodo) {
+                if (n > 0) {
+                    puntos.add(new Punto(inicioPeriodo, n, suma / n, minimo, maximo));
+                }
+                // Solo se crean fechas al cambiar de período
+                inicioPeriodo = granularidad.inicioPeriodo(LocalDate.ofEpochDay(dia));
+                finPeriodo = (int) granularidad.siguientePeriodo(inicioPeriodo).toEpochDay();
+                n = 0;
+                suma = 0;
+            }
+
+            double valor = valor(i);
+            if (n == 0) {
+                minimo = valor;
+                maximo = valor;
+            } else {
+                minimo = Math.min(minimo, valor);
+                maximo = Math.max(maximo, valor);
+            }
+            suma += valor;
+            n++;
+        }
+
+        if (n > 0) {
+            puntos.add(new Punto(inicioPeriodo, n, suma / n, minimo, maximo));
+        }
+        return puntos;
+    }
+
+    // Reescribe los archivos sin las mediciones anteriores al límite (antes de mapear).
+    // Se abre cada serie al iniciar y tras cada desalojo del AlmacenSeries: si no hay
+    // nada que descartar solo se lee la primera fecha, y el corte se busca con
+    // lecturas puntuales, sin cargar la serie en memoria
+    private void aplicarRetencion(int diaMinimo) throws IOException {
+        int primero;
+        try (FileChannel fechas = FileChannel.open(archivoFechas.toPath(), StandardOpenOption.READ)) {
+            if (leerDia(fechas, 0) >= diaMinimo) return;
+
+            // Primera posición con fecha dentro del límite (la serie está ordenada por fecha)
+            int desde = 1;
+            int hasta = cantidad;
+            while (desde < hasta) {
+                int medio = (desde + hasta) >>> 1;
+                if (leerDia(fechas, medio) < diaMinimo) {
+                    desde = medio + 1;
+                } else {
+                    hasta = medio;
+                }
+            }
+            primero = desde;
+        }
+
+        int conservar = cantidad - primero;
+        conservarTramo(archivoFechas, (long) primero * BYTES_FECHA, (long) conservar * BYTES_FECHA);
+        conservarTramo(archivoValores, (long) primero * BYTES_VALOR, (long) conservar * BYTES_VALOR);
+        System.out.println("Retención aplicada a " + archivoValores.getName() + ": " + primero + " mediciones descartadas");
+        cantidad = conservar;
+    }
+
+    private int leerDia(FileChannel canal, int indice) throws IOException {
+        leerCompleto(canal, bufferFecha, (long) indice * BYTES_FECHA);
+        return bufferFecha.getInt(0);
+    }
+
+    // Copia el tramo a un temporal canal a canal y lo pone en lugar del archivo
+    private static void conservarTramo(File archivo, long inicio, long bytes) throws IOException {
+        File temporal = new File(archivo.getPath() + ".tmp");
+        try (FileChannel origen = FileChannel.open(archivo.toPath(), StandardOpenOption.READ);
+             FileChannel destino = FileChannel.open(temporal.toPath(), StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long copiados = 0;
+            while (copiados < bytes) {
+                copiados += origen.transferTo(inicio + copiados, bytes - copiados, destino);
+            }
+        }
+        Files.move(temporal.toPath(), archivo.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void mapear() throws IOException {
+        if (cantidadMapeada == cantidad && mapaFechas != null) return;
+        mapaFechas = canalFechas.map(FileChannel.MapMode.READ_ONLY, 0, (long) cantidad * BYTES_FECHA);
+        mapaValores = canalValores.map(FileChannel.MapMode.READ_ONLY, 0, (long) cantidad * BYTES_VALOR);
+        cantidadMapeada = cantidad;
+    }
+
+    private int dia(int indice) throws IOException {
+        if (indice >= cantidadMapeada) {
+            mapear();
+        }
+        return mapaFechas.getInt(indice * BYTES_FECHA);
+    }
+
+    private double valor(int indice) {
+        return mapaValores.getDouble(indice * BYTES_VALOR);
+    }
+
+    // Primera posición con día >= dia
+    private int limiteInferior(int dia) throws IOException {
+        int bajo = 0, alto = cantidad;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (dia(medio) < dia) bajo = medio + 1;
+            else alto = medio;
+        }
+        return bajo;
+    }
+
+    // Primera posición con día > dia
+    private int limiteSuperior(int dia) throws IOException {
+        int bajo = 0, alto = cantidad;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (dia(medio) <= dia) bajo = medio + 1;
+            else alto = medio;
+        }
+        return bajo;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        mapaFechas = null;
+        mapaValores = null;
+        cantidadMapeada = 0;
+        canalFechas.close();
+        canalValores.close();
+    }
+
+    /**
+     * Borra los archivos de la serie; debe estar cerrada
+     */
+    public static void eliminarArchivos(File carpeta, String nombre) {
+        new File(carpeta, nombre + ".fechas").delete();
+        new File(carpeta, nombre + ".valores").delete();
+    }
+
+    public static boolean existe(File carpeta, String nombre) {
+        return new File(carpeta, nombre + ".fechas").length() > 0;
+    }
+}
@@ -0,0 +1,282 @@
+package com.iso9001.utils;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Snapshot binario de una entidad, copia del snapshot CSV que se lee mucho
+ * más rápido al iniciar
+ *
+ * Se escribe junto a cada CSV (al compactar la bitácora y al cerrar) y se lee
+ * con el archivo mapeado en memoria, sin parsear texto: fechas como día
+ * epoch, enums por ordinal, números como double y cada texto distinto una
+ * sola vez en una tabla al final del archivo, a la que los registros se
+ * refieren por posición (así los textos repetidos se comparten al leer).
+ *
+ * La cabecera guarda tamaño y fecha de modificación del CSV del que es
+ * copia; si el CSV cambió después (por ejemplo, editado a mano) el binario
+ * se considera vencido y se lee el CSV.
+ *
+ * Formato: cabecera (mágico, versión, tamaño y fecha del CSV, cantidad de
+ * registros, posición de la tabla de textos), registros y tabla de textos.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+public class SnapshotBinario {
+    private static final int MAGICO = 0x49534F42;   // "ISOB"
+    private static final int VERSION = 1;
+    private static final int TAMANIO_CABECERA = 36;
+    private static final int SIN_TEXTO = -1;
+    private static final int SIN_FECHA = Integer.MIN_VALUE;
+
+    /**
+     * Conversión de una entidad a registro binario y viceversa; leer debe
+     * pedir los mismos campos, en el mismo orden, que escribió escribir
+     */
+    public interface Codificador<T> {
+        void escribir(T entidad, Escritor salida) throws IOException;
+
+        T leer(Lector entrada);
+    }
+
+    @FunctionalInterface
+    public interface EscrituraRegistro<T> {
+        void escribir(T entidad, Escritor salida) throws IOException;
+    }
+
+    /**
+     * Arma un codificador a partir de sus dos mitades (por ejemplo, dos métodos estáticos)
+     */
+    public static <T> Codificador<T> codificador(EscrituraRegistro<T> escritura, Function<Lector, T> lectura) {
+        return new Codificador<T>() {
+            @Override
+            public void escribir(T entidad, Escritor salida) throws IOException {
+                escritura.escribir(entidad, salida);
+            }
+
+            @Override
+            public T leer(Lector entrada) {
+                return lectura.apply(entrada);
+            }
+        };
+    }
+
+    /**
+     * Escribe el snapshot binario de las entidades
+     * @param destino Archivo binario (normalmente temporal, luego se mueve)
+     * @param csv Snapshot CSV ya escrito del que el binario es copia
+     */
+    public static <T> void escribir(Path destino, Path csv, List<T> entidades,
+                                    Codificador<T> codificador) throws IOException {
+        try (FileChannel canal = FileChannel.open(destino, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Escritor escritor = new Escritor(new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(canal), 64 * 1024)));
+
+            escritor.salida.write(new byte[TAMANIO_CABECERA]);   // Se completa al final
+            for (T entidad : entidades) {
+                codificador.escribir(entidad, escritor);
+            }
+            long posicionTabla = escritor.salida.size();   // Incluye la cabecera
+            escritor.escribirTabla();
+            escritor.salida.flush();
+
+            ByteBuffer cabecera = ByteBuffer.allocate(TAMANIO_CABECERA);
+            cabecera.putInt(MAGICO)
+                    .putInt(VERSION)
+                    .putLong(Files.size(csv))
+                    .putLong(fechaModificacion(csv))
+                    .putInt(entidades.size())
+                    .putLong(posicionTabla)
+                    .flip();
+            canal.write(cabecera, 0);
+        }
+    }
+
+    /**
+     * @return true si el binario existe y es copia del CSV tal como está ahora
+     */
+    public static boolean vigente(Path binario, Path csv) {
+        if (!Files.exists(binario) || !Files.exists(csv)) return false;
+
+        try (FileChannel canal = FileChannel.open(binario, StandardOpenOption.READ)) {
+            ByteBuffer cabecera = ByteBuffer.allocate(TAMANIO_CABECERA);
+            while (cabecera.hasRemaining() && canal.read(cabecera) != -1) {
+                // Lee la cabecera completa
+            }
+            if (cabecera.hasRemaining()) return false;
+            cabecera.flip();
+            return cabecera.getInt() == MAGICO
+                    && cabecera.getInt() == VERSION
+                    && cabecera.getLong() == Files.size(csv)
+                    && cabecera.getLong() == fechaModificacion(csv);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Lee el snapshot binario mapeándolo en memoria
+     * @param consumidor Recibe las entidades en el orden en que se escribieron
+     * @return Cantidad de entidades leídas
+     * @throws IOException Si el archivo no se puede leer o está dañado
+     */
+    public static <T> int leer(Path binario, Codificador<T> codificador, Consumer<T> consumidor) throws IOException {
+        try (FileChannel canal = FileChannel.open(binario, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (buffer.getInt() != MAGICO || buffer.getInt() != VERSION) {
+                throw new IOException("Formato no reconocido: " + binario.getFileName());
+            }
+            buffer.getLong();   // Tamaño del CSV
+            buffer.getLong();   // Fecha del CSV
+            int cantidad = buffer.getInt();
+            long posicionTabla = buffer.getLong();
+
+            Lector lector = new Lector(buffer, leerTabla(buffer, posicionTabla));
+            buffer.position(TAMANIO_CABECERA);
+            for (int i = 0; i < cantidad; i++) {
+                consumidor.accept(codificador.leer(lector));
+            }
+            return cantidad;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Snapshot binario dañado: " + binario.getFileName(), e);
+        }
+    }
+
+    private static String[] leerTabla(ByteBuffer buffer, long posicionTabla) {
+        buffer.position(Math.toIntExact(posicionTabla));
+        String[] textos = new String[buffer.getInt()];
+        byte[] bytes = new byte[256];
+        for (int i = 0; i < textos.length; i++) {
+            int longitud = buffer.getInt();
+            if (longitud > bytes.length) {
+                bytes = new byte[Math.max(longitud, bytes.length * 2)];
+            }
+            buffer.get(bytes, 0, longitud);
+            textos[i] = new String(bytes, 0, longitud, StandardCharsets.UTF_8);
+        }
+        return textos;
+    }
+
+    private static long fechaModificacion(Path archivo) throws IOException {
+        return Files.getLastModifiedTime(archivo).to(TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * Salida de los campos de un registro
+     */
+    public static final class Escritor {
+        private final DataOutputStream salida;
+        private final Map<String, Integer> posiciones = new HashMap<>();
+        private final List<String> textos = new ArrayList<>();
+
+        private Escritor(DataOutputStream salida) {
+            this.salida = salida;
+        }
+
+        public void texto(String valor) throws IOException {
+            if (valor == null) {
+                salida.writeInt(SIN_TEXTO);
+                return;
+            }
+            Integer posicion = posiciones.get(valor);
+            if (posicion == null) {
+                posicion = textos.size();
+                posiciones.put(valor, posicion);
+                textos.add(valor);
+            }
+            salida.writeInt(posicion);
+        }
+
+        public void fecha(LocalDate valor) throws IOException {
+            salida.writeInt(valor != null ? (int) valor.toEpochDay() : SIN_FECHA);
+        }
+
+        public void enumeracion(Enum<?> valor) throws IOException {
+            salida.writeByte(valor != null ? valor.ordinal() : -1);
+        }
+
+        public void numero(double valor) throws IOException {
+            salida.writeDouble(valor);
+        }
+
+        public void logico(boolean valor) throws IOException {
+            salida.writeBoolean(valor);
+        }
+
+        public void lista(List<String> valores) throws IOException {
+            salida.writeInt(valores.size());
+            for (String valor : valores) {
+                texto(valor);
+            }
+        }
+
+        private void escribirTabla() throws IOException {
+            salida.writeInt(textos.size());
+            for (String texto : textos) {
+                byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+                salida.writeInt(bytes.length);
+                salida.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * Entrada de los campos de un registro, en el orden en que se escribieron
+     */
+    public static final class Lector {
+        private final ByteBuffer buffer;
+        private final String[] textos;
+
+        private Lector(ByteBuffer buffer, String[] textos) {
+            this.buffer = buffer;
+            this.textos = textos;
+        }
+
+        public String texto() {
+            int posicion = buffer.getInt();
+            return posicion == SIN_TEXTO ? null : textos[posicion];
+        }
+
+        public LocalDate fecha() {
+            int dia = buffer.getInt();
+            return dia == SIN_FECHA ? null : LocalDate.ofEpochDay(dia);
+        }
+
+        public <E extends Enum<E>> E enumeracion(E[] valores) {
+            byte ordinal = buffer.get();
+            return ordinal < 0 ? null : valores[ordinal];
+        }
+
+        public double numero() {
+            return buffer.getDouble();
+        }
+
+        public boolean logico() {
+            return buffer.get() != 0;
+        }
+
+        public List<String> lista() {
+            int cantidad = buffer.getInt();
+            List<String> valores = new ArrayList<>(cantidad);
+            for (int i = 0; i < cantidad; i++) {
+                valores.add(texto());
+            }
+            return valores;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.iso9001.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Utilidades de texto para búsquedas en el Sistema ISO 9001
+ *
+ * Normaliza textos para comparar sin distinguir mayúsculas ni acentos:
+ * "Auditoría" y "AUDITORIA" producen la misma clave de búsqueda.
+ *
+ * @author Sistema ISO 9001
+ * @version 1.0
+ */
+public class TextoUtils {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+
+    // Palabras demasiado frecuentes en español para servir en una búsqueda
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "de", "la", "el", "en", "y", "a", "los", "las", "del", "al", "por", "con", "para",
+            "un", "una", "unos", "unas", "se", "que", "o", "su", "sus", "es", "lo", "no", "sin");
+
+    /**
+     * Convierte un texto a su clave de búsqueda: minúsculas, sin acentos y sin
+     * espacios en los extremos
+     * @param texto Texto a normalizar (puede ser null)
+     * @return Clave normalizada; "" si el texto es null
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) return "";
+
+        String minusculas = texto.trim().toLowerCase(Locale.ROOT);
+        if (esAscii(minusculas)) return minusculas;
+
+        String descompuesto = Normalizer.normalize(minusculas, Normalizer.Form.NFD);
+        return MARCAS_DIACRITICAS.matcher(descompuesto).replaceAll("");
+    }
+
+    /**
+     * Une varios campos normalizados en una sola clave. El separador no se puede
+     * escribir en un campo de búsqueda, así que una consulta nunca coincide a
+     * caballo entre dos campos.
+     * @param campos Textos a unir (pueden ser null)
+     * @return Clave de búsqueda combinada
+     */
+    public static String claveBusqueda(String... campos) {
+        StringBuilder clave = new StringBuilder();
+        for (String campo : campos) {
+            if (clave.length() > 0) {
+                clave.append('\u0000');
+            }
+            clave.append(normalizar(campo));
+        }
+        return clave.toString();
+    }
+
+    /**
+     * Divide un texto en palabras normalizadas para indexar o buscar. Separa por
+     * cualquier carácter que no sea letra ni dígito y descarta las palabras vacías.
+     * @param texto Texto a dividir (puede ser null)
+     * @return Palabras en el orden en que aparecen, con repeticiones
+     */
+    public static List<String> tokenizar(String texto) {
+        List<String> palabras = dividir(texto);
+        palabras.removeIf(PALABRAS_VACIAS::contains);
+        return palabras;
+    }
+
+    /**
+     * Divide una consulta en términos de búsqueda. Las palabras vacías se
+     * descartan solo si queda algún otro término: una consulta como "con" o
+     * "la" es el comienzo de una palabra que se está escribiendo ("control",
+     * "laboratorio") y se busca como prefijo.
+     * @param consulta Texto escrito por el usuario (puede ser null)
+     * @return Términos en el orden en que aparecen, con repeticiones
+     */
+    public static List<String> tokenizarConsulta(String consulta) {
+        List<String> terminos = dividir(consulta);
+        List<String> significativos = new ArrayList<>(terminos);
+        significativos.removeIf(PALABRAS_VACIAS::contains);
+        return significativos.isEmpty() ? terminos : significativos;
+    }
+
+    private static List<String> dividir(String texto) {
+        List<String> palabras = new ArrayList<>();
+        String normalizado = normalizar(texto);
+        int inicio = -1;
+        for (int i = 0; i <= normalizado.length(); i++) {
+            boolean esParteDePalabra = i < normalizado.length() && Character.isLetterOrDigit(normalizado.charAt(i));
+            if (esParteDePalabra && inicio < 0) {
+                inicio = i;
+            } else if (!esParteDePalabra && inicio >= 0) {
+                palabras.add(normalizado.substring(inicio, i));
+                inicio = -1;
+            }
+        }
+        return palabras;
+    }
+
+    // Atajo: la mayoría de los textos del sistema no necesitan Normalizer
+    private static boolean esAscii(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) > 127) return false;
+        }
+        return true;
+    }
+}